@@ -0,0 +1,369 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.BufferPool;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.metrics.MetricsRegistry;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.DefaultThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.ConcurrentUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.log4j.Logger;
+import org.bouncycastle.util.encoders.Base64;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.BlobType;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockListingFilter;
+import com.microsoft.azure.storage.blob.BlockSearchMode;
+import com.microsoft.azure.storage.blob.CloudBlob;
+import com.microsoft.azure.storage.blob.CloudBlobContainer;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+import com.microsoft.azure.storage.blob.DeleteSnapshotsOption;
+
+/**
+ * Upload file as block blob with blocks staged concurrently using Put Block and committed in order with Put Block
+ * List. Each block is sent with its MD5 checksum verified by the server. Blocks staged but not committed are kept
+ * by the server for a week and are skipped when resuming an interrupted upload if the MD5 checksum of the local
+ * content encoded in the block identifier matches.
+ */
+public class AzureBlockBlobUploadService implements Upload<Void> {
+    private static final Logger log = Logger.getLogger(AzureBlockBlobUploadService.class);
+
+    /**
+     * The maximum number of blocks in a block blob
+     */
+    public static final int MAXIMUM_UPLOAD_BLOCKS = 50000;
+
+    /**
+     * The maximum size of a single block
+     */
+    public static final long MAXIMUM_BLOCK_SIZE = 100 * 1024L * 1024L;
+
+    private final PathContainerService containerService
+            = new AzurePathContainerService();
+
+    private final AzureSession session;
+    private final OperationContext context;
+
+    private final Long blockSize;
+    private final Integer concurrency;
+
+    public AzureBlockBlobUploadService(final AzureSession session, final OperationContext context) {
+        this(session, context, PreferencesFactory.get().getLong("azure.upload.blockblob.size"),
+                PreferencesFactory.get().getInteger("azure.upload.blockblob.concurrency"));
+    }
+
+    public AzureBlockBlobUploadService(final AzureSession session, final OperationContext context, final Long blockSize, final Integer concurrency) {
+        this.session = session;
+        this.context = context;
+        this.blockSize = blockSize;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        final DefaultThreadPool pool = new DefaultThreadPool("largeupload", concurrency);
+        try {
+            final CloudBlobContainer container = session.getClient().getContainerReference(containerService.getContainer(file).getName());
+            final CloudBlockBlob blob = container.getBlockBlobReference(containerService.getKey(file));
+            // Blocks already staged by identifier
+            final Map<String, BlockEntry> staged = new HashMap<String, BlockEntry>();
+            if(status.isAppend() || status.isRetry()) {
+                for(BlockEntry block : this.list(file)) {
+                    staged.put(block.getId(), block);
+                }
+            }
+            else if(status.isExists()) {
+                this.replace(container, file);
+            }
+            // Submit blocks for concurrent upload. The block list is committed in the order of submission
+            final List<Future<BlockEntry>> futures = new ArrayList<Future<BlockEntry>>();
+            final long total = status.getOffset() + status.getLength();
+            final long size = Math.min(MAXIMUM_BLOCK_SIZE, Math.max(total / MAXIMUM_UPLOAD_BLOCKS + 1, blockSize));
+            long offset = 0;
+            for(int blockNumber = 1; offset < total; blockNumber++) {
+                final long length = Math.min(size, total - offset);
+                BlockEntry block = null;
+                if(!staged.isEmpty()) {
+                    // Only reuse block with same content as local file
+                    block = staged.get(this.id(blockNumber, this.digest(file, local, offset, length)));
+                }
+                if(block != null && block.getSize() == length) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip staged block %d with size %d", blockNumber, length));
+                    }
+                    futures.add(ConcurrentUtils.constantFuture(new BlockEntry(block.getId(), BlockSearchMode.UNCOMMITTED)));
+                }
+                else {
+                    futures.add(this.submit(pool, file, blob, local, throttle, listener, status, blockNumber, offset, length));
+                }
+                offset += length;
+            }
+            final List<BlockEntry> blocks = new ArrayList<BlockEntry>();
+            try {
+                for(Future<BlockEntry> f : futures) {
+                    blocks.add(f.get());
+                }
+            }
+            catch(InterruptedException e) {
+                log.error("Block upload failed with interrupt failure");
+                status.setCanceled();
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                log.warn(String.format("Block upload failed with execution failure %s", e.getMessage()));
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+            finally {
+                pool.shutdown(false);
+            }
+            this.properties(blob, status);
+            blob.commitBlockList(blocks, AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Committed block list for %s with %d blocks", file, blocks.size()));
+            }
+            // Mark parent status as complete
+            status.setComplete();
+            return null;
+        }
+        catch(StorageException e) {
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+    }
+
+    private Future<BlockEntry> submit(final ThreadPool pool, final Path file, final CloudBlockBlob blob, final Local local,
+                                      final BandwidthThrottle throttle, final StreamListener listener,
+                                      final TransferStatus overall, final int blockNumber,
+                                      final long offset, final long length) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit block %d of %s to queue with offset %d and length %d", blockNumber, file, offset, length));
+        }
+        return pool.execute(new DefaultRetryCallable<BlockEntry>(new BackgroundExceptionCallable<BlockEntry>() {
+            @Override
+            public BlockEntry call() throws BackgroundException {
+                if(overall.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                final byte[] buffer = BufferPool.get().acquire((int) length);
+                try {
+                    final InputStream in = new ThrottledInputStream(StreamCopier.skip(
+                            new BoundedInputStream(local.getInputStream(), offset + length), offset), throttle);
+                    try {
+                        IOUtils.readFully(in, buffer, 0, (int) length);
+                    }
+                    finally {
+                        IOUtils.closeQuietly(in);
+                    }
+                    final MessageDigest digest = DigestUtils.getMd5Digest();
+                    digest.update(buffer, 0, (int) length);
+                    final String id = id(blockNumber, digest.digest());
+                    final BlobRequestOptions options = new BlobRequestOptions();
+                    // Send Content-MD5 header for block verified by server
+                    options.setUseTransactionalContentMD5(true);
+                    final long start = System.nanoTime();
+                    blob.uploadBlock(id, new ByteArrayInputStream(buffer, 0, (int) length), length,
+                            AccessCondition.generateEmptyCondition(), options, context);
+                    MetricsRegistry.get().time(session.getHost(), MetricsRegistry.MULTIPART_PART, start);
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Staged block %d of %s with length %d", blockNumber, file, length));
+                    }
+                    listener.sent(length);
+                    overall.progress(length);
+                    return new BlockEntry(id, BlockSearchMode.UNCOMMITTED);
+                }
+                catch(StorageException e) {
+                    throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                finally {
+                    BufferPool.get().release(buffer);
+                }
+            }
+        }, overall));
+    }
+
+    /**
+     * @param file Block blob
+     * @return Blocks staged but not yet committed
+     */
+    public List<BlockEntry> list(final Path file) throws BackgroundException {
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                    .getBlockBlobReference(containerService.getKey(file));
+            return blob.downloadBlockList(BlockListingFilter.UNCOMMITTED, AccessCondition.generateEmptyCondition(),
+                    new BlobRequestOptions(), context);
+        }
+        catch(StorageException e) {
+            if(HttpStatus.SC_NOT_FOUND == e.getHttpStatusCode()) {
+                return Collections.emptyList();
+            }
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Blocks cannot be staged for an existing append or page blob
+     */
+    private void replace(final CloudBlobContainer container, final Path file) throws StorageException, URISyntaxException {
+        final CloudBlob existing;
+        try {
+            existing = container.getBlobReferenceFromServer(containerService.getKey(file), null,
+                    AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context);
+        }
+        catch(StorageException e) {
+            if(HttpStatus.SC_NOT_FOUND == e.getHttpStatusCode()) {
+                return;
+            }
+            throw e;
+        }
+        if(existing.getProperties().getBlobType() != BlobType.BLOCK_BLOB) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Delete existing %s with type %s", file, existing.getProperties().getBlobType()));
+            }
+            existing.delete(DeleteSnapshotsOption.INCLUDE_SNAPSHOTS, AccessCondition.generateEmptyCondition(),
+                    new BlobRequestOptions(), context);
+        }
+    }
+
+    /**
+     * Set content type, metadata and checksum of whole file committed with block list
+     */
+    private void properties(final CloudBlockBlob blob, final TransferStatus status) {
+        if(StringUtils.isNotBlank(status.getMime())) {
+            blob.getProperties().setContentType(status.getMime());
+        }
+        final HashMap<String, String> headers = new HashMap<>(status.getMetadata());
+        // Remove additional headers not allowed in metadata and move to properties
+        if(headers.containsKey(HttpHeaders.CACHE_CONTROL)) {
+            blob.getProperties().setCacheControl(headers.get(HttpHeaders.CACHE_CONTROL));
+            headers.remove(HttpHeaders.CACHE_CONTROL);
+        }
+        if(headers.containsKey(HttpHeaders.CONTENT_TYPE)) {
+            blob.getProperties().setContentType(headers.get(HttpHeaders.CONTENT_TYPE));
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+        }
+        final Checksum checksum = status.getChecksum();
+        if(Checksum.NONE != checksum) {
+            switch(checksum.algorithm) {
+                case md5:
+                    try {
+                        blob.getProperties().setContentMD5(Base64.toBase64String(Hex.decodeHex(checksum.hash.toCharArray())));
+                        headers.remove(HttpHeaders.CONTENT_MD5);
+                    }
+                    catch(DecoderException e) {
+                        // Ignore
+                    }
+                    break;
+            }
+        }
+        blob.setMetadata(headers);
+    }
+
+    /**
+     * @return MD5 checksum of block in local file
+     */
+    private byte[] digest(final Path file, final Local local, final long offset, final long length) throws BackgroundException {
+        final InputStream in = StreamCopier.skip(new BoundedInputStream(local.getInputStream(), offset + length), offset);
+        try {
+            return DigestUtils.md5(in);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * @param blockNumber Number of block starting with 1
+     * @param checksum    MD5 checksum of block content
+     * @return Identifier of equal length for all blocks of blob
+     */
+    protected String id(final int blockNumber, final byte[] checksum) {
+        return Base64.toBase64String(String.format("%06d-%s", blockNumber, Hex.encodeHexString(checksum))
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Write.Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
+        return new AzureWriteFeature(session, context).append(file, length, cache);
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        return this;
+    }
+}
@@ -0,0 +1,109 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DefaultUploadFeature;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.blob.BlockEntry;
+
+public class AzureThresholdUploadService implements Upload<Void> {
+    private static final Logger log = Logger.getLogger(AzureThresholdUploadService.class);
+
+    private final Preferences preferences
+            = PreferencesFactory.get();
+
+    private final AzureSession session;
+    private final OperationContext context;
+    private Write<Void> writer;
+    private final Long threshold;
+
+    public AzureThresholdUploadService(final AzureSession session, final OperationContext context) {
+        this(session, context, PreferencesFactory.get().getLong("azure.upload.blockblob.threshold"));
+    }
+
+    public AzureThresholdUploadService(final AzureSession session, final OperationContext context, final Long threshold) {
+        this.session = session;
+        this.context = context;
+        this.writer = new AzureWriteFeature(session, context);
+        this.threshold = threshold;
+    }
+
+    @Override
+    public Write.Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
+        if(this.threshold(length)) {
+            // Resume with blocks staged but not yet committed
+            Long size = 0L;
+            for(BlockEntry block : new AzureBlockBlobUploadService(session, context).list(file)) {
+                size += block.getSize();
+            }
+            if(size > 0L) {
+                return new Write.Append(size);
+            }
+        }
+        return writer.append(file, length, cache);
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        // Length of blob including blocks already staged when resuming
+        if(this.threshold(status.getOffset() + status.getLength())) {
+            return new AzureBlockBlobUploadService(session, context, preferences.getLong("azure.upload.blockblob.size"),
+                    preferences.getInteger("azure.upload.blockblob.concurrency")).upload(file, local, throttle, listener, status, callback);
+        }
+        return new DefaultUploadFeature<Void>(writer, session.getHost()).upload(file, local, throttle, listener, status, callback);
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        this.writer = writer;
+        return this;
+    }
+
+    protected boolean threshold(final Long length) {
+        if(!(writer instanceof AzureWriteFeature)) {
+            // Blocks are read from the local file bypassing a writer set such as for encryption in vault
+            return false;
+        }
+        if(!preferences.getBoolean("azure.upload.blockblob")) {
+            // Disabled by user
+            return false;
+        }
+        if(length > threshold) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Upload as block blob for length %d exceeding threshold %d", length, threshold));
+            }
+            return true;
+        }
+        // Below threshold
+        return false;
+    }
+}
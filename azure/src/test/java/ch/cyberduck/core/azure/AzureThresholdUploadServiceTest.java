@@ -0,0 +1,170 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.DisabledProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LoginConnectionService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.BlobType;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class AzureThresholdUploadServiceTest {
+
+    @Test
+    public void testUploadThreshold() throws Exception {
+        final OperationContext context
+                = new OperationContext();
+        final Host host = new Host(new AzureProtocol(), "kahy9boj3eib.blob.core.windows.net", new Credentials(
+                System.getProperties().getProperty("azure.account"), System.getProperties().getProperty("azure.key")
+        ));
+        final AzureSession session = new AzureSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+                new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, PathCache.empty(), new DisabledCancelCallback());
+        final Path container = new Path("cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(1024 * 1024 + 1);
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out);
+        out.close();
+        {
+            // Below threshold
+            final Path test = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+            final TransferStatus status = new TransferStatus().length(content.length);
+            new AzureThresholdUploadService(session, context, (long) content.length).upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+                    new DisabledStreamListener(), status, new DisabledConnectionCallback());
+            assertEquals(content.length, new AzureAttributesFinderFeature(session, context).find(test).getSize());
+            assertEquals(BlobType.APPEND_BLOB, this.type(session, context, container, test));
+            new AzureDeleteFeature(session, context).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        }
+        {
+            // Exceeding threshold
+            final Path test = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+            final TransferStatus status = new TransferStatus().length(content.length);
+            new AzureThresholdUploadService(session, context, content.length - 1L).upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+                    new DisabledStreamListener(), status, new DisabledConnectionCallback());
+            assertTrue(status.isComplete());
+            assertEquals(content.length, new AzureAttributesFinderFeature(session, context).find(test).getSize());
+            assertEquals(BlobType.BLOCK_BLOB, this.type(session, context, container, test));
+            new AzureDeleteFeature(session, context).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        }
+        local.delete();
+        session.close();
+    }
+
+    @Test
+    public void testUploadResumeRemainingBelowThreshold() throws Exception {
+        final OperationContext context
+                = new OperationContext();
+        final Host host = new Host(new AzureProtocol(), "kahy9boj3eib.blob.core.windows.net", new Credentials(
+                System.getProperties().getProperty("azure.account"), System.getProperties().getProperty("azure.key")
+        ));
+        final AzureSession session = new AzureSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+                new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, PathCache.empty(), new DisabledCancelCallback());
+        final Path container = new Path("cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path test = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final int size = 1024 * 1024;
+        final byte[] content = RandomUtils.nextBytes(3 * size);
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out);
+        out.close();
+        PreferencesFactory.get().setProperty("azure.upload.blockblob.size", size);
+        try {
+            // Stage first two blocks of interrupted upload
+            final AzureBlockBlobUploadService blocks = new AzureBlockBlobUploadService(session, context, (long) size, 2);
+            final CloudBlockBlob blob = session.getClient().getContainerReference(container.getName()).getBlockBlobReference(test.getName());
+            for(int i = 0; i < 2; i++) {
+                final byte[] block = Arrays.copyOfRange(content, i * size, (i + 1) * size);
+                blob.uploadBlock(blocks.id(i + 1, DigestUtils.md5(block)), new ByteArrayInputStream(block), size,
+                        AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context);
+            }
+            // Threshold exceeded by length of blob but not by remaining length
+            final AzureThresholdUploadService service = new AzureThresholdUploadService(session, context, 2L * size);
+            final Write.Append append = service.append(test, (long) content.length, PathCache.empty());
+            assertEquals(2L * size, append.size, 0L);
+            final TransferStatus status = new TransferStatus().length(content.length - append.size);
+            status.setAppend(true);
+            status.setOffset(append.size);
+            service.upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+                    new DisabledStreamListener(), status, new DisabledConnectionCallback());
+            assertTrue(status.isComplete());
+            assertEquals(BlobType.BLOCK_BLOB, this.type(session, context, container, test));
+            final byte[] buffer = new byte[content.length];
+            final InputStream in = new AzureReadFeature(session, context).read(test, new TransferStatus(), new DisabledConnectionCallback());
+            IOUtils.readFully(in, buffer);
+            in.close();
+            assertArrayEquals(content, buffer);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("azure.upload.blockblob.size");
+        }
+        new AzureDeleteFeature(session, context).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+        session.close();
+    }
+
+    @Test
+    public void testThreshold() throws Exception {
+        final AzureSession session = new AzureSession(new Host(new AzureProtocol()));
+        final AzureThresholdUploadService service = new AzureThresholdUploadService(session, new OperationContext(), 0L);
+        assertTrue(service.threshold(1L));
+        assertFalse(service.threshold(0L));
+    }
+
+    private BlobType type(final AzureSession session, final OperationContext context, final Path container, final Path file) throws Exception {
+        return session.getClient().getContainerReference(container.getName()).getBlobReferenceFromServer(file.getName(), null,
+                AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context).getProperties().getBlobType();
+    }
+}
@@ -0,0 +1,104 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.ui.browser.SearchFilter;
+import ch.cyberduck.ui.comparator.FilenameComparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations per second building a directory listing, looking up entries by reference and filtering and sorting
+ * for display in the browser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AttributedListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<Path> children;
+    private AttributedList<Path> list;
+
+    @Setup
+    public void setup() {
+        final Path directory = new Path("/benchmark", EnumSet.of(Path.Type.directory));
+        children = new ArrayList<Path>(size);
+        for(int i = 0; i < size; i++) {
+            final PathAttributes attributes = new PathAttributes();
+            attributes.setSize(i);
+            attributes.setModificationDate(System.currentTimeMillis() - i);
+            children.add(new Path(directory, String.format("%s-%d", UUID.randomUUID().toString(), i),
+                    EnumSet.of(Path.Type.file), attributes));
+        }
+        list = this.build();
+    }
+
+    @Benchmark
+    public AttributedList<Path> build() {
+        final AttributedList<Path> listing = new AttributedList<Path>();
+        for(Path child : children) {
+            listing.add(child);
+        }
+        return listing.freeze();
+    }
+
+    @Benchmark
+    public void lookup(final Blackhole blackhole) {
+        for(Path child : children) {
+            blackhole.consume(list.get(child));
+        }
+    }
+
+    @Benchmark
+    public AttributedList<Path> filter() {
+        return new AttributedList<Path>(children).filter(new SearchFilter("1"));
+    }
+
+    @Benchmark
+    public AttributedList<Path> sort() {
+        return new AttributedList<Path>(children).filter(new FilenameComparator(true));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AttributedListBenchmark.class.getSimpleName()).build()).run();
+    }
+}
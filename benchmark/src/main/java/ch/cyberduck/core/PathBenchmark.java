@@ -0,0 +1,91 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations per second normalizing absolute paths and constructing paths from a parent and filename as done for
+ * every entry of a directory listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PathBenchmark {
+
+    private static final int SIZE = 1000;
+
+    private Path parent;
+    private List<String> names;
+    private List<String> absolutes;
+
+    @Setup
+    public void setup() {
+        parent = new Path("/home/user/Documents/benchmark", EnumSet.of(Path.Type.directory));
+        names = new ArrayList<String>(SIZE);
+        absolutes = new ArrayList<String>(SIZE);
+        for(int i = 0; i < SIZE; i++) {
+            names.add(String.format("Report %d.pdf", i));
+            absolutes.add(String.format("/home/user//Documents/./archive/../benchmark/Report %d.pdf/", i));
+        }
+    }
+
+    @Benchmark
+    public void normalize(final Blackhole blackhole) {
+        for(String absolute : absolutes) {
+            blackhole.consume(PathNormalizer.normalize(absolute));
+        }
+    }
+
+    @Benchmark
+    public void child(final Blackhole blackhole) {
+        for(String name : names) {
+            blackhole.consume(new Path(parent, name, EnumSet.of(Path.Type.file)));
+        }
+    }
+
+    @Benchmark
+    public void absolute(final Blackhole blackhole) {
+        for(String absolute : absolutes) {
+            blackhole.consume(new Path(absolute, EnumSet.of(Path.Type.file)));
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PathBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations per second caching directory listings and resolving their children by reference as done when
+ * updating the browser from a listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PathCacheBenchmark {
+
+    private static final int DIRECTORIES = 1000;
+    private static final int CHILDREN = 100;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<Path> directories;
+    private List<AttributedList<Path>> listings;
+    private PathCache cache;
+
+    @Setup
+    public void setup() {
+        directories = new ArrayList<Path>(DIRECTORIES);
+        listings = new ArrayList<AttributedList<Path>>(DIRECTORIES);
+        for(int i = 0; i < DIRECTORIES; i++) {
+            final Path directory = new Path(String.format("/benchmark/%d", i), EnumSet.of(Path.Type.directory));
+            final AttributedList<Path> list = new AttributedList<Path>();
+            for(int k = 0; k < CHILDREN; k++) {
+                list.add(new Path(directory, String.format("f-%d", k), EnumSet.of(Path.Type.file)));
+            }
+            directories.add(directory);
+            listings.add(list.freeze());
+        }
+        cache = new PathCache(size);
+        this.put();
+    }
+
+    /**
+     * Replace all listings evicting least recently used entries exceeding the size of the cache
+     */
+    @Benchmark
+    public void put() {
+        for(int i = 0; i < DIRECTORIES; i++) {
+            cache.put(directories.get(i), listings.get(i));
+        }
+    }
+
+    @Benchmark
+    public void get(final Blackhole blackhole) {
+        for(Path directory : directories) {
+            blackhole.consume(cache.get(directory));
+        }
+    }
+
+    @Benchmark
+    public void lookup(final Blackhole blackhole) {
+        final AttributedList<Path> list = listings.get(DIRECTORIES - 1);
+        for(Path child : list) {
+            blackhole.consume(cache.lookup(new DefaultPathPredicate(child)));
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PathCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.cryptomator.random.FastSecureRandomProvider;
+import ch.cyberduck.core.cryptomator.random.RandomNonceGenerator;
+import ch.cyberduck.core.io.VoidStatusOutputStream;
+import ch.cyberduck.core.threading.DefaultThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.cryptomator.cryptolib.api.Cryptor;
+import org.cryptomator.cryptolib.api.FileHeader;
+import org.cryptomator.cryptolib.v1.Version1CryptorModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of encrypting and decrypting 16MB of file content on the calling thread with a window of 1 compared to
+ * chunks processed in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CryptoStreamBenchmark {
+
+    private static final int SIZE = 16 * 1024 * 1024;
+
+    @Param({"1", "4", "16"})
+    public int window;
+
+    private ThreadPool pool;
+    private Cryptor cryptor;
+    private FileHeader header;
+    private byte[] cleartext;
+    private byte[] ciphertext;
+
+    @Setup
+    public void setup() throws IOException {
+        pool = new DefaultThreadPool("benchmark", Runtime.getRuntime().availableProcessors());
+        cryptor = new Version1CryptorModule().provideCryptorProvider(FastSecureRandomProvider.get().provide()).createNew();
+        header = cryptor.fileHeaderCryptor().create();
+        cleartext = RandomUtils.nextBytes(SIZE);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(SIZE + SIZE / 10);
+        final CryptoOutputStream<Void> stream = new CryptoOutputStream<Void>(new VoidStatusOutputStream(out),
+                cryptor, header, new RandomNonceGenerator(), 0L, null, 1);
+        stream.write(cleartext);
+        stream.close();
+        ciphertext = out.toByteArray();
+    }
+
+    @TearDown
+    public void shutdown() {
+        pool.shutdown(false);
+    }
+
+    @Benchmark
+    public void encrypt() throws IOException {
+        final CryptoOutputStream<Void> stream = new CryptoOutputStream<Void>(new VoidStatusOutputStream(new NullOutputStream()),
+                cryptor, header, new RandomNonceGenerator(), 0L, pool, window);
+        stream.write(cleartext);
+        stream.close();
+    }
+
+    @Benchmark
+    public long decrypt() throws IOException {
+        final CryptoInputStream stream = new CryptoInputStream(new ByteArrayInputStream(ciphertext),
+                cryptor, header, 0L, pool, window);
+        final long read = IOUtils.copyLarge(stream, new NullOutputStream());
+        stream.close();
+        return read;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CryptoStreamBenchmark.class.getSimpleName()).build()).run();
+    }
+}
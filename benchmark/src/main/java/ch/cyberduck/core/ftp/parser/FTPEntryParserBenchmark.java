@@ -0,0 +1,117 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ftp.FTPMlsdListResponseReader;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lines parsed per second from the corpus of captured Unix and MLSD listings with the regular expression compared to
+ * the tokenizing parsers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FTPEntryParserBenchmark {
+
+    private LaxUnixFTPEntryParser regex;
+    private FastUnixFTPEntryParser tokenizer;
+    private MlsdReader mlsd;
+
+    private List<String> unix;
+    private List<String> facts;
+
+    @Setup
+    public void setup() throws IOException {
+        regex = new LaxUnixFTPEntryParser();
+        regex.configure(null);
+        tokenizer = new FastUnixFTPEntryParser();
+        tokenizer.configure(null);
+        mlsd = new MlsdReader();
+        unix = IOUtils.readLines(FTPEntryParserBenchmark.class.getResourceAsStream("/ch/cyberduck/core/ftp/parser/unix.txt"),
+                StandardCharsets.UTF_8);
+        facts = IOUtils.readLines(FTPEntryParserBenchmark.class.getResourceAsStream("/ch/cyberduck/core/ftp/parser/mlsd.txt"),
+                StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void unixRegex(final Blackhole blackhole) {
+        for(String line : unix) {
+            blackhole.consume(regex.parseFTPEntry(line));
+        }
+    }
+
+    @Benchmark
+    public void unixTokenizer(final Blackhole blackhole) {
+        for(String line : unix) {
+            blackhole.consume(tokenizer.parseFTPEntry(line));
+        }
+    }
+
+    @Benchmark
+    public void mlsdRegex(final Blackhole blackhole) {
+        for(String line : facts) {
+            blackhole.consume(mlsd.parsePattern(line));
+        }
+    }
+
+    @Benchmark
+    public void mlsdTokenizer(final Blackhole blackhole) {
+        for(String line : facts) {
+            blackhole.consume(mlsd.parseFacts(line));
+        }
+    }
+
+    private static final class MlsdReader extends FTPMlsdListResponseReader {
+        @Override
+        public Map<String, Map<String, String>> parseFacts(final String line) {
+            return super.parseFacts(line);
+        }
+
+        @Override
+        public Map<String, Map<String, String>> parsePattern(final String line) {
+            return super.parsePattern(line);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FTPEntryParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of copying a file to a file with a buffer between streams compared to transferring between file
+ * channels in the kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamCopierBenchmark {
+
+    @Param({"1048576", "16777216"})
+    public int size;
+
+    private File source;
+    private File target;
+
+    @Setup
+    public void setup() throws IOException {
+        source = File.createTempFile("benchmark", null);
+        target = File.createTempFile("benchmark", null);
+        Files.write(source.toPath(), RandomUtils.nextBytes(size));
+    }
+
+    @TearDown
+    public void shutdown() {
+        source.delete();
+        target.delete();
+    }
+
+    @Benchmark
+    public void buffer() throws IOException, BackgroundException {
+        final TransferStatus status = new TransferStatus();
+        // Proxy streams hide the file channels and force copying with a buffer
+        new StreamCopier(status, status).transfer(new ProxyInputStream(new FileInputStream(source)) {
+        }, new ProxyOutputStream(new FileOutputStream(target)) {
+        });
+    }
+
+    @Benchmark
+    public void channel() throws IOException, BackgroundException {
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).transfer(new FileInputStream(source), new FileOutputStream(target));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StreamCopierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
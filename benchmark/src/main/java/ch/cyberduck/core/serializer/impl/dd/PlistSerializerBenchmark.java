@@ -0,0 +1,94 @@
+package ch.cyberduck.core.serializer.impl.dd;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.SerializerFactory;
+import ch.cyberduck.core.ftp.FTPProtocol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.dd.plist.NSArray;
+import com.dd.plist.NSDictionary;
+import com.dd.plist.NSObject;
+import com.dd.plist.XMLPropertyListParser;
+
+/**
+ * Operations per second writing and parsing a collection of bookmarks in XML property list format as done when
+ * saving and loading the bookmarks and history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlistSerializerBenchmark {
+
+    private static final int SIZE = 500;
+
+    private List<Host> bookmarks;
+    private byte[] xml;
+
+    @Setup
+    public void setup() {
+        bookmarks = new ArrayList<Host>(SIZE);
+        for(int i = 0; i < SIZE; i++) {
+            final Host bookmark = new Host(new FTPProtocol(), String.format("ftp%d.example.net", i), 21, "/pub");
+            bookmark.setNickname(String.format("Bookmark %d", i));
+            bookmarks.add(bookmark);
+        }
+        xml = this.serialize().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String serialize() {
+        final NSArray list = new NSArray(bookmarks.size());
+        int i = 0;
+        for(Host bookmark : bookmarks) {
+            list.setValue(i, bookmark.<NSDictionary>serialize(SerializerFactory.get()));
+            i++;
+        }
+        return list.toXMLPropertyList();
+    }
+
+    @Benchmark
+    public NSObject parse() throws Exception {
+        return XMLPropertyListParser.parse(new ByteArrayInputStream(xml));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PlistSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
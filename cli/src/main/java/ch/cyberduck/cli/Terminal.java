@@ -38,12 +38,14 @@ import ch.cyberduck.core.local.Application;
 import ch.cyberduck.core.local.ApplicationFinder;
 import ch.cyberduck.core.local.ApplicationFinderFactory;
 import ch.cyberduck.core.local.ApplicationQuitCallback;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.nio.LocalProtocol;
 import ch.cyberduck.core.onedrive.OneDriveProtocol;
 import ch.cyberduck.core.openstack.SwiftProtocol;
 import ch.cyberduck.core.pool.SessionPool;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.s3.S3MultipartUploadJournal;
 import ch.cyberduck.core.s3.S3Protocol;
 import ch.cyberduck.core.sds.SDSProtocol;
 import ch.cyberduck.core.sftp.SFTPProtocol;
@@ -79,7 +81,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.log4j.Logger;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -92,7 +99,7 @@ public class Terminal {
     private final Preferences preferences;
     private final TerminalController controller;
     private final TerminalPromptReader reader;
-    private final PathCache cache;
+    private PathCache cache;
     private final ProgressListener progress;
     private final TranscriptListener transcript;
 
@@ -128,6 +135,8 @@ public class Terminal {
                 new LocalProtocol(),
                 new SDSProtocol()
         );
+        // Delete multipart uploads saved locally and not resumed
+        S3MultipartUploadJournal.expire();
         this.options = options;
         if(log.isInfoEnabled()) {
             log.info(String.format("Parsed options %s from input %s", options, input));
@@ -216,6 +225,9 @@ public class Terminal {
             }
             final String uri = input.getOptionValue(action.name());
             final Host host = new CommandLineUriParser(input).parse(uri);
+            if(input.hasOption(TerminalOptionsBuilder.Params.cache.name()) || preferences.getBoolean("browser.cache.persistent")) {
+                cache = new PersistentPathCache(host);
+            }
             final LoginConnectionService connect = new LoginConnectionService(new TerminalLoginService(input,
                     new TerminalLoginCallback(reader)), new TerminalHostKeyVerifier(reader), progress);
             source = SessionPoolFactory.create(connect, transcript, cache, host,
@@ -250,7 +262,9 @@ public class Terminal {
                             source, SessionPool.DISCONNECTED);
                 case copy:
                     final Host target = new CommandLineUriParser(input).parse(input.getOptionValues(action.name())[1]);
-                    destination = SessionPoolFactory.create(connect, transcript, cache, target,
+                    // Listings of target are not saved with source
+                    destination = SessionPoolFactory.create(connect, transcript,
+                            cache instanceof PersistentPathCache ? new PathCache(preferences.getInteger("browser.cache.size")) : cache, target,
                             new CertificateStoreX509TrustManager(new DefaultTrustManagerHostnameCallback(target), new TerminalCertificateStore(reader)),
                             new PreferencesX509KeyManager(target, new TerminalCertificateStore(reader)),
                             VaultRegistryFactory.create(new TerminalPasswordCallback()));
@@ -275,12 +289,40 @@ public class Terminal {
         finally {
             this.disconnect(source);
             this.disconnect(destination);
+            if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+                this.metrics(input.getOptionValue(TerminalOptionsBuilder.Params.metrics.name()));
+            }
             console.printf("%n%s", StringUtils.EMPTY);
         }
         return Exit.failure;
     }
 
+    /**
+     * @param file Save to file or print to console if null
+     */
+    protected void metrics(final String file) {
+        final Console console = new Console();
+        try {
+            if(StringUtils.isNotBlank(file)) {
+                try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                    MetricsRegistry.get().write(out);
+                }
+            }
+            else {
+                final StringWriter out = new StringWriter();
+                MetricsRegistry.get().write(out);
+                console.printf("%n%s", out.toString());
+            }
+        }
+        catch(IOException e) {
+            console.printf("%nFailure writing metrics. %s", e.getMessage());
+        }
+    }
+
     protected void configure(final CommandLine input) {
+        if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+            MetricsRegistry.get().setEnabled(true);
+        }
         final boolean preserve = input.hasOption(TerminalOptionsBuilder.Params.preserve.name());
         preferences.setProperty("queue.upload.permissions.change", preserve);
         preferences.setProperty("queue.upload.timestamp.change", preserve);
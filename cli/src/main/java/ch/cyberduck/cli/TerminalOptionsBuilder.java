@@ -153,6 +153,18 @@ public final class TerminalOptionsBuilder {
                 .withLongOpt(Params.nokeychain.name())
                 .isRequired(false)
                 .create());
+        options.addOption(OptionBuilder
+                .withDescription("Print latency and throughput metrics as JSON or save to file")
+                .withLongOpt(Params.metrics.name())
+                .hasOptionalArg().withArgName("file")
+                .isRequired(false)
+                .create());
+        options.addOption(OptionBuilder
+                .withDescription("Reuse directory listings saved by previous invocations")
+                .withLongOpt(Params.cache.name())
+                .hasArg(false)
+                .isRequired(false)
+                .create());
         final StringBuilder b = new StringBuilder().append(StringUtils.LF);
         b.append("Options for downloads and uploads:").append(StringUtils.LF);
         for(TransferAction a : TransferAction.forTransfer(Transfer.Type.download)) {
@@ -216,6 +228,8 @@ public final class TerminalOptionsBuilder {
         parallel,
         throttle,
         nokeychain,
+        cache,
+        metrics,
         existing,
         verbose,
         quiet,
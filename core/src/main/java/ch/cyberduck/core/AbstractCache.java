@@ -18,37 +18,75 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.log4j.Logger;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Concurrent cache of directory listings bounded by the total number of cached entries. Children of cached
+ * listings are indexed by their cache reference for constant time lookup.
+ */
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = Logger.getLogger(AbstractCache.class);
 
-    private final Map<T, AttributedList<T>> impl;
+    /**
+     * Maximum number of entries in all cached directory listings
+     */
+    private final int size;
 
-    private final Map<CacheReference, T> reverse;
+    /**
+     * Placeholder for the listing of the root keyed with null
+     */
+    private static final Object NULL = new Object();
 
-    public AbstractCache(int size) {
-        if(size == Integer.MAX_VALUE) {
-            // Unlimited
-            impl = Collections.synchronizedMap(new LinkedHashMap<T, AttributedList<T>>());
-            reverse = Collections.synchronizedMap(new LinkedHashMap<CacheReference, T>());
-        }
-        else if(size == 0) {
-            impl = Collections.emptyMap();
-            reverse = Collections.emptyMap();
-        }
-        else {
-            // Will inflate to the given size
-            impl = Collections.synchronizedMap(new LRUMap<T, AttributedList<T>>(size));
-            reverse = Collections.synchronizedMap(new LinkedHashMap<CacheReference, T>());
-        }
+    private final ConcurrentMap<Object, Entry<T>> impl;
+
+    /**
+     * Index of children in cached listings
+     */
+    private final ConcurrentMap<CacheReference, Node<T>> reverse;
+
+    /**
+     * Total number of entries in cached listings
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Logical clock to order entries by last access
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Cached listings in order of insertion or last reinsertion guarded by eviction lock. Listings accessed since
+     * queued are given a second chance and moved to the tail when found at the head.
+     */
+    private final LinkedHashMap<Object, Entry<T>> queue = new LinkedHashMap<>();
+
+    private final Lock eviction = new ReentrantLock();
+
+    /**
+     * @param size Maximum number of entries in all cached directory listings. Unlimited for
+     *             Integer.MAX_VALUE and disabled for 0.
+     */
+    public AbstractCache(final int size) {
+        this.size = size;
+        this.impl = new ConcurrentHashMap<>();
+        this.reverse = new ConcurrentHashMap<>();
     }
 
     protected abstract CacheReference key(final T object);
@@ -61,34 +99,35 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @see ch.cyberduck.core.AttributedList#get(Referenceable)
      */
     public T lookup(final CacheReference reference) {
-        final T parent = reverse.get(reference);
-        final AttributedList<T> list = impl.get(parent);
-        if(null == list) {
+        final Node<T> node = reverse.get(reference);
+        if(null == node) {
+            misses.incrementAndGet();
             log.warn(String.format("Lookup failed for %s in reverse cache", reference));
             return null;
         }
-        final T[] entries = list.toArray();
-        for(T entry : entries) {
-            if(this.key(entry).equals(reference)) {
-                return entry;
-            }
-        }
-        final List<T> hidden = list.attributes().getHidden();
-        for(T entry : hidden) {
-            if(this.key(entry).equals(reference)) {
-                return entry;
-            }
+        final Entry<T> entry = impl.get(mask(node.parent));
+        if(entry != node.entry) {
+            // Stale reference to a listing removed or replaced in the meantime
+            misses.incrementAndGet();
+            log.warn(String.format("Lookup failed for %s in reverse cache", reference));
+            return null;
         }
-        log.warn(String.format("Lookup failed for %s in reverse cache", reference));
-        return null;
+        entry.access = clock.incrementAndGet();
+        hits.incrementAndGet();
+        return node.child;
     }
 
     public boolean isEmpty() {
         return impl.isEmpty();
     }
 
+    @SuppressWarnings("unchecked")
     public Set<T> keySet() {
-        return impl.keySet();
+        final Set<T> keys = new HashSet<>();
+        for(Object key : impl.keySet()) {
+            keys.add(NULL == key ? null : (T) key);
+        }
+        return keys;
     }
 
     /**
@@ -96,7 +135,7 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return True if the directory listing of this path is cached
      */
     public boolean containsKey(final T reference) {
-        return impl.containsKey(reference);
+        return impl.containsKey(mask(reference));
     }
 
     /**
@@ -106,15 +145,14 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return The previously cached directory listing
      */
     public AttributedList<T> remove(final T reference) {
-        final AttributedList<T> removed = impl.remove(reference);
+        final Entry<T> removed = impl.remove(mask(reference));
         if(null == removed) {
             // Not previously in cache
             return AttributedList.emptyList();
         }
-        for(T r : removed) {
-            reverse.remove(this.key(r));
-        }
-        return removed;
+        this.dequeue(removed);
+        this.unlink(removed);
+        return removed.list;
     }
 
     /**
@@ -124,12 +162,15 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      *                                                   and requests a new filter here.
      */
     public AttributedList<T> get(final T reference) {
-        AttributedList<T> children = impl.get(reference);
-        if(null == children) {
+        final Entry<T> entry = impl.get(mask(reference));
+        if(null == entry) {
+            misses.incrementAndGet();
             log.warn(String.format("No cache for %s", reference));
             return AttributedList.emptyList();
         }
-        return children;
+        entry.access = clock.incrementAndGet();
+        hits.incrementAndGet();
+        return entry.list;
     }
 
     /**
@@ -138,20 +179,116 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
      * @return Previous cached version
      */
     public AttributedList<T> put(final T reference, final AttributedList<T> children) {
+        if(0 == size) {
+            return AttributedList.emptyList();
+        }
         if(log.isInfoEnabled()) {
             log.info(String.format("Caching %s", reference));
         }
+        // Listing is complete and shared with readers from here on
+        children.freeze();
+        final Entry<T> entry = new Entry<T>(reference, children, clock.incrementAndGet());
+        final Entry<T> previous = impl.put(mask(reference), entry);
+        eviction.lock();
+        try {
+            if(impl.get(mask(reference)) == entry) {
+                // Move to tail
+                queue.remove(mask(reference));
+                queue.put(mask(reference), entry);
+            }
+        }
+        finally {
+            eviction.unlock();
+        }
+        if(null != previous) {
+            this.unlink(previous);
+        }
         for(T f : children) {
-            final CacheReference key = this.key(f);
-            reverse.remove(key);
-            reverse.put(key, reference);
+            reverse.put(this.key(f), new Node<T>(reference, f, entry));
         }
         for(T f : children.attributes().getHidden()) {
-            final CacheReference key = this.key(f);
-            reverse.remove(key);
-            reverse.put(key, reference);
+            reverse.put(this.key(f), new Node<T>(reference, f, entry));
+        }
+        if(count.addAndGet(entry.weight) > size) {
+            this.evict(entry);
+        }
+        return null == previous ? null : previous.list;
+    }
+
+    /**
+     * Remove the index for the children of a listing no longer cached.
+     */
+    private void unlink(final Entry<T> removed) {
+        count.addAndGet(-removed.weight);
+        for(T r : removed.list) {
+            this.unlink(removed, r);
+        }
+        for(T r : removed.list.attributes().getHidden()) {
+            this.unlink(removed, r);
+        }
+    }
+
+    private void unlink(final Entry<T> removed, final T child) {
+        final CacheReference key = this.key(child);
+        final Node<T> node = reverse.get(key);
+        if(null != node && node.entry == removed) {
+            // Keep the index if the child has been cached with a newer listing
+            reverse.remove(key, node);
+        }
+    }
+
+    /**
+     * Remove the listing from the eviction queue unless replaced with a newer listing
+     */
+    private void dequeue(final Entry<T> removed) {
+        eviction.lock();
+        try {
+            queue.remove(mask(removed.parent), removed);
+        }
+        finally {
+            eviction.unlock();
+        }
+    }
+
+    /**
+     * Remove least recently used listings until the number of cached entries is within the bounds. Approximates
+     * least recently used order by moving listings accessed since queued to the tail.
+     *
+     * @param retain Listing just added to the cache that is never evicted
+     */
+    private void evict(final Entry<T> retain) {
+        eviction.lock();
+        try {
+            // Listings accessed are only given a second chance in the first pass
+            for(int pass = 0; pass < 2 && count.get() > size; pass++) {
+                final List<Entry<T>> requeue = new ArrayList<>();
+                for(Iterator<Entry<T>> iter = queue.values().iterator(); iter.hasNext() && count.get() > size; ) {
+                    final Entry<T> candidate = iter.next();
+                    if(candidate == retain) {
+                        continue;
+                    }
+                    iter.remove();
+                    if(0 == pass && candidate.access != candidate.queued) {
+                        candidate.queued = candidate.access;
+                        requeue.add(candidate);
+                        continue;
+                    }
+                    if(impl.remove(mask(candidate.parent), candidate)) {
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Evict %s from cache", candidate.parent));
+                        }
+                        this.unlink(candidate);
+                        evictions.incrementAndGet();
+                    }
+                }
+                for(Entry<T> candidate : requeue) {
+                    queue.put(mask(candidate.parent), candidate);
+                }
+            }
+        }
+        finally {
+            eviction.unlock();
         }
-        return impl.put(reference, children);
     }
 
     /**
@@ -162,10 +299,11 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
     }
 
     public boolean isValid(final T reference) {
-        if(this.isCached(reference)) {
-            return !this.get(reference).attributes().isInvalid();
+        final Entry<T> entry = impl.get(mask(reference));
+        if(null == entry) {
+            return false;
         }
-        return false;
+        return !entry.list.attributes().isInvalid();
     }
 
     /**
@@ -175,11 +313,12 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         if(log.isInfoEnabled()) {
             log.info(String.format("Invalidate %s", reference));
         }
-        if(this.containsKey(reference)) {
-            this.get(reference).attributes().setInvalid(true);
+        final Entry<T> entry = impl.get(mask(reference));
+        if(null == entry) {
+            log.warn(String.format("No cache for %s", reference));
         }
         else {
-            log.warn(String.format("No cache for %s", reference));
+            entry.list.attributes().setInvalid(true);
         }
     }
 
@@ -190,15 +329,89 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
         if(log.isInfoEnabled()) {
             log.info(String.format("Clearing cache %s", this.toString()));
         }
-        impl.clear();
-        reverse.clear();
+        for(Map.Entry<Object, Entry<T>> entry : impl.entrySet()) {
+            if(impl.remove(entry.getKey(), entry.getValue())) {
+                this.dequeue(entry.getValue());
+                this.unlink(entry.getValue());
+            }
+        }
+    }
+
+    private static Object mask(final Object reference) {
+        return null == reference ? NULL : reference;
+    }
+
+    /**
+     * @return Number of entries in all cached directory listings
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return Number of successful lookups for cached directory listings or children
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return Number of lookups with no cached directory listing or child found
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Number of directory listings removed to stay within the size limit
+     */
+    public long getEvictions() {
+        return evictions.get();
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Cache{");
         sb.append("size=").append(impl.size());
+        sb.append(", count=").append(count.get());
+        sb.append(", hits=").append(hits.get());
+        sb.append(", misses=").append(misses.get());
+        sb.append(", evictions=").append(evictions.get());
         sb.append('}');
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    private static final class Entry<T extends Referenceable> {
+        private final T parent;
+        private final AttributedList<T> list;
+        /**
+         * Number of entries in listing when cached
+         */
+        private final int weight;
+        private volatile long access;
+        /**
+         * Last access when added to the tail of the eviction queue
+         */
+        private long queued;
+
+        public Entry(final T parent, final AttributedList<T> list, final long access) {
+            this.parent = parent;
+            this.list = list;
+            this.weight = Math.max(1, list.size() + list.attributes().getHidden().size());
+            this.access = access;
+            this.queued = access;
+        }
+    }
+
+    private static final class Node<T extends Referenceable> {
+        private final T parent;
+        private final T child;
+        private final Entry<T> entry;
+
+        public Node(final T parent, final T child, final Entry<T> entry) {
+            this.parent = parent;
+            this.child = child;
+            this.entry = entry;
+        }
+    }
+}
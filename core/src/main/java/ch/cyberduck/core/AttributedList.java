@@ -20,19 +20,26 @@ package ch.cyberduck.core;
 
 import org.apache.log4j.Logger;
 
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 /**
- * A sortable list with a map to lookup values by key.
+ * A sortable list with a map to lookup values by key. Appending is amortized constant time and does not copy
+ * the elements. Any other modification publishes a copy. Iterators and views always operate on the elements at the
+ * time they were obtained and are safe to use while the list is modified concurrently.
  */
 public class AttributedList<E extends Referenceable> implements Iterable<E> {
     private static final Logger log = Logger.getLogger(AttributedList.class);
@@ -54,8 +61,14 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         }
     };
 
-    private final List<E> impl
-            = new CopyOnWriteArrayList<>();
+    private static final Object[] NONE = new Object[0];
+
+    /**
+     * Elements visible to readers. Replaced on every modification. Slots beyond the size of a snapshot may be
+     * written to when appending as no published snapshot includes them.
+     */
+    private volatile Snapshot impl
+            = new Snapshot(NONE, 0, null);
 
     /**
      * Metadata of file listing
@@ -95,13 +108,37 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
 
     public boolean add(final E e) {
         if(attributes.getFilter().accept(e)) {
-            return impl.add(e);
+            this.append(e);
+            return true;
         }
         return attributes.getHidden().add(e);
     }
 
-    public void add(final int index, final E e) {
-        impl.add(index, e);
+    private synchronized void append(final E e) {
+        final Snapshot current = impl;
+        Object[] elements = current.elements;
+        if(current.size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(10, current.size + (current.size >> 1)));
+        }
+        elements[current.size] = e;
+        final Map<Object, int[]> index = current.index;
+        if(null != index && null != e) {
+            // Entries beyond the size of a snapshot are ignored by lookups
+            put(index, e, current.size);
+        }
+        impl = new Snapshot(elements, current.size + 1, index);
+    }
+
+    public synchronized void add(final int index, final E e) {
+        final Snapshot current = impl;
+        if(index < 0 || index > current.size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", index, current.size));
+        }
+        final Object[] elements = new Object[current.size + 1];
+        System.arraycopy(current.elements, 0, elements, 0, index);
+        elements[index] = e;
+        System.arraycopy(current.elements, index, elements, index + 1, current.size - index);
+        impl = new Snapshot(elements, elements.length, null);
     }
 
     public boolean addAll(final Iterable<? extends E> c) {
@@ -115,16 +152,27 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return impl.get(index);
     }
 
+    /**
+     * @param reference Element to lookup
+     * @return Element in list equal to reference or null if not found
+     */
     public E get(final E reference) {
-        final int index = impl.indexOf(reference);
+        final Snapshot current = impl;
+        final int index = this.indexOf(current, reference);
         if(-1 == index) {
             return null;
         }
-        return impl.get(index);
+        return current.get(index);
     }
 
-    public void set(final int i, final E e) {
-        impl.set(i, e);
+    public synchronized void set(final int i, final E e) {
+        final Snapshot current = impl;
+        if(i < 0 || i >= current.size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, current.size));
+        }
+        final Object[] elements = Arrays.copyOf(current.elements, current.size);
+        elements[i] = e;
+        impl = new Snapshot(elements, elements.length, null == current.index ? null : index(elements, elements.length));
     }
 
     @Override
@@ -133,21 +181,22 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
     }
 
     /**
-     * The CopyOnWriteArrayList iterator does not support remove but the sort implementation
-     * makes use of it. Provide our own implementation here to circumvent.
+     * Sort a copy of the elements and publish the result
      *
      * @param comparator The comparator to use
-     * @see java.util.Collections#sort(java.util.List, java.util.Comparator)
-     * @see java.util.concurrent.CopyOnWriteArrayList#iterator()
      */
-    private void doSort(final Comparator<E> comparator) {
+    @SuppressWarnings("unchecked")
+    private synchronized void doSort(final Comparator<E> comparator) {
         if(null == comparator) {
             return;
         }
         if(log.isDebugEnabled()) {
             log.debug(String.format("Sort list %s with comparator %s", this, comparator));
         }
-        Collections.sort(impl, comparator);
+        final Snapshot current = impl;
+        final Object[] elements = Arrays.copyOf(current.elements, current.size);
+        Arrays.sort(elements, (Comparator) comparator);
+        impl = new Snapshot(elements, elements.length, null == current.index ? null : index(elements, elements.length));
     }
 
     /**
@@ -188,24 +237,28 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Filter list %s with filter %s", this, filter));
             }
-            // Add previously hidden files to children
-            final List<E> hidden = attributes.getHidden();
-            if(!hidden.isEmpty()) {
-                impl.addAll(hidden);
-                // Clear the previously set of hidden files
-                hidden.clear();
-            }
-            final Set<E> removal = new HashSet<>();
-            for(final E child : impl) {
-                if(!filter.accept(child)) {
-                    // Child not accepted by filter; add to cached hidden files
-                    if(attributes.addHidden(child)) {
-                        // Remove hidden file from current file listing
-                        removal.add(child);
+            synchronized(this) {
+                final List<E> children = new ArrayList<E>(impl.list());
+                // Add previously hidden files to children
+                final List<E> hidden = attributes.getHidden();
+                if(!hidden.isEmpty()) {
+                    children.addAll(hidden);
+                    // Clear the previously set of hidden files
+                    hidden.clear();
+                }
+                final List<E> accepted = new ArrayList<E>(children.size());
+                for(final E child : children) {
+                    if(!filter.accept(child)) {
+                        // Child not accepted by filter; add to cached hidden files
+                        if(attributes.addHidden(child)) {
+                            // Remove hidden file from current file listing
+                            continue;
+                        }
                     }
+                    accepted.add(child);
                 }
+                impl = new Snapshot(accepted.toArray(), accepted.size(), null);
             }
-            impl.removeAll(removal);
             // Saving last filter
             attributes.setFilter(filter);
             // Sort again because the list has changed
@@ -214,50 +267,170 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return this;
     }
 
+    /**
+     * Trim storage to the number of elements and build the index for lookups. Call when the listing is complete
+     * before sharing it.
+     *
+     * @return This list
+     */
+    public synchronized AttributedList<E> freeze() {
+        final Snapshot current = impl;
+        final Object[] elements = current.elements.length == current.size
+                ? current.elements : Arrays.copyOf(current.elements, current.size);
+        impl = new Snapshot(elements, current.size, null == current.index ? index(elements, current.size) : current.index);
+        return this;
+    }
+
     /**
      * Clear the list and all references.
      */
-    public void clear() {
+    public synchronized void clear() {
         attributes.clear();
-        impl.clear();
+        impl = new Snapshot(NONE, 0, null);
     }
 
     public boolean isEmpty() {
-        return impl.isEmpty();
+        return 0 == impl.size;
     }
 
     public int size() {
-        return impl.size();
+        return impl.size;
     }
 
     public boolean contains(final E e) {
-        return impl.contains(e);
+        return -1 != this.indexOf(e);
     }
 
     public E find(final Predicate<E> predicate) {
-        final Optional<E> optional = impl.stream().filter(predicate).findFirst();
-        return optional.orElse(null);
+        for(E e : impl) {
+            if(predicate.test(e)) {
+                return e;
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings("unchecked")
     public E[] toArray() {
-        return (E[]) impl.toArray(new Referenceable[impl.size()]);
+        final Snapshot current = impl;
+        final Referenceable[] array = new Referenceable[current.size];
+        System.arraycopy(current.elements, 0, array, 0, current.size);
+        return (E[]) array;
     }
 
+    /**
+     * @return Unmodifiable view of the elements at the time of the call
+     */
     public List<E> toList() {
-        return impl;
+        return impl.list();
     }
 
     public int indexOf(final E e) {
-        return impl.indexOf(e);
+        return this.indexOf(impl, e);
+    }
+
+    private int indexOf(final Snapshot current, final E e) {
+        if(null == e) {
+            for(int i = 0; i < current.size; i++) {
+                if(null == current.elements[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        final int[] candidates = this.index(current).get(key(e));
+        if(null != candidates) {
+            for(int index : candidates) {
+                if(index >= current.size) {
+                    // Appended after snapshot
+                    break;
+                }
+                if(e.equals(current.elements[index])) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Positions of elements by key built on first lookup
+     */
+    private Map<Object, int[]> index(final Snapshot current) {
+        if(null != current.index) {
+            return current.index;
+        }
+        synchronized(this) {
+            if(impl.elements == current.elements && impl.size == current.size) {
+                if(null == impl.index) {
+                    impl = new Snapshot(current.elements, current.size, index(current.elements, current.size));
+                }
+                return impl.index;
+            }
+        }
+        // Modified concurrently
+        return index(current.elements, current.size);
+    }
+
+    private static Map<Object, int[]> index(final Object[] elements, final int size) {
+        final Map<Object, int[]> index = new ConcurrentHashMap<Object, int[]>(Math.max(16, size * 4 / 3 + 1));
+        for(int i = 0; i < size; i++) {
+            if(null != elements[i]) {
+                put(index, elements[i], i);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Add position to candidates for key of element in ascending order
+     */
+    private static void put(final Map<Object, int[]> index, final Object e, final int position) {
+        index.merge(key(e), new int[]{position}, (candidates, value) -> {
+            final int[] merged = Arrays.copyOf(candidates, candidates.length + 1);
+            merged[candidates.length] = position;
+            return merged;
+        });
+    }
+
+    /**
+     * Key that does not change when the element is modified after it is added. The hash code of a path depends on
+     * its type and attributes which may be updated after listing. Candidates are compared for equality on lookup.
+     */
+    private static Object key(final Object e) {
+        if(e instanceof Path) {
+            return ((Path) e).getAbsolute();
+        }
+        return e;
     }
 
-    public boolean remove(final E e) {
-        return impl.remove(e);
+    public synchronized boolean remove(final E e) {
+        final int index = this.indexOf(e);
+        if(-1 == index) {
+            return false;
+        }
+        final Snapshot current = impl;
+        final Object[] elements = new Object[current.size - 1];
+        System.arraycopy(current.elements, 0, elements, 0, index);
+        System.arraycopy(current.elements, index + 1, elements, index, current.size - index - 1);
+        impl = new Snapshot(elements, elements.length, null);
+        return true;
     }
 
-    public boolean removeAll(final java.util.Collection<E> e) {
-        return impl.removeAll(e);
+    public synchronized boolean removeAll(final Collection<E> e) {
+        final Set<E> removal = e instanceof Set ? (Set<E>) e : new HashSet<E>(e);
+        final Snapshot current = impl;
+        final List<E> retained = new ArrayList<E>(current.size);
+        for(E child : current) {
+            if(!removal.contains(child)) {
+                retained.add(child);
+            }
+        }
+        if(retained.size() == current.size) {
+            return false;
+        }
+        impl = new Snapshot(retained.toArray(), retained.size(), null);
+        return true;
     }
 
     @Override
@@ -269,11 +442,84 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
             return false;
         }
         final AttributedList<?> that = (AttributedList<?>) o;
-        return Objects.equals(impl, that.impl);
+        return Objects.equals(impl.list(), that.impl.list());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(impl);
+        return Objects.hash(impl.list());
+    }
+
+    /**
+     * Immutable view of the first size elements of a shared array
+     */
+    private final class Snapshot implements Iterable<E> {
+        private final Object[] elements;
+        private final int size;
+        /**
+         * Positions of elements by key. Null until first lookup.
+         */
+        private final Map<Object, int[]> index;
+
+        private Snapshot(final Object[] elements, final int size, final Map<Object, int[]> index) {
+            this.elements = elements;
+            this.size = size;
+            this.index = index;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E get(final int i) {
+            if(i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, size));
+            }
+            return (E) elements[i];
+        }
+
+        private List<E> list() {
+            return new View(this);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int cursor;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < size;
+                }
+
+                @Override
+                public E next() {
+                    if(cursor >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(cursor++);
+                }
+            };
+        }
+    }
+
+    private final class View extends AbstractList<E> implements RandomAccess {
+        private final Snapshot snapshot;
+
+        private View(final Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public E get(final int index) {
+            return snapshot.get(index);
+        }
+
+        @Override
+        public int size() {
+            return snapshot.size;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return snapshot.iterator();
+        }
     }
-}
\ No newline at end of file
+}
@@ -25,14 +25,12 @@ public class CountingMetrics implements Metrics {
 
     @Override
     public <T> void increment(final T key) {
-        if(!metrics.containsKey(key)) {
-            metrics.put(key, new AtomicLong());
-        }
-        metrics.get(key).getAndIncrement();
+        metrics.computeIfAbsent(key, k -> new AtomicLong()).getAndIncrement();
     }
 
     @Override
     public <T> long get(final T key) {
-        return metrics.containsKey(key) ? metrics.get(key).longValue() : 0;
+        final AtomicLong value = metrics.get(key);
+        return null == value ? 0 : value.longValue();
     }
 }
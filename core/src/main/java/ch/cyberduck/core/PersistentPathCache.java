@@ -0,0 +1,384 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Directory listings of a single host cached in memory and saved to disk with one file per directory to be reused
+ * by later sessions. A saved listing is only used within its time to live and if the modification date and ETag of
+ * the directory are unchanged where known.
+ */
+public class PersistentPathCache extends PathCache {
+    private static final Logger log = Logger.getLogger(PersistentPathCache.class);
+
+    /**
+     * Format version written to the head of every file
+     */
+    private static final int VERSION = 1;
+
+    private final Local folder;
+    private final long ttl;
+
+    public PersistentPathCache(final Host host) {
+        this(host, PreferencesFactory.get().getInteger("browser.cache.size"));
+    }
+
+    public PersistentPathCache(final Host host, final int size) {
+        this(LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Listings"),
+                DigestUtils.sha1Hex(new HostUrlProvider(true).get(host))), size,
+                TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("browser.cache.persistent.ttl")));
+    }
+
+    /**
+     * @param folder Directory to save listings of host
+     * @param size   Maximum number of entries in memory
+     * @param ttl    Milliseconds after which a saved listing is no longer used
+     */
+    public PersistentPathCache(final Local folder, final int size, final long ttl) {
+        super(size);
+        this.folder = folder;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public boolean containsKey(final Path reference) {
+        return super.containsKey(reference) || this.load(reference);
+    }
+
+    @Override
+    public boolean isValid(final Path reference) {
+        this.containsKey(reference);
+        return super.isValid(reference);
+    }
+
+    @Override
+    public AttributedList<Path> get(final Path reference) {
+        this.containsKey(reference);
+        return super.get(reference);
+    }
+
+    @Override
+    public AttributedList<Path> put(final Path reference, final AttributedList<Path> children) {
+        final AttributedList<Path> previous = super.put(reference, children);
+        if(previous == children) {
+            // Listing loaded from disk or already saved
+            return previous;
+        }
+        if(null != reference) {
+            this.save(reference, children);
+        }
+        return previous;
+    }
+
+    @Override
+    public AttributedList<Path> remove(final Path reference) {
+        this.delete(reference);
+        return super.remove(reference);
+    }
+
+    @Override
+    public void invalidate(final Path reference) {
+        this.delete(reference);
+        super.invalidate(reference);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        if(folder.exists()) {
+            try {
+                for(Local file : folder.list()) {
+                    file.delete();
+                }
+            }
+            catch(AccessDeniedException e) {
+                log.warn(String.format("Failure clearing %s. %s", folder, e.getMessage()));
+            }
+        }
+    }
+
+    private Local toFile(final Path directory) {
+        return LocalFactory.get(folder, DigestUtils.sha1Hex(directory.getAbsolute()));
+    }
+
+    /**
+     * Read saved listing into memory
+     *
+     * @return False if there is no saved listing or it is no longer valid
+     */
+    protected boolean load(final Path directory) {
+        if(null == directory) {
+            return false;
+        }
+        final Local file = this.toFile(directory);
+        if(!file.exists()) {
+            return false;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(file.getInputStream()));
+            if(in.readInt() != VERSION) {
+                log.warn(String.format("Unknown format of %s", file));
+                return false;
+            }
+            if(!directory.getAbsolute().equals(in.readUTF())) {
+                // Hash collision
+                return false;
+            }
+            final long timestamp = in.readLong();
+            if(System.currentTimeMillis() - timestamp > ttl) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Expired listing for %s saved at %d", directory, timestamp));
+                }
+                return false;
+            }
+            final long modified = in.readLong();
+            final String etag = this.readString(in);
+            if(!this.isCurrent(directory, modified, etag)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Directory %s modified since listing was saved", directory));
+                }
+                return false;
+            }
+            final int count = in.readInt();
+            final AttributedList<Path> children = new AttributedList<>();
+            for(int i = 0; i < count; i++) {
+                final String name = in.readUTF();
+                final EnumSet<Path.Type> type = this.readType(in);
+                final Path child = new Path(directory, name, type, this.readAttributes(in));
+                if(in.readBoolean()) {
+                    child.setSymlinkTarget(new Path(in.readUTF(), this.readType(in)));
+                }
+                children.add(child);
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Loaded %d files in %s from %s", count, directory, file));
+            }
+            super.put(directory, children);
+            return true;
+        }
+        catch(AccessDeniedException | IOException e) {
+            log.warn(String.format("Failure reading listing from %s. %s", file, e.getMessage()));
+            return false;
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * @param modified Modification date of directory when saved
+     * @param etag     ETag of directory when saved
+     * @return False if modification date or ETag of directory known from its parent listing has changed
+     */
+    protected boolean isCurrent(final Path directory, final long modified, final String etag) {
+        final PathAttributes attributes = directory.attributes();
+        if(attributes.getModificationDate() != -1 && modified != -1) {
+            if(attributes.getModificationDate() != modified) {
+                return false;
+            }
+        }
+        if(attributes.getETag() != null && etag != null) {
+            if(!Objects.equals(attributes.getETag(), etag)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected void save(final Path directory, final AttributedList<Path> children) {
+        for(Path child : children) {
+            final PathAttributes attributes = child.attributes();
+            if(attributes.getVault() != null || attributes.getDecrypted() != null || attributes.getEncrypted() != null) {
+                // Skip listings in vault
+                return;
+            }
+        }
+        final Local file = this.toFile(directory);
+        final Local temporary = LocalFactory.get(folder, String.format("%s.tmp", file.getName()));
+        DataOutputStream out = null;
+        try {
+            if(!folder.exists()) {
+                folder.mkdir();
+            }
+            out = new DataOutputStream(new BufferedOutputStream(temporary.getOutputStream(false)));
+            out.writeInt(VERSION);
+            out.writeUTF(directory.getAbsolute());
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(directory.attributes().getModificationDate());
+            this.writeString(out, directory.attributes().getETag());
+            out.writeInt(children.size());
+            for(Path child : children) {
+                out.writeUTF(child.getName());
+                this.writeType(out, child.getType());
+                this.writeAttributes(out, child.attributes());
+                if(child.isSymbolicLink() && child.getSymlinkTarget() != null) {
+                    out.writeBoolean(true);
+                    out.writeUTF(child.getSymlinkTarget().getAbsolute());
+                    this.writeType(out, child.getSymlinkTarget().getType());
+                }
+                else {
+                    out.writeBoolean(false);
+                }
+            }
+            out.close();
+            out = null;
+            // Replace previous listing
+            temporary.rename(file);
+        }
+        catch(AccessDeniedException | IOException e) {
+            log.warn(String.format("Failure saving listing to %s. %s", file, e.getMessage()));
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    private void delete(final Path directory) {
+        if(null == directory) {
+            return;
+        }
+        final Local file = this.toFile(directory);
+        if(file.exists()) {
+            try {
+                file.delete();
+            }
+            catch(AccessDeniedException e) {
+                log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
+            }
+        }
+    }
+
+    private void writeAttributes(final DataOutputStream out, final PathAttributes attributes) throws IOException {
+        out.writeLong(attributes.getSize());
+        out.writeLong(attributes.getModificationDate());
+        out.writeLong(attributes.getCreationDate());
+        out.writeLong(attributes.getAccessedDate());
+        this.writeString(out, attributes.getOwner());
+        this.writeString(out, attributes.getGroup());
+        this.writeString(out, Permission.EMPTY == attributes.getPermission() ? null : attributes.getPermission().getMode());
+        this.writeString(out, null == attributes.getChecksum().algorithm ? null : attributes.getChecksum().algorithm.name());
+        this.writeString(out, attributes.getChecksum().hash);
+        this.writeString(out, attributes.getETag());
+        this.writeString(out, attributes.getVersionId());
+        this.writeString(out, attributes.getDirectoryId());
+        this.writeString(out, attributes.getStorageClass());
+        this.writeString(out, attributes.getRegion());
+        this.writeString(out, attributes.getDisplayname());
+        out.writeBoolean(attributes.isDuplicate());
+        out.writeInt(attributes.getCustom().size());
+        for(Map.Entry<String, String> entry : attributes.getCustom().entrySet()) {
+            out.writeUTF(entry.getKey());
+            this.writeString(out, entry.getValue());
+        }
+    }
+
+    private PathAttributes readAttributes(final DataInputStream in) throws IOException {
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setSize(in.readLong());
+        attributes.setModificationDate(in.readLong());
+        attributes.setCreationDate(in.readLong());
+        attributes.setAccessedDate(in.readLong());
+        attributes.setOwner(this.readString(in));
+        attributes.setGroup(this.readString(in));
+        final String mode = this.readString(in);
+        if(mode != null) {
+            attributes.setPermission(new Permission(mode));
+        }
+        final String algorithm = this.readString(in);
+        final String hash = this.readString(in);
+        if(algorithm != null) {
+            attributes.setChecksum(new Checksum(HashAlgorithm.valueOf(algorithm), hash));
+        }
+        attributes.setETag(this.readString(in));
+        attributes.setVersionId(this.readString(in));
+        attributes.setDirectoryId(this.readString(in));
+        attributes.setStorageClass(this.readString(in));
+        attributes.setRegion(this.readString(in));
+        attributes.setDisplayname(this.readString(in));
+        if(in.readBoolean()) {
+            attributes.setDuplicate(true);
+        }
+        final int custom = in.readInt();
+        if(custom > 0) {
+            final Map<String, String> map = new HashMap<>(custom);
+            for(int i = 0; i < custom; i++) {
+                map.put(in.readUTF(), this.readString(in));
+            }
+            attributes.setCustom(map);
+        }
+        return attributes;
+    }
+
+    private void writeType(final DataOutputStream out, final EnumSet<Path.Type> type) throws IOException {
+        int flags = 0;
+        for(Path.Type t : type) {
+            flags |= 1 << t.ordinal();
+        }
+        out.writeInt(flags);
+    }
+
+    private EnumSet<Path.Type> readType(final DataInputStream in) throws IOException {
+        final int flags = in.readInt();
+        final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
+        for(Path.Type t : Path.Type.values()) {
+            if((flags & 1 << t.ordinal()) != 0) {
+                type.add(t);
+            }
+        }
+        return type;
+    }
+
+    private void writeString(final DataOutputStream out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if(value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private String readString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PersistentPathCache{");
+        sb.append("folder=").append(folder);
+        sb.append(", ttl=").append(ttl);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -31,7 +31,11 @@ import ch.cyberduck.core.features.Quota;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Search;
 import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Versioning;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.metrics.MetricsAttributesFinder;
+import ch.cyberduck.core.metrics.MetricsListService;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
@@ -51,7 +55,10 @@ import ch.cyberduck.core.vault.VaultRegistry;
 
 import org.apache.log4j.Logger;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -60,6 +67,19 @@ public abstract class Session<C> implements ListService, TranscriptListener {
 
     private static final LoggingTranscriptListener transcript = new LoggingTranscriptListener();
 
+    /**
+     * Features configured by callers with a cache or target session. Created for every lookup as an instance
+     * must not be shared. Features only configured with a writer, reader or delete implementation by vault
+     * decorators are cached as vaults configure a new instance instead.
+     */
+    private static final Set<Class<?>> uncached = new HashSet<Class<?>>(Arrays.asList(
+            Find.class, AttributesFinder.class, IdProvider.class, Search.class, Copy.class, Versioning.class));
+
+    /**
+     * Placeholder for feature not supported
+     */
+    private static final Object unsupported = new Object();
+
     /**
      * Encapsulating all the information of the remote host
      */
@@ -80,6 +100,13 @@ public abstract class Session<C> implements ListService, TranscriptListener {
      */
     private State state = State.closed;
 
+    /**
+     * Features resolved by type including decorators of vault registry. Cleared when connection is opened or closed
+     * and when the registry is replaced. Decorators of the registry look up the vault for every operation and
+     * remain valid when vaults are added or removed.
+     */
+    private final Map<Class<?>, Object> features = new ConcurrentHashMap<Class<?>, Object>();
+
     public boolean alert(final ConnectionCallback callback) throws BackgroundException {
         if(host.getProtocol().isSecure()) {
             return false;
@@ -110,6 +137,7 @@ public abstract class Session<C> implements ListService, TranscriptListener {
 
     public Session<?> withRegistry(final VaultRegistry registry) {
         this.registry = registry;
+        features.clear();
         return this;
     }
 
@@ -151,12 +179,14 @@ public abstract class Session<C> implements ListService, TranscriptListener {
         }
         // Update status flag
         state = State.opening;
+        features.clear();
         client = this.connect(key);
         if(log.isDebugEnabled()) {
             log.debug(String.format("Connection did open to %s", host));
         }
         // Update status flag
         state = State.open;
+        features.clear();
         return client;
     }
 
@@ -188,6 +218,7 @@ public abstract class Session<C> implements ListService, TranscriptListener {
         }
         finally {
             state = State.closed;
+            features.clear();
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Connection did close to %s", host));
             }
@@ -204,6 +235,7 @@ public abstract class Session<C> implements ListService, TranscriptListener {
         }
         finally {
             state = State.closed;
+            features.clear();
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Connection did close to %s", host));
             }
@@ -217,6 +249,7 @@ public abstract class Session<C> implements ListService, TranscriptListener {
      */
     protected void disconnect() {
         state = State.closed;
+        features.clear();
         listeners.clear();
         client = null;
     }
@@ -280,21 +313,40 @@ public abstract class Session<C> implements ListService, TranscriptListener {
     @SuppressWarnings("unchecked")
     public <T> T getFeature(final Class<T> type) {
         metrics.increment(type);
-        return this.getFeature(type, this._getFeature(type));
+        if(state != State.open || uncached.contains(type)) {
+            return this.getFeature(type, this._getFeature(type));
+        }
+        Object feature = features.get(type);
+        if(null == feature) {
+            // Resolve outside of map as features may look up other features
+            final T resolved = this.getFeature(type, this._getFeature(type));
+            final Object previous = features.putIfAbsent(type, null == resolved ? unsupported : resolved);
+            feature = null == previous ? (null == resolved ? unsupported : resolved) : previous;
+        }
+        return feature == unsupported ? null : (T) feature;
     }
 
     @SuppressWarnings("unchecked")
     public <T> T getFeature(final Class<T> type, final T feature) {
-        return registry.getFeature(this, type, feature);
+        final T decorated = registry.getFeature(this, type, feature);
+        if(MetricsRegistry.get().isEnabled()) {
+            if(type == ListService.class) {
+                return (T) new MetricsListService(host, (ListService) decorated);
+            }
+            if(type == AttributesFinder.class) {
+                return (T) new MetricsAttributesFinder(host, (AttributesFinder) decorated);
+            }
+        }
+        return decorated;
     }
 
     @SuppressWarnings("unchecked")
     public <T> T _getFeature(final Class<T> type) {
         if(type == Upload.class) {
-            return (T) new DefaultUploadFeature(this.getFeature(Write.class));
+            return (T) new DefaultUploadFeature(this.getFeature(Write.class), host);
         }
         if(type == Download.class) {
-            return (T) new DefaultDownloadFeature(this.getFeature(Read.class));
+            return (T) new DefaultDownloadFeature(this.getFeature(Read.class), host);
         }
         if(type == Bulk.class) {
             return (T) new DisabledBulkFeature();
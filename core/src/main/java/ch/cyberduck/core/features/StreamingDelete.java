@@ -0,0 +1,35 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+public interface StreamingDelete extends Delete {
+    /**
+     * @param directory Directory to delete
+     * @return False if the contents must be listed and deleted with {@link #delete} instead
+     */
+    boolean isPurgeable(Path directory) throws BackgroundException;
+
+    /**
+     * Delete directory with all contents while listing recursively without waiting for the listing to complete
+     *
+     * @param directory Directory to delete including all files and directories it contains
+     */
+    void purge(Path directory, PasswordCallback prompt, Callback callback) throws BackgroundException;
+}
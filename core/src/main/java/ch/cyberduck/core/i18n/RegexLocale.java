@@ -21,7 +21,6 @@ package ch.cyberduck.core.i18n;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.preferences.ApplicationResourcesFinderFactory;
 
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Logger;
 
@@ -32,24 +31,34 @@ import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.nio.charset.Charset;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Reads translations from <code>.strings</code> files in the language project folders of the application resources.
+ * Each table is read once per language into an immutable map. Keys not found in a table are returned without
+ * reading the file again.
+ */
 public class RegexLocale implements Locale {
     private static final Logger log = Logger.getLogger(RegexLocale.class);
 
-    private final Map<Key, String> cache
-            = Collections.synchronizedMap(new LRUMap<Key, String>(1000));
+    private static final Pattern pattern
+            = Pattern.compile("\"(.*)\"\\s*=\\s*\"(.*)\";");
+
+    /**
+     * Tables loaded by language and name
+     */
+    private final Map<Key, Map<String, String>> cache
+            = new ConcurrentHashMap<Key, Map<String, String>>();
 
     private final Local resources;
 
-    private String locale
+    private volatile String locale
             = java.util.Locale.getDefault().getLanguage();
 
-    private final Pattern pattern
-            = Pattern.compile("\"(.*)\"\\s*=\\s*\"(.*)\";");
-
     public RegexLocale() {
         this(ApplicationResourcesFinderFactory.get().find());
     }
@@ -66,54 +75,62 @@ public class RegexLocale implements Locale {
 
     @Override
     public String localize(final String key, final String table) {
-        final Key lookup = new Key(table, key);
-        if(!cache.containsKey(lookup)) {
+        final Key lookup = new Key(locale, table);
+        Map<String, String> entries = cache.get(lookup);
+        if(null == entries) {
             try {
-                this.load(table);
+                entries = this.load(lookup.locale, table);
             }
             catch(IOException e) {
                 log.warn(String.format("Failure loading properties from %s.strings. %s", table, e.getMessage()));
+                // Do not attempt to read again
+                entries = Collections.emptyMap();
+            }
+            final Map<String, String> previous = cache.putIfAbsent(lookup, entries);
+            if(previous != null) {
+                entries = previous;
             }
         }
-        if(cache.containsKey(lookup)) {
-            return cache.get(lookup);
+        final String value = entries.get(key);
+        if(null == value) {
+            return key;
         }
-        return key;
+        return value;
     }
 
-    private void load(final String table) throws IOException {
+    private Map<String, String> load(final String locale, final String table) throws IOException {
         final File file = new File(String.format("%s/%s.lproj/%s.strings.1", resources.getAbsolute(), locale, table));
         if(file.exists()) {
-            this.load(table, file);
-        }
-        else {
-            this.load(table, new File(String.format("%s/%s.lproj/%s.strings", resources.getAbsolute(), locale, table)));
+            return Collections.unmodifiableMap(parse(file));
         }
+        return Collections.unmodifiableMap(parse(new File(String.format("%s/%s.lproj/%s.strings", resources.getAbsolute(), locale, table))));
     }
 
-    private void load(final String table, final File file) throws IOException {
+    private static Map<String, String> parse(final File file) throws IOException {
+        final Map<String, String> entries = new HashMap<String, String>();
         final LineNumberReader reader = new LineNumberReader(new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-16")));
         try {
             String line;
             while((line = reader.readLine()) != null) {
                 final Matcher matcher = pattern.matcher(line);
                 if(matcher.matches()) {
-                    cache.put(new Key(table, matcher.group(1)), matcher.group(2));
+                    entries.put(matcher.group(1), matcher.group(2));
                 }
             }
         }
         finally {
             IOUtils.closeQuietly(reader);
         }
+        return entries;
     }
 
-    private final class Key {
+    private static final class Key {
+        private final String locale;
         private final String table;
-        private final String key;
 
-        public Key(final String table, final String key) {
+        public Key(final String locale, final String table) {
+            this.locale = locale;
             this.table = table;
-            this.key = key;
         }
 
         @Override
@@ -124,11 +141,11 @@ public class RegexLocale implements Locale {
             if(!(o instanceof Key)) {
                 return false;
             }
-            final Key key1 = (Key) o;
-            if(key != null ? !key.equals(key1.key) : key1.key != null) {
+            final Key key = (Key) o;
+            if(locale != null ? !locale.equals(key.locale) : key.locale != null) {
                 return false;
             }
-            if(table != null ? !table.equals(key1.table) : key1.table != null) {
+            if(table != null ? !table.equals(key.table) : key.table != null) {
                 return false;
             }
             return true;
@@ -136,8 +153,8 @@ public class RegexLocale implements Locale {
 
         @Override
         public int hashCode() {
-            int result = table != null ? table.hashCode() : 0;
-            result = 31 * result + (key != null ? key.hashCode() : 0);
+            int result = locale != null ? locale.hashCode() : 0;
+            result = 31 * result + (table != null ? table.hashCode() : 0);
             return result;
         }
     }
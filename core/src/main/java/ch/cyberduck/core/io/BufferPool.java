@@ -0,0 +1,214 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared pool of byte arrays in size classes of powers of two. Arrays are not cleared when returned to the pool and
+ * callers must only rely on the bytes they have written. The number of bytes retained in the pool is bounded.
+ */
+public final class BufferPool {
+    private static final Logger log = Logger.getLogger(BufferPool.class);
+
+    private static final BufferPool shared = new BufferPool(
+            PreferencesFactory.get().getLong("connection.buffer.pool.limit"));
+
+    /**
+     * Smallest size class of 4KB
+     */
+    private static final int MINIMUM = 12;
+    /**
+     * Largest size class of 16MB. Larger requests are not pooled.
+     */
+    private static final int MAXIMUM = 24;
+
+    public static BufferPool get() {
+        return shared;
+    }
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedQueue<byte[]>[] classes = new ConcurrentLinkedQueue[MAXIMUM - MINIMUM + 1];
+
+    /**
+     * Maximum number of bytes retained in pool
+     */
+    private final long limit;
+
+    /**
+     * Number of bytes currently retained in pool
+     */
+    private final AtomicLong pooled = new AtomicLong();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong allocations = new AtomicLong();
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong releases = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    public BufferPool(final long limit) {
+        this.limit = limit;
+        for(int i = 0; i < classes.length; i++) {
+            classes[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * @param size Minimum number of bytes required
+     * @return Array with length of at least size rounded up to the next size class
+     */
+    public byte[] acquire(final int size) {
+        acquisitions.incrementAndGet();
+        final int index = index(size);
+        if(index == -1) {
+            return this.allocate(size);
+        }
+        final byte[] buffer = classes[index].poll();
+        if(null == buffer) {
+            return this.allocate(1 << (index + MINIMUM));
+        }
+        pooled.addAndGet(-buffer.length);
+        return buffer;
+    }
+
+    private byte[] allocate(final int size) {
+        allocations.incrementAndGet();
+        allocated.addAndGet(size);
+        return new byte[size];
+    }
+
+    /**
+     * Return buffer to pool. Must not be used by caller afterwards.
+     *
+     * @param buffer Array previously obtained from pool. Arrays not matching a size class are discarded.
+     */
+    public void release(final byte[] buffer) {
+        if(null == buffer) {
+            return;
+        }
+        releases.incrementAndGet();
+        final int index = index(buffer.length);
+        if(index == -1 || buffer.length != 1 << (index + MINIMUM)) {
+            discarded.incrementAndGet();
+            return;
+        }
+        if(pooled.addAndGet(buffer.length) > limit) {
+            pooled.addAndGet(-buffer.length);
+            discarded.incrementAndGet();
+            return;
+        }
+        classes[index].offer(buffer);
+    }
+
+    /**
+     * @return Index of size class or -1 if not pooled
+     */
+    private static int index(final int size) {
+        if(size > 1 << MAXIMUM) {
+            return -1;
+        }
+        if(size <= 1 << MINIMUM) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MINIMUM;
+    }
+
+    /**
+     * @return Number of bytes currently retained in pool
+     */
+    public long getPooled() {
+        return pooled.get();
+    }
+
+    /**
+     * @return Number of arrays currently retained in pool
+     */
+    public int getAvailable() {
+        int count = 0;
+        for(ConcurrentLinkedQueue<byte[]> c : classes) {
+            count += c.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of buffers requested
+     */
+    public long getAcquisitions() {
+        return acquisitions.get();
+    }
+
+    /**
+     * @return Number of buffers not found in pool and allocated
+     */
+    public long getAllocations() {
+        return allocations.get();
+    }
+
+    /**
+     * @return Total number of bytes allocated
+     */
+    public long getAllocated() {
+        return allocated.get();
+    }
+
+    /**
+     * @return Number of buffers returned
+     */
+    public long getReleases() {
+        return releases.get();
+    }
+
+    /**
+     * @return Number of buffers returned but not retained in pool
+     */
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    /**
+     * Release all retained buffers
+     */
+    public void clear() {
+        for(ConcurrentLinkedQueue<byte[]> c : classes) {
+            byte[] buffer;
+            while((buffer = c.poll()) != null) {
+                pooled.addAndGet(-buffer.length);
+            }
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Cleared %s", this));
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BufferPool{");
+        sb.append("pooled=").append(pooled.get());
+        sb.append(", limit=").append(limit);
+        sb.append(", acquisitions=").append(acquisitions.get());
+        sb.append(", allocations=").append(allocations.get());
+        sb.append(", allocated=").append(allocated.get());
+        sb.append(", releases=").append(releases.get());
+        sb.append(", discarded=").append(discarded.get());
+        sb.append('}');
+        return sb.toString();
+    }
+}
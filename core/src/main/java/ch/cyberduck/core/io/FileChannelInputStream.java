@@ -0,0 +1,102 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Input stream reading from file channel exposed to allow transfers without copying to a buffer in user space. Supports
+ * mark and reset by repositioning the channel.
+ */
+public class FileChannelInputStream extends InputStream {
+
+    private final FileChannel channel;
+
+    /**
+     * Channel position at mark
+     */
+    private long mark = 0L;
+
+    public FileChannelInputStream(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public FileChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        final int read = this.read(b, 0, 1);
+        if(-1 == read) {
+            return -1;
+        }
+        return b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if(0 == len) {
+            return 0;
+        }
+        return channel.read(ByteBuffer.wrap(b, off, len));
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        if(n <= 0) {
+            return 0L;
+        }
+        final long position = channel.position();
+        final long skipped = Math.min(n, Math.max(0L, channel.size() - position));
+        channel.position(position + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0L, channel.size() - channel.position()));
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(final int readlimit) {
+        try {
+            mark = channel.position();
+        }
+        catch(IOException e) {
+            // Keep previous mark
+        }
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        channel.position(mark);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
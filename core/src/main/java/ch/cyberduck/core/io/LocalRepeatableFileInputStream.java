@@ -18,12 +18,17 @@ package ch.cyberduck.core.io;
  *  dkocher@cyberduck.ch
  */
 
-import org.jets3t.service.io.RepeatableFileInputStream;
-
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 
-public class LocalRepeatableFileInputStream extends RepeatableFileInputStream {
+/**
+ * Repeatable by repositioning the file channel on reset
+ */
+public class LocalRepeatableFileInputStream extends FileChannelInputStream {
 
     /**
      * Creates a repeatable input stream based on a file.
@@ -32,6 +37,23 @@ public class LocalRepeatableFileInputStream extends RepeatableFileInputStream {
      * @throws FileNotFoundException Invalid file
      */
     public LocalRepeatableFileInputStream(final File file) throws FileNotFoundException {
-        super(file);
+        super(open(file));
+    }
+
+    private static FileChannel open(final File file) throws FileNotFoundException {
+        if(file.isDirectory()) {
+            throw new FileNotFoundException(String.format("%s (Is a directory)", file));
+        }
+        try {
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+        catch(NoSuchFileException e) {
+            throw new FileNotFoundException(e.getMessage());
+        }
+        catch(IOException e) {
+            final FileNotFoundException failure = new FileNotFoundException(e.getMessage());
+            failure.initCause(e);
+            throw failure;
+        }
     }
 }
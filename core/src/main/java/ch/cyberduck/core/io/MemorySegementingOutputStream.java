@@ -20,23 +20,22 @@ import org.apache.log4j.Logger;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MemorySegementingOutputStream extends SegmentingOutputStream {
     private static final Logger log = Logger.getLogger(MemorySegementingOutputStream.class);
 
     private final OutputStream proxy;
-    private final ByteArrayOutputStream buffer;
+    private final SegmentBuffer buffer;
     private final Integer threshold;
 
     private final AtomicBoolean close = new AtomicBoolean();
 
     public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold) {
-        this(proxy, threshold, new ByteArrayOutputStream(threshold));
+        this(proxy, threshold, new SegmentBuffer(BufferPool.get().acquire(threshold)));
     }
 
-    public MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold, final ByteArrayOutputStream buffer) {
+    private MemorySegementingOutputStream(final OutputStream proxy, final Integer threshold, final SegmentBuffer buffer) {
         super(proxy, (long) threshold, buffer);
         this.proxy = proxy;
         this.buffer = buffer;
@@ -45,21 +44,19 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
 
     @Override
     public void flush() throws IOException {
-        // Copy from memory file to output
-        final byte[] content = buffer.toByteArray();
+        // Write segments from memory buffer to output without copying
+        final byte[] content = buffer.array();
+        final int count = buffer.size();
         // Re-use buffer
         buffer.reset();
-        for(int offset = 0; offset < content.length; offset += threshold) {
-            int len = Math.min(threshold, content.length - offset);
-            final byte[] bytes = Arrays.copyOfRange(content, offset, offset + len);
-            if(len < threshold) {
-                // Write to start of buffer
-                this.write(bytes);
-            }
-            else {
-                // Write out
-                proxy.write(bytes);
-            }
+        int offset = 0;
+        for(; count - offset >= threshold; offset += threshold) {
+            // Write out
+            proxy.write(content, offset, threshold);
+        }
+        if(offset < count) {
+            // Move remaining bytes to start of buffer
+            this.write(content, offset, count - offset);
         }
     }
 
@@ -71,7 +68,7 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
         }
         try {
             if(buffer.size() > 0) {
-                proxy.write(buffer.toByteArray());
+                proxy.write(buffer.array(), 0, buffer.size());
             }
             // Re-use buffer
             buffer.reset();
@@ -79,6 +76,24 @@ public class MemorySegementingOutputStream extends SegmentingOutputStream {
         }
         finally {
             close.set(true);
+            BufferPool.get().release(buffer.array());
+        }
+    }
+
+    /**
+     * Memory buffer backed by array from pool
+     */
+    private static final class SegmentBuffer extends ByteArrayOutputStream {
+        public SegmentBuffer(final byte[] array) {
+            super(0);
+            this.buf = array;
+        }
+
+        /**
+         * @return Backing array with valid bytes up to size
+         */
+        public byte[] array() {
+            return buf;
         }
     }
 }
@@ -26,6 +26,13 @@ public abstract class StatusOutputStream<Reply> extends ProxyOutputStream {
         super(proxy);
     }
 
+    /**
+     * @return Wrapped stream
+     */
+    public OutputStream getProxy() {
+        return out;
+    }
+
     /**
      * @return Obtain server status response after closing stream
      */
@@ -21,13 +21,20 @@ import ch.cyberduck.core.BytecountStreamListener;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.metrics.MetricsOutputStream;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.log4j.Logger;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
@@ -45,6 +52,12 @@ public final class StreamCopier {
     private Integer chunksize
             = PreferencesFactory.get().getInteger("connection.chunksize");
 
+    /**
+     * Maximum number of bytes handed to the kernel at once when transferring between channels
+     */
+    private Long channelsize
+            = PreferencesFactory.get().getLong("connection.chunksize.channel");
+
     private Long offset = 0L;
 
     private Long limit = -1L;
@@ -59,6 +72,11 @@ public final class StreamCopier {
         return this;
     }
 
+    public StreamCopier withChannelsize(final Long channelsize) {
+        this.channelsize = channelsize;
+        return this;
+    }
+
     public StreamCopier withListener(final StreamListener listener) {
         this.listener = new BytecountStreamListener(listener);
         return this;
@@ -90,38 +108,21 @@ public final class StreamCopier {
                 if(offset > 0) {
                     skip(in, offset);
                 }
-                final byte[] buffer = new byte[chunksize];
-                long total = 0;
-                int len = chunksize;
-                if(limit > 0 && limit < chunksize) {
-                    // Cast will work because chunk size is int
-                    len = limit.intValue();
+                final ReadableByteChannel source = channel(in);
+                final WritableByteChannel target = channel(out);
+                if(source instanceof FileChannel && target != null) {
+                    this.transfer((FileChannel) source, target, throttle(in, out));
                 }
-                while(len > 0 && !cancel.isCanceled()) {
-                    final int read = in.read(buffer, 0, len);
-                    if(-1 == read) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("End of file reached with %d bytes read from stream", total));
-                        }
-                        progress.setComplete();
-                        break;
-                    }
-                    else {
-                        listener.recv(read);
-                        out.write(buffer, 0, read);
-                        progress.progress(read);
-                        listener.sent(read);
-                        total += read;
-                    }
-                    if(limit > 0) {
-                        // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
-                        len = (int) Math.min(limit - total, chunksize);
+                else if(target instanceof FileChannel && source != null) {
+                    this.transfer(source, (FileChannel) target, throttle(in, out));
+                }
+                else {
+                    final byte[] buffer = BufferPool.get().acquire(chunksize);
+                    try {
+                        this.transfer(in, out, buffer);
                     }
-                    if(limit == total) {
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Limit %d reached reading from stream", limit));
-                        }
-                        progress.setComplete();
+                    finally {
+                        BufferPool.get().release(buffer);
                     }
                 }
             }
@@ -148,6 +149,215 @@ public final class StreamCopier {
         }
     }
 
+    /**
+     * Copy using intermediate buffer in user space
+     */
+    private void transfer(final InputStream in, final OutputStream out, final byte[] buffer) throws IOException {
+        long total = 0;
+        int len = chunksize;
+        if(limit > 0 && limit < chunksize) {
+            // Cast will work because chunk size is int
+            len = limit.intValue();
+        }
+        while(len > 0 && !cancel.isCanceled()) {
+            final int read = in.read(buffer, 0, len);
+            if(-1 == read) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            else {
+                listener.recv(read);
+                out.write(buffer, 0, read);
+                progress.progress(read);
+                listener.sent(read);
+                total += read;
+            }
+            if(limit > 0) {
+                // Only adjust if not reading to the end of the stream. Cast will work because chunk size is int
+                len = (int) Math.min(limit - total, chunksize);
+            }
+            if(limit == total) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Limit %d reached reading from stream", limit));
+                }
+                progress.setComplete();
+            }
+        }
+    }
+
+    /**
+     * Copy from file using sendfile or mapped memory without copying to user space
+     */
+    private void transfer(final FileChannel source, final WritableByteChannel target, final BandwidthThrottle throttle) throws IOException {
+        long total = 0;
+        long position = source.position();
+        final long size = source.size();
+        while(!cancel.isCanceled()) {
+            final long len = this.request(total, throttle);
+            if(0 == len) {
+                break;
+            }
+            if(position >= size) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes transferred from channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            long transferred = source.transferTo(position, len, target);
+            if(0 == transferred) {
+                // No progress from target channel. Copy chunk through buffer instead of spinning on transferTo
+                transferred = this.copy(source, position, len, target);
+                if(-1 == transferred) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("End of file reached with %d bytes transferred from channel", total));
+                    }
+                    progress.setComplete();
+                    break;
+                }
+            }
+            position += transferred;
+            source.position(position);
+            total += transferred;
+            this.progress(transferred, total);
+        }
+    }
+
+    /**
+     * Copy chunk from file through buffer in user space
+     *
+     * @return Number of bytes written or -1 if end of file is reached
+     */
+    private long copy(final FileChannel source, final long position, final long len, final WritableByteChannel target) throws IOException {
+        final byte[] buffer = BufferPool.get().acquire(chunksize);
+        try {
+            final ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, (int) Math.min(len, buffer.length));
+            final int read = source.read(chunk, position);
+            if(read <= 0) {
+                return -1;
+            }
+            chunk.flip();
+            while(chunk.hasRemaining()) {
+                target.write(chunk);
+            }
+            return read;
+        }
+        finally {
+            BufferPool.get().release(buffer);
+        }
+    }
+
+    /**
+     * Copy to file without copying to user space where supported by the source channel
+     */
+    private void transfer(final ReadableByteChannel source, final FileChannel target, final BandwidthThrottle throttle) throws IOException {
+        long total = 0;
+        long position = target.position();
+        while(!cancel.isCanceled()) {
+            final long len = this.request(total, throttle);
+            if(0 == len) {
+                break;
+            }
+            final long transferred = target.transferFrom(source, position, len);
+            if(0 == transferred) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("End of file reached with %d bytes transferred to channel", total));
+                }
+                progress.setComplete();
+                break;
+            }
+            position += transferred;
+            target.position(position);
+            total += transferred;
+            this.progress(transferred, total);
+        }
+    }
+
+    /**
+     * @param total Bytes transferred so far
+     * @return Number of bytes to transfer in next chunk or zero if limit is reached
+     */
+    private long request(final long total, final BandwidthThrottle throttle) {
+        long len = channelsize;
+        if(limit > 0) {
+            len = Math.min(limit - total, len);
+        }
+        if(len > 0 && throttle != null) {
+            len = throttle.request((int) Math.min(len, Integer.MAX_VALUE));
+        }
+        return len;
+    }
+
+    private void progress(final long transferred, final long total) {
+        listener.recv(transferred);
+        progress.progress(transferred);
+        listener.sent(transferred);
+        if(limit == total) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Limit %d reached transferring from channel", limit));
+            }
+            progress.setComplete();
+        }
+    }
+
+    /**
+     * @return Channel of file backed stream or null
+     */
+    private static ReadableByteChannel channel(final InputStream in) {
+        if(in.getClass() == ThrottledInputStream.class) {
+            return channel(((ThrottledInputStream) in).getDelegate());
+        }
+        if(in instanceof FileChannelInputStream) {
+            return ((FileChannelInputStream) in).getChannel();
+        }
+        if(in.getClass() == FileInputStream.class) {
+            return ((FileInputStream) in).getChannel();
+        }
+        return null;
+    }
+
+    /**
+     * @return Channel of file or channel backed stream or null
+     */
+    private static WritableByteChannel channel(final OutputStream out) {
+        if(out.getClass() == ThrottledOutputStream.class) {
+            return channel(((ThrottledOutputStream) out).getDelegate());
+        }
+        if(out.getClass() == VoidStatusOutputStream.class) {
+            // No status to compute from bytes written
+            return channel(((VoidStatusOutputStream) out).getProxy());
+        }
+        if(out.getClass() == MetricsOutputStream.class) {
+            return channel(((MetricsOutputStream) out).getProxy());
+        }
+        if(out instanceof ChannelOutputStream) {
+            return ((ChannelOutputStream) out).getChannel();
+        }
+        if(out.getClass() == FileOutputStream.class) {
+            return ((FileOutputStream) out).getChannel();
+        }
+        return null;
+    }
+
+    /**
+     * @return Bandwidth throttle applied to either stream or null
+     */
+    private static BandwidthThrottle throttle(final InputStream in, final OutputStream out) {
+        if(in.getClass() == ThrottledInputStream.class) {
+            return ((ThrottledInputStream) in).getThrottle();
+        }
+        if(out.getClass() == ThrottledOutputStream.class) {
+            return ((ThrottledOutputStream) out).getThrottle();
+        }
+        if(out.getClass() == VoidStatusOutputStream.class) {
+            return throttle(in, ((VoidStatusOutputStream) out).getProxy());
+        }
+        return null;
+    }
+
     public static InputStream skip(final InputStream in, final long offset) throws BackgroundException {
         try {
             long skipped = in.skip(offset);
@@ -0,0 +1,55 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of bytes transferred and average rate over the time from the start of the first to the end of the last
+ * transfer
+ */
+public final class Meter {
+
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator first = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator last = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * @param bytes Number of bytes transferred
+     * @param start Timestamp in milliseconds when transfer started
+     */
+    public void mark(final long bytes, final long start) {
+        total.add(bytes);
+        first.accumulate(start);
+        last.accumulate(System.currentTimeMillis());
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * @return Bytes per second
+     */
+    public double getRate() {
+        if(first.get() == Long.MAX_VALUE) {
+            return 0d;
+        }
+        final long elapsed = Math.max(1L, last.get() - first.get());
+        return total.sum() * 1000d / elapsed;
+    }
+}
@@ -0,0 +1,58 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+
+import org.apache.commons.io.output.ProxyOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Record latency of closing stream such as for the server to reply after the last byte has been sent
+ */
+public class MetricsOutputStream extends ProxyOutputStream {
+
+    private final MetricsRegistry registry = MetricsRegistry.get();
+
+    private final Host host;
+    private final String name;
+
+    public MetricsOutputStream(final OutputStream proxy, final Host host, final String name) {
+        super(proxy);
+        this.host = host;
+        this.name = name;
+    }
+
+    /**
+     * @return Wrapped stream
+     */
+    public OutputStream getProxy() {
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        final long start = System.nanoTime();
+        try {
+            super.close();
+        }
+        finally {
+            registry.time(host, name, start);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Latency histograms, throughput meters and counters per host and operation. Recording is a no-op unless enabled
+ * with <code>metrics.enable</code> and does not lock otherwise.
+ */
+public final class MetricsRegistry {
+
+    public static final String LIST = "list";
+    public static final String STAT = "stat";
+    public static final String READ_OPEN = "read.open";
+    public static final String WRITE_CLOSE = "write.close";
+    public static final String MULTIPART_PART = "multipart.part";
+    public static final String POOL_BORROW = "pool.borrow";
+    public static final String RETRY = "retry";
+    public static final String DOWNLOAD = "download";
+    public static final String UPLOAD = "upload";
+    public static final String RTT = "rtt";
+    public static final String READ_WINDOW = "read.window";
+    public static final String WRITE_WINDOW = "write.window";
+
+    private static final MetricsRegistry global = new MetricsRegistry();
+
+    public static MetricsRegistry get() {
+        return global;
+    }
+
+    private final ConcurrentMap<Key, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, Meter> meters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private volatile Boolean enabled;
+
+    public boolean isEnabled() {
+        if(null == enabled) {
+            enabled = PreferencesFactory.get().getBoolean("metrics.enable");
+        }
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Record latency of operation
+     *
+     * @param host  Host or null if not specific to a connection
+     * @param name  Operation
+     * @param start Timestamp from {@link System#nanoTime()} when the operation started
+     */
+    public void time(final Host host, final String name, final long start) {
+        if(!this.isEnabled()) {
+            return;
+        }
+        this.histogram(host, name).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+
+    /**
+     * Record bytes transferred
+     *
+     * @param start Timestamp in milliseconds when the transfer started
+     */
+    public void mark(final Host host, final String name, final long bytes, final long start) {
+        if(!this.isEnabled()) {
+            return;
+        }
+        this.meter(host, name).mark(bytes, start);
+    }
+
+    /**
+     * Record value other than latency such as a window size
+     */
+    public void record(final Host host, final String name, final long value) {
+        if(!this.isEnabled()) {
+            return;
+        }
+        this.histogram(host, name).record(value);
+    }
+
+    public void increment(final Host host, final String name) {
+        if(!this.isEnabled()) {
+            return;
+        }
+        this.counter(host, name).increment();
+    }
+
+    /**
+     * @return Latency in microseconds
+     */
+    public Histogram histogram(final Host host, final String name) {
+        return histograms.computeIfAbsent(new Key(host, name), k -> new Histogram());
+    }
+
+    public Meter meter(final Host host, final String name) {
+        return meters.computeIfAbsent(new Key(host, name), k -> new Meter());
+    }
+
+    public LongAdder counter(final Host host, final String name) {
+        return counters.computeIfAbsent(new Key(host, name), k -> new LongAdder());
+    }
+
+    public void clear() {
+        histograms.clear();
+        meters.clear();
+        counters.clear();
+    }
+
+    /**
+     * Write snapshot of all metrics grouped by host with latency in microseconds and rate in bytes per second
+     */
+    public void write(final Writer out) throws IOException {
+        final Map<String, Map<String, Object>> hosts = new TreeMap<>();
+        for(Map.Entry<Key, Histogram> entry : histograms.entrySet()) {
+            hosts.computeIfAbsent(entry.getKey().toString(), k -> new TreeMap<>()).put(entry.getKey().name, entry.getValue());
+        }
+        for(Map.Entry<Key, Meter> entry : meters.entrySet()) {
+            hosts.computeIfAbsent(entry.getKey().toString(), k -> new TreeMap<>()).put(entry.getKey().name, entry.getValue());
+        }
+        for(Map.Entry<Key, LongAdder> entry : counters.entrySet()) {
+            hosts.computeIfAbsent(entry.getKey().toString(), k -> new TreeMap<>()).put(entry.getKey().name, entry.getValue());
+        }
+        final JsonWriter writer = new JsonWriter(out);
+        writer.setIndent("  ");
+        writer.beginObject();
+        for(Map.Entry<String, Map<String, Object>> host : hosts.entrySet()) {
+            writer.name(host.getKey());
+            writer.beginObject();
+            for(Map.Entry<String, Object> metric : host.getValue().entrySet()) {
+                writer.name(metric.getKey());
+                writer.beginObject();
+                if(metric.getValue() instanceof Histogram) {
+                    final Histogram histogram = (Histogram) metric.getValue();
+                    writer.name("count").value(histogram.getCount());
+                    writer.name("mean").value(histogram.getMean());
+                    writer.name("p50").value(histogram.getPercentile(50));
+                    writer.name("p90").value(histogram.getPercentile(90));
+                    writer.name("p99").value(histogram.getPercentile(99));
+                    writer.name("max").value(histogram.getMax());
+                }
+                else if(metric.getValue() instanceof Meter) {
+                    final Meter meter = (Meter) metric.getValue();
+                    writer.name("bytes").value(meter.getTotal());
+                    writer.name("rate").value(meter.getRate());
+                }
+                else {
+                    writer.name("count").value(((LongAdder) metric.getValue()).sum());
+                }
+                writer.endObject();
+            }
+            writer.endObject();
+        }
+        writer.endObject();
+        writer.flush();
+    }
+
+    private static final class Key {
+        private final Host host;
+        private final String name;
+
+        public Key(final Host host, final String name) {
+            this.host = host;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return Objects.equals(host, key.host) && Objects.equals(name, key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, name);
+        }
+
+        /**
+         * @return URL of host
+         */
+        @Override
+        public String toString() {
+            return null == host ? "*" : new HostUrlProvider(true).get(host);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
@@ -130,6 +131,7 @@ public class DefaultSessionPool implements SessionPool {
 
     @Override
     public Session<?> borrow(final BackgroundActionState callback) throws BackgroundException {
+        final long start = System.nanoTime();
         final Integer numActive = pool.getNumActive();
         if(numActive > POOL_WARNING_THRESHOLD) {
             log.warn(String.format("Possibly large number of open connections (%d) in pool %s", numActive, this));
@@ -151,6 +153,7 @@ public class DefaultSessionPool implements SessionPool {
                     if(DISCONNECTED == features) {
                         features = new StatelessSessionPool(connect, session, cache, transcript, registry);
                     }
+                    MetricsRegistry.get().time(bookmark, MetricsRegistry.POOL_BORROW, start);
                     return session.withListener(transcript);
                 }
                 catch(IllegalStateException e) {
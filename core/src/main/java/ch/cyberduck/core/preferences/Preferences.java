@@ -275,6 +275,24 @@ public abstract class Preferences {
         defaults.put("local.normalize.unicode", String.valueOf(true));
         defaults.put("local.normalize.tilde", String.valueOf(true));
         defaults.put("local.list.native", String.valueOf(true));
+        /*
+          Number of directory entries read before attributes of remaining entries are read concurrently
+         */
+        defaults.put("local.listing.parallel.threshold", String.valueOf(10000));
+        defaults.put("local.listing.parallel.concurrency", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        /*
+          Number of entries to read before notifying listener
+         */
+        defaults.put("local.listing.chunksize", String.valueOf(1000));
+        /*
+          Clone files with copy-on-write if supported by filesystem
+         */
+        defaults.put("local.copy.reflink", String.valueOf(true));
+        defaults.put("local.copy.chunksize", String.valueOf(64L * 1024L * 1024L));
+        /*
+          Number of files in directory tree copied concurrently
+         */
+        defaults.put("local.copy.concurrency", String.valueOf(4));
         defaults.put("local.delimiter", File.separator);
         defaults.put("local.temporaryfiles.shortening.threshold", String.valueOf(240));
 
@@ -299,11 +317,19 @@ public abstract class Preferences {
         defaults.put("profiles.folder.name", "Profiles");
 
         /*
-          Maximum number of directory listings to cache using a most recently used implementation
+          Maximum number of entries in directory listings to cache using a least recently used implementation
          */
-        defaults.put("browser.cache.size", String.valueOf(1000));
-        defaults.put("transfer.cache.size", String.valueOf(100));
+        defaults.put("browser.cache.size", String.valueOf(100000));
+        defaults.put("transfer.cache.size", String.valueOf(10000));
         defaults.put("icon.cache.size", String.valueOf(200));
+        /*
+          Save directory listings to disk for reuse in later sessions
+         */
+        defaults.put("browser.cache.persistent", String.valueOf(false));
+        /*
+          Seconds after which a saved directory listing is listed again
+         */
+        defaults.put("browser.cache.persistent.ttl", String.valueOf(3600));
 
         /*
           Caching NS* proxy instances.
@@ -437,6 +463,13 @@ public abstract class Preferences {
                 String.valueOf(Host.TransferType.concurrent.name())
         ));
         defaults.put("queue.transfer.type", String.valueOf(Host.TransferType.concurrent.name()));
+        /*
+          Transfer files while traversing directories with a bounded number of pending transfers instead of
+          determining the transfer status for all files prior transfer
+         */
+        defaults.put("queue.pipeline.enable", String.valueOf(false));
+        defaults.put("queue.pipeline.size", String.valueOf(100));
+        defaults.put("queue.pipeline.batch.size", String.valueOf(100));
         /*
           Warning when number of transfers in queue exceeds limit
          */
@@ -569,6 +602,29 @@ public abstract class Preferences {
          * Concurrent connections
          */
         defaults.put("queue.connections.limit", String.valueOf(2));
+        /*
+          Adjust number of concurrent connections to measured throughput and failures starting with
+          queue.connections.limit
+         */
+        defaults.put("queue.connections.adaptive.enable", String.valueOf(false));
+        defaults.put("queue.connections.adaptive.min", String.valueOf(1));
+        defaults.put("queue.connections.adaptive.max", String.valueOf(32));
+        /*
+          Milliseconds between adjustments
+         */
+        defaults.put("queue.connections.adaptive.interval", String.valueOf(5000L));
+        /*
+          Drop in throughput tolerated with additional connection
+         */
+        defaults.put("queue.connections.adaptive.tolerance", String.valueOf(0.1d));
+        /*
+          Number of intervals with stable throughput before probing with an additional connection
+         */
+        defaults.put("queue.connections.adaptive.probe", String.valueOf(3));
+        /*
+          Factor of lowest latency obtaining a connection tolerated
+         */
+        defaults.put("queue.connections.adaptive.latency.threshold", String.valueOf(4d));
         {
             final StringBuilder options = new StringBuilder();
             options.append(1).append(",");
@@ -627,6 +683,10 @@ public abstract class Preferences {
 
         defaults.put("ftp.parser.multiline.strict", String.valueOf(false));
         defaults.put("ftp.parser.reply.strict", String.valueOf(false));
+        /*
+          Notify listener after number of files parsed from directory listing
+         */
+        defaults.put("ftp.listing.chunksize", String.valueOf(500));
 
         /*
           Send LIST -a
@@ -689,6 +749,11 @@ public abstract class Preferences {
         defaults.put("s3.mfa.serialnumber", StringUtils.EMPTY);
 
         defaults.put("s3.listing.chunksize", String.valueOf(1000));
+        /*
+          Number of concurrent requests listing ranges of keys for recursive listings. Disabled by default as
+          ranges are guessed from key names and may be empty
+         */
+        defaults.put("s3.listing.concurrency", String.valueOf(1));
 
         defaults.put("s3.upload.md5", String.valueOf(true));
 
@@ -704,6 +769,17 @@ public abstract class Preferences {
         // Must be a multiple of org.cryptomator.cryptolib.v1.Constants.PAYLOAD_SIZE when using Cryptomator Vaults
         defaults.put("s3.upload.multipart.size", String.valueOf(10L * 1024L * 1024L)); // 10MB
         defaults.put("s3.copy.multipart.size", String.valueOf(5368709120L)); // 5GB
+        /*
+          Number of retries with exponential backoff from delay in seconds for failed parts
+         */
+        defaults.put("s3.upload.multipart.retry", String.valueOf(3));
+        defaults.put("s3.upload.multipart.retry.delay", String.valueOf(1));
+        /*
+          Save multipart upload and completed parts locally to resume without listing uploads and parts on the
+          server. Saved uploads not resumed within days are deleted on startup.
+         */
+        defaults.put("s3.upload.multipart.persist.enable", String.valueOf(true));
+        defaults.put("s3.upload.multipart.persist.expiry", String.valueOf(7));
 
         defaults.put("s3.upload.expect-continue", String.valueOf(true));
 
@@ -737,10 +813,21 @@ public abstract class Preferences {
         defaults.put("s3.lifecycle.delete.options", "1 7 10 30 60 180 360 720");
 
         defaults.put("s3.delete.multiple.partition", String.valueOf(1000));
+        /*
+          Maximum number of concurrent Multi-Object Delete requests reduced when throttled
+         */
+        defaults.put("s3.delete.multiple.concurrency", String.valueOf(10));
 
         defaults.put("azure.metadata.default", StringUtils.EMPTY);
         defaults.put("azure.listing.chunksize", String.valueOf(1000));
         defaults.put("azure.upload.md5", String.valueOf(false));
+        /*
+          Upload files larger than threshold as block blob with blocks staged concurrently
+         */
+        defaults.put("azure.upload.blockblob", String.valueOf(true));
+        defaults.put("azure.upload.blockblob.threshold", String.valueOf(32 * 1024L * 1024L)); // 32MB
+        defaults.put("azure.upload.blockblob.size", String.valueOf(4 * 1024L * 1024L)); // 4MB
+        defaults.put("azure.upload.blockblob.concurrency", String.valueOf(5));
 
         // Legacy authentication
 //        defaults.put("openstack.authentication.context", "/v1.0");
@@ -899,6 +986,10 @@ public abstract class Preferences {
           Socket timeout
          */
         defaults.put("connection.timeout.seconds", String.valueOf(30));
+        /*
+          Record latency and throughput per host and operation
+         */
+        defaults.put("metrics.enable", String.valueOf(false));
         /*
           Retry to connect after a I/O failure automatically
          */
@@ -949,6 +1040,14 @@ public abstract class Preferences {
           Transfer read buffer size
          */
         defaults.put("connection.chunksize", String.valueOf(32768));
+        /*
+          Maximum bytes transferred at once between file channels without buffer in user space
+         */
+        defaults.put("connection.chunksize.channel", String.valueOf(8388608));
+        /*
+          Maximum bytes retained in shared pool of transfer buffers
+         */
+        defaults.put("connection.buffer.pool.limit", String.valueOf(33554432));
         /*
           Buffer size for wrapped buffered streams
          */
@@ -1003,8 +1102,26 @@ public abstract class Preferences {
 
         defaults.put("sftp.symlink.absolute", String.valueOf(false));
 
-        defaults.put("sftp.read.maxunconfirmed", String.valueOf(64));
-        defaults.put("sftp.write.maxunconfirmed", String.valueOf(64));
+        /*
+          Maximum number of unconfirmed requests for reads and writes. Raised from 64 as the number is now sized to
+          the bandwidth-delay product up to this bound, starting with sftp.maxunconfirmed.initial.
+         */
+        defaults.put("sftp.read.maxunconfirmed", String.valueOf(256));
+        defaults.put("sftp.write.maxunconfirmed", String.valueOf(256));
+        /*
+          Initial number of unconfirmed requests without samples and lower bound
+         */
+        defaults.put("sftp.maxunconfirmed.initial", String.valueOf(64));
+        defaults.put("sftp.maxunconfirmed.min", String.valueOf(1));
+        /*
+          Outstanding requests to resolve symbolic links in directory listing
+         */
+        defaults.put("sftp.listing.symlink.maxunconfirmed", String.valueOf(64));
+        /*
+          Notify listener after number of files or milliseconds elapsed in directory listing
+         */
+        defaults.put("sftp.listing.chunksize", String.valueOf(500));
+        defaults.put("sftp.listing.chunk.interval", String.valueOf(200));
 
         defaults.put("archive.default", "tar.gz");
 
@@ -1045,6 +1162,23 @@ public abstract class Preferences {
 
         defaults.put("cryptomator.enable", String.valueOf(true));
         defaults.put("cryptomator.vault.autodetect", String.valueOf(true));
+        /*
+          Maximum number of directories listed with no vault found to skip looking for a vault again
+         */
+        defaults.put("cryptomator.vault.autodetect.cache.size", String.valueOf(10000));
+        /*
+          Maximum number of directory IDs to cache
+         */
+        defaults.put("cryptomator.cache.size", String.valueOf(1000));
+        /*
+          Number of threads shared by all transfers to encrypt and decrypt file content chunks in parallel. Disabled
+          by default with 1 to encrypt and decrypt on the transfer thread.
+         */
+        defaults.put("cryptomator.pipeline.concurrency", String.valueOf(1));
+        /*
+          Maximum number of chunks encrypted or decrypted ahead per stream
+         */
+        defaults.put("cryptomator.pipeline.window", String.valueOf(16));
     }
 
     protected void setLogging() {
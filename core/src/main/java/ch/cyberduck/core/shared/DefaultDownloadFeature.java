@@ -18,6 +18,7 @@ package ch.cyberduck.core.shared;
  */
 
 import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Host;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
@@ -28,24 +29,48 @@ import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.transfer.download.DownloadSegmentJournal;
 
 import java.io.InputStream;
 import java.io.OutputStream;
 
 public class DefaultDownloadFeature implements Download {
 
+    private final MetricsRegistry registry = MetricsRegistry.get();
+
     private Read reader;
+    private final Host host;
 
     public DefaultDownloadFeature(final Read reader) {
+        this(reader, null);
+    }
+
+    /**
+     * @param host Record metrics for host
+     */
+    public DefaultDownloadFeature(final Read reader, final Host host) {
         this.reader = reader;
+        this.host = host;
     }
 
     @Override
     public void download(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                          final TransferStatus status, final ConnectionCallback connectionCallback, final PasswordCallback passwordCallback) throws BackgroundException {
+        final long start = System.nanoTime();
         final InputStream in = reader.read(file, status, connectionCallback);
-        final OutputStream out = local.getOutputStream(status.isAppend());
+        if(host != null) {
+            registry.time(host, MetricsRegistry.READ_OPEN, start);
+        }
+        final OutputStream out;
+        if(status.isSegment()) {
+            // Write segment at its offset in file
+            out = new DownloadSegmentJournal(local).getOutputStream(status.getOffset());
+        }
+        else {
+            out = local.getOutputStream(status.isAppend());
+        }
         new StreamCopier(status, status)
                 .withOffset(0L)
                 .withLimit(status.getLength())
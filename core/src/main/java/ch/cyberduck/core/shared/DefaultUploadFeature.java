@@ -20,6 +20,7 @@ package ch.cyberduck.core.shared;
 
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Host;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
@@ -30,16 +31,29 @@ import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.ThrottledOutputStream;
+import ch.cyberduck.core.metrics.MetricsOutputStream;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import java.io.InputStream;
 
 public class DefaultUploadFeature<Reply> implements Upload<Reply> {
 
+    private final MetricsRegistry registry = MetricsRegistry.get();
+
     private Write<Reply> writer;
+    private final Host host;
 
     public DefaultUploadFeature(final Write<Reply> writer) {
+        this(writer, null);
+    }
+
+    /**
+     * @param host Record metrics for host
+     */
+    public DefaultUploadFeature(final Write<Reply> writer, final Host host) {
         this.writer = writer;
+        this.host = host;
     }
 
     @Override
@@ -52,7 +66,8 @@ public class DefaultUploadFeature<Reply> implements Upload<Reply> {
                 .withOffset(status.getOffset())
                 .withLimit(status.getLength())
                 .withListener(listener)
-                .transfer(in, new ThrottledOutputStream(out, throttle));
+                .transfer(in, new ThrottledOutputStream(null != host && registry.isEnabled()
+                        ? new MetricsOutputStream(out, host, MetricsRegistry.WRITE_CLOSE) : out, throttle));
         return out.getStatus();
     }
 
@@ -20,7 +20,7 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.date.RemainingPeriodFormatter;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.RetriableAccessDeniedException;
-import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.log4j.Logger;
@@ -31,19 +31,37 @@ import java.util.concurrent.Callable;
 public abstract class AbstractRetryCallable<T> implements Callable<T> {
     private static final Logger log = Logger.getLogger(AbstractRetryCallable.class);
 
-    private final Preferences preferences = PreferencesFactory.get();
-
     /**
      * The number of times to retry a failed action
      */
-    private int retry =
-            PreferencesFactory.get().getInteger("connection.retry");
+    private final int retry;
 
     /**
      * The number of times this action has been run
      */
     private int count = 0;
-    private int backoff = preferences.getInteger("connection.retry.delay");
+    private int backoff;
+    /**
+     * Double delay with every retry
+     */
+    private final boolean exponential;
+
+    public AbstractRetryCallable() {
+        this(PreferencesFactory.get().getInteger("connection.retry"),
+                PreferencesFactory.get().getInteger("connection.retry.delay"),
+                PreferencesFactory.get().getBoolean("connection.retry.backoff.enable"));
+    }
+
+    /**
+     * @param retry       Number of retries
+     * @param delay       Delay in seconds before first retry
+     * @param exponential Double delay with every retry
+     */
+    public AbstractRetryCallable(final int retry, final int delay, final boolean exponential) {
+        this.retry = retry;
+        this.backoff = delay;
+        this.exponential = exponential;
+    }
 
     @Override
     public abstract T call() throws BackgroundException;
@@ -79,6 +97,7 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
                 return false;
         }
         log.warn(String.format("Retry for failure %s with delay of %ds", failure, delay));
+        MetricsRegistry.get().increment(null, MetricsRegistry.RETRY);
         if(delay > 0) {
             final BackgroundActionPauser pause = new BackgroundActionPauser(new BackgroundActionPauser.Callback() {
                 @Override
@@ -95,7 +114,7 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
             pause.await();
         }
         // Exponential backoff
-        if(preferences.getBoolean("connection.retry.backoff.enable")) {
+        if(exponential) {
             backoff *= 2;
         }
         return !cancel.isCanceled();
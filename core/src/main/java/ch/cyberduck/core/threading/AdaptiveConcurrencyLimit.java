@@ -0,0 +1,137 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+/**
+ * Bound on the number of concurrent requests adjusted with additive increase and multiplicative decrease. The limit
+ * is halved when the server asks to slow down and grows by one after as many successful requests as the current limit
+ * or when increased explicitly, always within the minimum and maximum.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final Logger log = Logger.getLogger(AdaptiveConcurrencyLimit.class);
+
+    private final int minimum;
+    private final int maximum;
+
+    private int limit;
+    private int inflight;
+    private int successes;
+
+    /**
+     * @param maximum Initial and maximum limit
+     */
+    public AdaptiveConcurrencyLimit(final int maximum) {
+        this(1, maximum, maximum);
+    }
+
+    public AdaptiveConcurrencyLimit(final int minimum, final int maximum, final int initial) {
+        this.minimum = Math.max(1, minimum);
+        this.maximum = Math.max(this.minimum, maximum);
+        this.limit = Math.min(this.maximum, Math.max(this.minimum, initial));
+    }
+
+    /**
+     * Wait until the number of requests in flight is below the limit
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while(inflight >= limit) {
+            this.wait();
+        }
+        inflight++;
+    }
+
+    /**
+     * Request completed
+     */
+    public synchronized void release() {
+        inflight--;
+        this.notifyAll();
+    }
+
+    /**
+     * Request completed successfully. Increase limit by one after as many successes as the current limit.
+     */
+    public synchronized void success() {
+        if(limit < maximum && ++successes >= limit) {
+            this.increase();
+        }
+    }
+
+    /**
+     * Additive increase by one up to the maximum
+     *
+     * @return New limit
+     */
+    public synchronized int increase() {
+        successes = 0;
+        if(limit < maximum) {
+            limit++;
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Increase limit to %d", limit));
+            }
+            this.notifyAll();
+        }
+        return limit;
+    }
+
+    /**
+     * Decrease by one down to the minimum
+     *
+     * @return New limit
+     */
+    public synchronized int decrement() {
+        successes = 0;
+        if(limit > minimum) {
+            limit--;
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Decrement limit to %d", limit));
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Multiplicative decrease by half down to the minimum when throttled by server
+     *
+     * @return New limit
+     */
+    public synchronized int decrease() {
+        successes = 0;
+        if(limit > minimum) {
+            limit = Math.max(minimum, limit / 2);
+            log.warn(String.format("Decrease limit to %d", limit));
+        }
+        return limit;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInflight() {
+        return inflight;
+    }
+
+    public int getMinimum() {
+        return minimum;
+    }
+
+    public int getMaximum() {
+        return maximum;
+    }
+}
@@ -41,6 +41,19 @@ public class DefaultRetryCallable<T> extends AbstractRetryCallable<T> {
         this.cancel = cancel;
     }
 
+    /**
+     * @param retry       Number of retries
+     * @param delay       Delay in seconds before first retry
+     * @param exponential Double delay with every retry
+     */
+    public DefaultRetryCallable(final BackgroundExceptionCallable<T> delegate, final TransferStatus status,
+                                final int retry, final int delay, final boolean exponential) {
+        super(retry, delay, exponential);
+        this.delegate = delegate;
+        this.listener = new DisabledProgressListener();
+        this.cancel = new TransferBackgroundActionState(status);
+    }
+
     @Override
     public T call() throws BackgroundException {
         while(!cancel.isCanceled()) {
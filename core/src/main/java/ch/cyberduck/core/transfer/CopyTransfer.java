@@ -230,7 +230,15 @@ public class CopyTransfer extends Transfer {
         }
         progressListener.message(MessageFormat.format(LocaleFactory.localizedString("Copying {0} to {1}", "Status"),
                 source.getName(), mapping.get(source).getName()));
-        final Copy feature = new DefaultCopyFeature(session).withTarget(destination);
+        final Copy feature;
+        if(source.isFile() && !status.isAppend() && session.getHost().getProtocol().getType() == Protocol.Type.file
+                && destination.getHost().getProtocol().getType() == Protocol.Type.file) {
+            // Copy between local filesystems without streaming
+            feature = session.getFeature(Copy.class).withTarget(destination);
+        }
+        else {
+            feature = new DefaultCopyFeature(session).withTarget(destination);
+        }
         final Path copy = feature.copy(source, mapping.get(source), status, connectionCallback);
         this.addTransferred(status.getLength());
         return copy;
@@ -40,6 +40,7 @@ import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.local.LocalSymlinkFactory;
 import ch.cyberduck.core.local.features.Symlink;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
 import ch.cyberduck.core.transfer.download.CompareFilter;
@@ -274,10 +275,12 @@ public class DownloadTransfer extends Transfer {
             }
             // Transfer
             final Download download = source.getFeature(Download.class);
+            final long start = System.currentTimeMillis();
             download.download(file, local, bandwidth, new IconUpdateSreamListener(streamListener, status, local) {
                 @Override
                 public void recv(final long bytes) {
                     addTransferred(bytes);
+                    MetricsRegistry.get().mark(source.getHost(), MetricsRegistry.DOWNLOAD, bytes, start);
                     super.recv(bytes);
                 }
             }, status, connectionCallback, passwordCallback);
@@ -41,6 +41,12 @@ public final class TransferOptions {
     public boolean open =
             PreferencesFactory.get().getBoolean("queue.download.complete.open");
 
+    /**
+     * Transfer files while traversing directories instead of determining the transfer status of all files first
+     */
+    public boolean pipeline =
+            PreferencesFactory.get().getBoolean("queue.pipeline.enable");
+
     public TransferOptions open(boolean e) {
         open = e;
         return this;
@@ -51,6 +57,11 @@ public final class TransferOptions {
         return this;
     }
 
+    public TransferOptions pipeline(boolean e) {
+        pipeline = e;
+        return this;
+    }
+
     public TransferOptions reload(boolean e) {
         reloadRequested = e;
         return this;
@@ -68,6 +79,7 @@ public final class TransferOptions {
         sb.append("{resumeRequested=").append(resumeRequested);
         sb.append(", reloadRequested=").append(reloadRequested);
         sb.append(", quarantine=").append(quarantine);
+        sb.append(", pipeline=").append(pipeline);
         sb.append('}');
         return sb.toString();
     }
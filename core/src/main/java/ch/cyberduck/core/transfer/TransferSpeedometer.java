@@ -37,6 +37,13 @@ public class TransferSpeedometer extends Speedometer {
                 this.getProgress(transfer.isRunning(), size, transferred, speed), speed);
     }
 
+    /**
+     * @return Bytes per millisecond transferred since last invocation
+     */
+    public Double getThroughput() {
+        return this.getSpeed(transfer.getTransferred());
+    }
+
     public void reset() {
         final long timestamp = System.currentTimeMillis();
         if(log.isDebugEnabled()) {
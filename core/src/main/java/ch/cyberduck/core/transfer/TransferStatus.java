@@ -273,9 +273,17 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         }
     }
 
+    /**
+     * Safe to call concurrently from multiple threads copying parts of the same transfer
+     *
+     * @param bytes Number of bytes transferred since last call
+     */
     @Override
     public void progress(final long bytes) {
-        this.setOffset(offset.addAndGet(bytes));
+        final long total = offset.addAndGet(bytes);
+        if(log.isTraceEnabled()) {
+            log.trace(String.format("Offset set to %d bytes", total));
+        }
     }
 
     public TransferStatus skip(final long bytes) {
@@ -39,6 +39,7 @@ import ch.cyberduck.core.filter.UploadRegexFilter;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.DelegateStreamListener;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.normalizer.UploadRootPathsNormalizer;
 import ch.cyberduck.core.transfer.symlink.UploadSymlinkResolver;
@@ -252,10 +253,12 @@ public class UploadTransfer extends Transfer {
                     file.getName()));
             // Transfer
             final Upload upload = source.getFeature(Upload.class);
+            final long start = System.currentTimeMillis();
             upload.upload(file, local, bandwidth, new DelegateStreamListener(streamListener) {
                 @Override
                 public void sent(final long bytes) {
                     addTransferred(bytes);
+                    MetricsRegistry.get().mark(source.getHost(), MetricsRegistry.UPLOAD, bytes, start);
                     super.sent(bytes);
                 }
             }, status, connectionCallback);
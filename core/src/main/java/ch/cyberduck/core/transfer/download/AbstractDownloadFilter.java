@@ -59,7 +59,6 @@ import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 public abstract class AbstractDownloadFilter implements TransferPathFilter {
@@ -212,21 +211,17 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                                 status.getLength() / preferences.getInteger("queue.connections.limit"));
                         // Sorted list
                         final List<TransferStatus> segments = new ArrayList<TransferStatus>();
-                        final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
-                        for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                            final Local segmentFile = LocalFactory.get(
-                                    segmentsFolder, String.format("%s-%d.cyberducksegment", local.getName(), segmentNumber));
-                            boolean skip = false;
+                        while(remaining > 0) {
                             // Last part can be less than 5 MB. Adjust part size.
                             Long length = Math.min(partsize, remaining);
+                            // Written at offset to target file
                             final TransferStatus segmentStatus = new TransferStatus()
                                     .segment(true)
                                     .append(true)
                                     .skip(offset)
-                                    .length(length)
-                                    .rename(segmentFile);
+                                    .length(length);
                             if(log.isDebugEnabled()) {
-                                log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                log.debug(String.format("Adding status %s for segment of %s", segmentStatus, local));
                             }
                             segments.add(segmentStatus);
                             remaining -= length;
@@ -246,7 +241,23 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(status.isSegmented()) {
+            final DownloadSegmentJournal journal = new DownloadSegmentJournal(local);
+            if(!status.isAppend()) {
+                // Discard ranges written by previous download
+                journal.delete();
+            }
+            final Local folder = local.getParent();
+            if(!folder.exists()) {
+                folder.mkdir();
+            }
+            // Mark as incomplete until all segments are written
+            journal.create();
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Allocate %d bytes for segments in %s", status.getLength(), local));
+            }
+            local.truncate(status.getLength());
+        }
     }
 
     /**
@@ -267,34 +278,10 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
         }
         if(status.isComplete()) {
             if(status.isSegmented()) {
-                // Obtain ordered list of segments to reassemble
-                final List<TransferStatus> segments = status.getSegments();
                 if(log.isInfoEnabled()) {
-                    log.info(String.format("Compile %d segments to file %s", segments.size(), local));
-                }
-                if(local.exists()) {
-                    local.delete();
-                }
-                for(Iterator<TransferStatus> iterator = segments.iterator(); iterator.hasNext(); ) {
-                    final TransferStatus segmentStatus = iterator.next();
-                    // Segment
-                    final Local segmentFile = segmentStatus.getRename().local;
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Append segment %s to %s", segmentFile, local));
-                    }
-                    segmentFile.copy(local, new Local.CopyOptions().append(true));
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Delete segment %s", segmentFile));
-                    }
-                    segmentFile.delete();
-                    if(!iterator.hasNext()) {
-                        final Local folder = segmentFile.getParent();
-                        if(log.isInfoEnabled()) {
-                            log.info(String.format("Remove segment folder %s", folder));
-                        }
-                        folder.delete();
-                    }
+                    log.info(String.format("Completed %d segments written to file %s", status.getSegments().size(), local));
                 }
+                new DownloadSegmentJournal(local).delete();
             }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Run completion for file %s with status %s", local, status));
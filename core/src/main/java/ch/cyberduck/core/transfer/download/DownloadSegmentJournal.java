@@ -0,0 +1,233 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.io.ChannelOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Byte ranges of a segmented download written to the target file saved next to it with one line per range. Used to
+ * resume segments written at their offset in the file.
+ */
+public class DownloadSegmentJournal {
+    private static final Logger log = Logger.getLogger(DownloadSegmentJournal.class);
+
+    /**
+     * Segments of all downloads append to their journal concurrently
+     */
+    private static final Object lock = new Object();
+
+    private final Local local;
+    private final Local file;
+
+    public DownloadSegmentJournal(final Local local) {
+        this.local = local;
+        this.file = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegments", local.getName()));
+    }
+
+    /**
+     * @param offset Position of segment in file
+     * @return Stream writing at offset in file recording the range written when closed
+     */
+    public OutputStream getOutputStream(final long offset) throws AccessDeniedException {
+        return new SegmentOutputStream(local.getOutputStream(offset), offset);
+    }
+
+    /**
+     * @param offset Position of segment in file
+     * @return Position up to which the bytes following offset have been written or offset if none
+     */
+    public long written(final long offset) {
+        long position = offset;
+        for(Map.Entry<Long, Long> range : this.read().entrySet()) {
+            if(range.getKey() > position) {
+                break;
+            }
+            position = Math.max(position, range.getValue());
+        }
+        return position;
+    }
+
+    /**
+     * @return Ranges written with start and end position sorted by start and merged if overlapping
+     */
+    public Map<Long, Long> read() {
+        final TreeMap<Long, Long> ranges = new TreeMap<Long, Long>();
+        synchronized(lock) {
+            if(!file.exists()) {
+                return ranges;
+            }
+            InputStream in = null;
+            try {
+                in = file.getInputStream();
+                for(String line : IOUtils.readLines(in, StandardCharsets.UTF_8)) {
+                    final String[] fields = StringUtils.split(line, ' ');
+                    if(fields.length != 2) {
+                        // Incomplete line written before interruption
+                        log.warn(String.format("Skip invalid line %s in %s", line, file));
+                        continue;
+                    }
+                    try {
+                        final long start = Long.parseLong(fields[0]);
+                        final long end = Long.parseLong(fields[1]);
+                        if(end > start) {
+                            ranges.merge(start, end, Math::max);
+                        }
+                    }
+                    catch(NumberFormatException e) {
+                        log.warn(String.format("Skip invalid line %s in %s", line, file));
+                    }
+                }
+            }
+            catch(AccessDeniedException | IOException e) {
+                log.warn(String.format("Failure reading segments from %s. %s", file, e.getMessage()));
+            }
+            finally {
+                IOUtils.closeQuietly(in);
+            }
+        }
+        // Merge overlapping ranges
+        final TreeMap<Long, Long> merged = new TreeMap<Long, Long>();
+        Map.Entry<Long, Long> last = null;
+        for(Map.Entry<Long, Long> range : ranges.entrySet()) {
+            if(last != null && range.getKey() <= last.getValue()) {
+                merged.put(last.getKey(), Math.max(last.getValue(), range.getValue()));
+                last = merged.lastEntry();
+                continue;
+            }
+            merged.put(range.getKey(), range.getValue());
+            last = merged.lastEntry();
+        }
+        return merged;
+    }
+
+    /**
+     * Append range written to file
+     *
+     * @param start Position of first byte written
+     * @param end   Position after last byte written
+     */
+    public void write(final long start, final long end) {
+        if(end <= start) {
+            return;
+        }
+        synchronized(lock) {
+            OutputStream out = null;
+            try {
+                out = file.getOutputStream(true);
+                out.write(String.format("%d %d\n", start, end).getBytes(StandardCharsets.UTF_8));
+            }
+            catch(AccessDeniedException | IOException e) {
+                log.warn(String.format("Failure saving segment %d-%d to %s. %s", start, end, file, e.getMessage()));
+            }
+            finally {
+                IOUtils.closeQuietly(out);
+            }
+        }
+    }
+
+    /**
+     * Create empty journal marking the file as incomplete
+     */
+    public void create() {
+        synchronized(lock) {
+            if(!file.exists()) {
+                OutputStream out = null;
+                try {
+                    out = file.getOutputStream(false);
+                }
+                catch(AccessDeniedException e) {
+                    log.warn(String.format("Failure creating %s. %s", file, e.getMessage()));
+                }
+                finally {
+                    IOUtils.closeQuietly(out);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return True if segments of the file have not all been completed
+     */
+    public boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Remove journal after all segments are complete or when starting over
+     */
+    public void delete() {
+        synchronized(lock) {
+            if(file.exists()) {
+                try {
+                    file.delete();
+                }
+                catch(AccessDeniedException e) {
+                    log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private final class SegmentOutputStream extends ProxyOutputStream {
+        private final long offset;
+        private long written;
+
+        public SegmentOutputStream(final OutputStream proxy, final long offset) {
+            super(proxy);
+            this.offset = offset;
+        }
+
+        @Override
+        protected void afterWrite(final int n) {
+            written += n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(out instanceof ChannelOutputStream && ((ChannelOutputStream) out).getChannel() instanceof FileChannel) {
+                // Make sure data is on disk before recording range
+                ((FileChannel) ((ChannelOutputStream) out).getChannel()).force(false);
+            }
+            super.close();
+            // Bytes written are valid regardless of failure to transfer remaining segment
+            DownloadSegmentJournal.this.write(offset, offset + written);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DownloadSegmentJournal{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
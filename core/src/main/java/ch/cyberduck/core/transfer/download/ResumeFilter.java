@@ -58,7 +58,8 @@ public class ResumeFilter extends AbstractDownloadFilter {
             if(local.exists()) {
                 // Read remote attributes
                 final PathAttributes attributes = attribute.find(file);
-                if(local.attributes().getSize() == attributes.getSize()) {
+                // Segmented download with file allocated to full length but incomplete
+                if(local.attributes().getSize() == attributes.getSize() && !new DownloadSegmentJournal(local).exists()) {
                     if(Checksum.NONE != attributes.getChecksum()) {
                         final ChecksumCompute compute = ChecksumComputeFactory.get(attributes.getChecksum().algorithm);
                         if(compute.compute(local.getInputStream(), parent).equals(attributes.getChecksum())) {
@@ -88,16 +89,21 @@ public class ResumeFilter extends AbstractDownloadFilter {
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
         if(status.isSegmented()) {
-            for(TransferStatus segmentStatus : status.getSegments()) {
-                final Local segmentFile = segmentStatus.getRename().local;
-                if(segmentFile.exists()) {
+            if(local.isFile()) {
+                // Ranges written by previous download
+                final DownloadSegmentJournal journal = new DownloadSegmentJournal(local);
+                for(TransferStatus segmentStatus : status.getSegments()) {
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Determine if part %s can be skipped", segmentStatus));
                     }
-                    if(segmentFile.attributes().getSize() > 0) {
+                    final long written = Math.min(journal.written(segmentStatus.getOffset()) - segmentStatus.getOffset(),
+                            segmentStatus.getLength());
+                    if(written > 0) {
                         segmentStatus.setAppend(true);
-                        segmentStatus.setLength(segmentStatus.getLength() - segmentFile.attributes().getSize());
-                        segmentStatus.setOffset(segmentStatus.getOffset() + segmentFile.attributes().getSize());
+                        segmentStatus.setLength(segmentStatus.getLength() - written);
+                        segmentStatus.setOffset(segmentStatus.getOffset() + written);
+                        // Keep content of file
+                        status.setAppend(true);
                     }
                 }
             }
@@ -28,7 +28,9 @@ import ch.cyberduck.core.vault.registry.*;
 import org.apache.log4j.Logger;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Predicate;
 
 public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements VaultRegistry {
     private static final Logger log = Logger.getLogger(DefaultVaultRegistry.class);
@@ -36,6 +38,16 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
     private final PasswordStore keychain;
     private final PasswordCallback prompt;
 
+    /**
+     * Registered vaults by home directory. Replaced when vaults are added or removed.
+     */
+    private volatile VaultTrie index = new VaultTrie(this);
+
+    /**
+     * Directories listed with no master key file found
+     */
+    private final VaultFinderCache checked = new VaultFinderCache();
+
     public DefaultVaultRegistry(final PasswordCallback prompt) {
         this(PasswordStoreFactory.get(), prompt);
     }
@@ -69,6 +81,52 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
         }
         this.forEach(Vault::close);
         super.clear();
+        this.reindex();
+    }
+
+    @Override
+    public boolean add(final Vault vault) {
+        return this.reindex(super.add(vault));
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends Vault> vaults) {
+        return this.reindex(super.addAll(vaults));
+    }
+
+    @Override
+    public boolean remove(final Object vault) {
+        return this.reindex(super.remove(vault));
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> vaults) {
+        return this.reindex(super.removeAll(vaults));
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> vaults) {
+        return this.reindex(super.retainAll(vaults));
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super Vault> filter) {
+        return this.reindex(super.removeIf(filter));
+    }
+
+    private boolean reindex(final boolean modified) {
+        if(modified) {
+            this.reindex();
+        }
+        return modified;
+    }
+
+    private void reindex() {
+        synchronized(this) {
+            index = new VaultTrie(this);
+            // Look for vaults again
+            checked.clear();
+        }
     }
 
     @Override
@@ -83,13 +141,12 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
      * @return Open or disabled vault
      */
     public Vault find(final Session session, final Path file, final boolean lookup) throws VaultUnlockCancelException {
-        for(Vault vault : this) {
-            if(vault.contains(file)) {
-                if(log.isDebugEnabled()) {
-                    log.debug(String.format("Found vault %s for file %s", vault, file));
-                }
-                return vault;
+        final Vault vault = index.find(file);
+        if(!vault.equals(Vault.DISABLED)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Found vault %s for file %s", vault, file));
             }
+            return vault;
         }
         if(lookup) {
             final LoadingVaultLookupListener listener = new LoadingVaultLookupListener(session, this, prompt);
@@ -119,7 +176,7 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
         }
         if(type == ListService.class) {
             return (T) new VaultRegistryListService(session, (ListService) proxy, this,
-                    new LoadingVaultLookupListener(session, this, prompt), keychain);
+                    new LoadingVaultLookupListener(session, this, prompt), keychain, checked);
         }
         if(type == Find.class) {
             return (T) new VaultRegistryFindFeature(session, (Find) proxy, this,
@@ -129,13 +186,13 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
             return (T) new VaultRegistryBulkFeature(session, (Bulk) proxy, this);
         }
         if(type == Touch.class) {
-            return (T) new VaultRegistryTouchFeature(session, ((Touch) proxy), this);
+            return (T) new VaultRegistryTouchFeature(session, ((Touch) proxy), this, checked);
         }
         if(type == Directory.class) {
             return (T) new VaultRegistryDirectoryFeature(session, (Directory) proxy, this);
         }
         if(type == Upload.class) {
-            return (T) new VaultRegistryUploadFeature(session, (Upload) proxy, this);
+            return (T) new VaultRegistryUploadFeature(session, (Upload) proxy, this, checked);
         }
         if(type == Download.class) {
             return (T) new VaultRegistryDownloadFeature(session, (Download) proxy, this);
@@ -0,0 +1,89 @@
+package ch.cyberduck.core.vault;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.collections4.map.LRUMap;
+
+import java.util.Map;
+
+/**
+ * Directories listed with no master key file found. Entries added for a listing that started before the cache was
+ * cleared are dropped.
+ */
+public class VaultFinderCache {
+
+    private final Map<SimplePathPredicate, Boolean> directories;
+
+    /**
+     * Incremented when cleared
+     */
+    private long generation;
+
+    public VaultFinderCache() {
+        this(PreferencesFactory.get().getInteger("cryptomator.vault.autodetect.cache.size"));
+    }
+
+    public VaultFinderCache(final int size) {
+        this.directories = new LRUMap<SimplePathPredicate, Boolean>(size);
+    }
+
+    /**
+     * @return Token to pass to {@link #add(Path, long)} when the listing is complete
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized boolean contains(final Path directory) {
+        return directories.get(new SimplePathPredicate(directory)) != null;
+    }
+
+    /**
+     * @param directory  Directory listed
+     * @param generation Value of {@link #generation()} before the listing started
+     */
+    public synchronized void add(final Path directory, final long generation) {
+        if(this.generation != generation) {
+            // Cleared while listing
+            return;
+        }
+        directories.put(new SimplePathPredicate(directory), Boolean.TRUE);
+    }
+
+    public synchronized void remove(final Path directory) {
+        directories.remove(new SimplePathPredicate(directory));
+    }
+
+    /**
+     * Remove parent directory if file is a master key
+     *
+     * @param file File created
+     */
+    public void invalidate(final Path file) {
+        if(VaultFinderListProgressListener.MASTERKEY_FILE_NAME.equals(file.getName())) {
+            this.remove(file.getParent());
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        directories.clear();
+    }
+}
@@ -27,16 +27,35 @@ import org.apache.log4j.Logger;
 public class VaultFinderListProgressListener extends IndexedListProgressListener {
     private static final Logger log = Logger.getLogger(VaultFinderListProgressListener.class);
 
-    private static final String MASTERKEY_FILE_NAME = "masterkey.cryptomator";
+    static final String MASTERKEY_FILE_NAME = "masterkey.cryptomator";
 
     private final PasswordStore keychain;
     private final VaultLookupListener listener;
 
+    /**
+     * Master key file seen in listing
+     */
+    private boolean found;
+
     public VaultFinderListProgressListener(final PasswordStore keychain, final VaultLookupListener listener) {
         this.keychain = keychain;
         this.listener = listener;
     }
 
+    @Override
+    public VaultFinderListProgressListener reset() {
+        found = false;
+        super.reset();
+        return this;
+    }
+
+    /**
+     * @return True if master key file has been found in listing including vaults that failed to load
+     */
+    public boolean isFound() {
+        return found;
+    }
+
     @Override
     public void message(final String message) {
         //
@@ -49,6 +68,7 @@ public class VaultFinderListProgressListener extends IndexedListProgressListener
             if(log.isInfoEnabled()) {
                 log.info(String.format("Found master key %s", file));
             }
+            found = true;
             final Vault vault = VaultFactory.get(directory, keychain);
             if(vault.equals(Vault.DISABLED)) {
                 return;
@@ -32,17 +32,40 @@ public class VaultFinderListService implements ListService {
     private final Session<?> session;
     private final ListService delegate;
     private final VaultFinderListProgressListener finder;
+    /**
+     * Directories listed with no master key file found. A master key file created by another client is only
+     * found after the directory is evicted or the cache is cleared.
+     */
+    private final VaultFinderCache checked;
 
     public VaultFinderListService(final Session<?> session, final ListService delegate, final VaultFinderListProgressListener finder) {
+        this(session, delegate, finder, new VaultFinderCache());
+    }
+
+    public VaultFinderListService(final Session<?> session, final ListService delegate, final VaultFinderListProgressListener finder,
+                                  final VaultFinderCache checked) {
         this.session = session;
         this.delegate = delegate;
         this.finder = finder;
+        this.checked = checked;
     }
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final long generation = checked.generation();
         try {
-            return delegate.list(directory, new ProxyListProgressListener(finder.reset(), listener));
+            if(checked.contains(directory)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Skip lookup for vault in %s", directory));
+                }
+                // Removed when a master key file is created with touch or upload
+                return delegate.list(directory, listener);
+            }
+            final AttributedList<Path> list = delegate.list(directory, new ProxyListProgressListener(finder.reset(), listener));
+            if(!finder.isFound()) {
+                checked.add(directory, generation);
+            }
+            return list;
         }
         catch(VaultFoundListCanceledException finder) {
             final Vault cryptomator = finder.getVault();
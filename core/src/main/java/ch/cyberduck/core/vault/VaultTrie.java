@@ -0,0 +1,116 @@
+package ch.cyberduck.core.vault;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Vault;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of vaults by the segments of the absolute path of their home directory. Finding the vault for a file only
+ * visits the vaults with a home on the path of the file. Not modified after construction.
+ */
+public final class VaultTrie {
+
+    private final Node root = new Node();
+
+    /**
+     * Vaults with no home directory tested for every file
+     */
+    private final List<Vault> other = new ArrayList<Vault>();
+
+    public VaultTrie(final Collection<Vault> vaults) {
+        for(Vault vault : vaults) {
+            final Path home = vault.getHome();
+            if(null == home) {
+                other.add(vault);
+                continue;
+            }
+            Node node = root;
+            final String absolute = home.getAbsolute();
+            for(int start = next(absolute, 0); start < absolute.length(); start = next(absolute, start)) {
+                final int end = end(absolute, start);
+                node = node.children.computeIfAbsent(absolute.substring(start, end), segment -> new Node());
+                start = end;
+            }
+            node.vaults.add(vault);
+        }
+    }
+
+    /**
+     * @param file File
+     * @return Vault with home closest to root containing file or disabled vault
+     * @see Vault#DISABLED
+     */
+    public Vault find(final Path file) {
+        Node node = root;
+        final String absolute = file.getAbsolute();
+        int start = 0;
+        while(node != null) {
+            for(Vault vault : node.vaults) {
+                if(vault.contains(file)) {
+                    return vault;
+                }
+            }
+            start = next(absolute, start);
+            if(start == absolute.length()) {
+                break;
+            }
+            final int end = end(absolute, start);
+            node = node.children.get(absolute.substring(start, end));
+            start = end;
+        }
+        for(Vault vault : other) {
+            if(vault.contains(file)) {
+                return vault;
+            }
+        }
+        return Vault.DISABLED;
+    }
+
+    /**
+     * @return Index of first character of next segment or end of path
+     */
+    private static int next(final String absolute, final int offset) {
+        int i = offset;
+        while(i < absolute.length() && absolute.charAt(i) == Path.DELIMITER) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return Index of next delimiter or end of path
+     */
+    private static int end(final String absolute, final int start) {
+        final int end = absolute.indexOf(Path.DELIMITER, start);
+        if(-1 == end) {
+            return absolute.length();
+        }
+        return end;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<String, Node>();
+        private final List<Vault> vaults = new ArrayList<Vault>();
+    }
+}
@@ -20,6 +20,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.features.StreamingDelete;
 import ch.cyberduck.core.features.Vault;
 import ch.cyberduck.core.vault.VaultRegistry;
 
@@ -28,7 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class VaultRegistryDeleteFeature implements Delete {
+public class VaultRegistryDeleteFeature implements StreamingDelete {
 
     private final Session<?> session;
     private final Delete proxy;
@@ -62,6 +63,25 @@ public class VaultRegistryDeleteFeature implements Delete {
         }
     }
 
+    /**
+     * Only for directories not contained in a vault
+     */
+    @Override
+    public boolean isPurgeable(final Path directory) throws BackgroundException {
+        if(!(proxy instanceof StreamingDelete)) {
+            return false;
+        }
+        if(!Vault.DISABLED.equals(registry.find(session, directory))) {
+            return false;
+        }
+        return ((StreamingDelete) proxy).isPurgeable(directory);
+    }
+
+    @Override
+    public void purge(final Path directory, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+        ((StreamingDelete) proxy).purge(directory, prompt, callback);
+    }
+
     @Override
     public boolean isSupported(final Path file) {
         return proxy.isSupported(file);
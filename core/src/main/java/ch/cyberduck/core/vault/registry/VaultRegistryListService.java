@@ -24,6 +24,7 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Vault;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.vault.VaultFinderCache;
 import ch.cyberduck.core.vault.VaultFinderListProgressListener;
 import ch.cyberduck.core.vault.VaultFinderListService;
 import ch.cyberduck.core.vault.VaultLookupListener;
@@ -40,13 +41,16 @@ public class VaultRegistryListService implements ListService {
     private final PasswordStore keychain;
     private final Session<?> session;
     private final ListService proxy;
+    private final VaultFinderCache checked;
 
-    public VaultRegistryListService(final Session<?> session, final ListService proxy, final VaultRegistry registry, final VaultLookupListener lookup, final PasswordStore keychain) {
+    public VaultRegistryListService(final Session<?> session, final ListService proxy, final VaultRegistry registry, final VaultLookupListener lookup, final PasswordStore keychain,
+                                    final VaultFinderCache checked) {
         this.session = session;
         this.proxy = proxy;
         this.registry = registry;
         this.lookup = lookup;
         this.keychain = keychain;
+        this.checked = checked;
     }
 
     @Override
@@ -57,7 +61,7 @@ public class VaultRegistryListService implements ListService {
                 return vault.getFeature(session, ListService.class, proxy).list(directory, listener);
             }
             if(PreferencesFactory.get().getBoolean("cryptomator.vault.autodetect")) {
-                return new VaultFinderListService(session, proxy, new VaultFinderListProgressListener(keychain, lookup)).list(directory, listener);
+                return new VaultFinderListService(session, proxy, new VaultFinderListProgressListener(keychain, lookup), checked).list(directory, listener);
             }
             return proxy.list(directory, listener);
         }
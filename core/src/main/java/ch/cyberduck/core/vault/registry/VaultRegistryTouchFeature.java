@@ -22,6 +22,7 @@ import ch.cyberduck.core.features.Touch;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.DefaultVaultRegistry;
+import ch.cyberduck.core.vault.VaultFinderCache;
 import ch.cyberduck.core.vault.VaultUnlockCancelException;
 
 public class VaultRegistryTouchFeature<R> implements Touch<R> {
@@ -29,16 +30,22 @@ public class VaultRegistryTouchFeature<R> implements Touch<R> {
     private final Session<?> session;
     private final Touch<R> proxy;
     private final DefaultVaultRegistry registry;
+    private final VaultFinderCache checked;
 
-    public VaultRegistryTouchFeature(final Session<?> session, final Touch<R> proxy, final DefaultVaultRegistry registry) {
+    public VaultRegistryTouchFeature(final Session<?> session, final Touch<R> proxy, final DefaultVaultRegistry registry,
+                                     final VaultFinderCache checked) {
         this.session = session;
         this.proxy = proxy;
         this.registry = registry;
+        this.checked = checked;
     }
 
     @Override
     public Path touch(final Path file, final TransferStatus status) throws BackgroundException {
-        return registry.find(session, file).getFeature(session, Touch.class, proxy).touch(file, status);
+        final Path touched = registry.find(session, file).getFeature(session, Touch.class, proxy).touch(file, status);
+        // Look for vault when listing parent again
+        checked.invalidate(file);
+        return touched;
     }
 
     @Override
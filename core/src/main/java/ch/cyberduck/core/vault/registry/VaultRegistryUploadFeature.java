@@ -26,6 +26,7 @@ import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.vault.VaultFinderCache;
 import ch.cyberduck.core.vault.VaultRegistry;
 
 public class VaultRegistryUploadFeature<Output> implements Upload<Output> {
@@ -33,17 +34,23 @@ public class VaultRegistryUploadFeature<Output> implements Upload<Output> {
     private final Session<?> session;
     private final Upload<Output> proxy;
     private final VaultRegistry registry;
+    private final VaultFinderCache checked;
 
-    public VaultRegistryUploadFeature(final Session<?> session, final Upload<Output> proxy, final VaultRegistry registry) {
+    public VaultRegistryUploadFeature(final Session<?> session, final Upload<Output> proxy, final VaultRegistry registry,
+                                      final VaultFinderCache checked) {
         this.session = session;
         this.proxy = proxy;
         this.registry = registry;
+        this.checked = checked;
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public Output upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        return (Output) registry.find(session, file).getFeature(session, Upload.class, proxy).upload(file, local, throttle, listener, status, callback);
+        final Output reply = (Output) registry.find(session, file).getFeature(session, Upload.class, proxy).upload(file, local, throttle, listener, status, callback);
+        // Look for vault when listing parent again
+        checked.invalidate(file);
+        return reply;
     }
 
     @Override
@@ -32,11 +32,15 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.SleepPreventer;
 import ch.cyberduck.core.SleepPreventerFactory;
 import ch.cyberduck.core.TransferItemCache;
+import ch.cyberduck.core.collections.Partition;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
 import ch.cyberduck.core.notification.NotificationServiceFactory;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
 import ch.cyberduck.core.transfer.SynchronizingTransferErrorCallback;
 import ch.cyberduck.core.transfer.Transfer;
@@ -54,9 +58,14 @@ import org.apache.commons.lang3.concurrent.ConcurrentUtils;
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.concurrent.Future;
 
@@ -100,6 +109,16 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
 
     private final StreamListener stream;
 
+    /**
+     * Maximum number of tasks submitted and not completed before preparing more files when pipelining
+     */
+    private final int limit = PreferencesFactory.get().getInteger("queue.pipeline.size");
+
+    /**
+     * Number of files to prepare in one batch when pipelining
+     */
+    private final int batch = PreferencesFactory.get().getInteger("queue.pipeline.batch.size");
+
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
                                   final TransferErrorCallback error,
@@ -169,9 +188,27 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     }
 
     public void await() throws BackgroundException {
+        this.await(0);
+    }
+
+    /**
+     * Wait for submitted tasks to complete
+     *
+     * @param limit Number of tasks that may still be pending when returning
+     */
+    public void await(final int limit) throws BackgroundException {
         // No need to implement for single threaded transfer
     }
 
+    /**
+     * Failure in transfer callable prior retry or prompt
+     *
+     * @param failure Failure preparing or transferring file
+     */
+    protected void failure(final BackgroundException failure) {
+        //
+    }
+
     @Override
     public Boolean run(final Session<?> source, final Session<?> destination) throws BackgroundException {
         final String lock = sleep.lock();
@@ -202,6 +239,14 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             }
             // Reset the cached size of the transfer and progress value
             transfer.reset();
+            if(options.pipeline) {
+                meter.reset();
+                // Transfer files while traversing directories
+                final List<PipelineDirectory> directories = this.pipeline(action);
+                this.await();
+                this.complete(directories, action);
+                return true;
+            }
             // Calculate information about the files in advance to give progress information
             for(TransferItem next : transfer.getRoots()) {
                 this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
@@ -304,6 +349,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         throw e;
                     }
                     catch(BackgroundException e) {
+                        failure(e);
                         if(this.retry(e, progress, new TransferBackgroundActionState(parent))) {
                             // Retry immediately
                             return call();
@@ -349,6 +395,22 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return null;
     }
 
+    /**
+     * @param status  Status of file
+     * @param segment Status of segment or file itself if not segmented
+     * @return Local file to write segment to. Segments are written at their offset to the target of the file which
+     * may have been renamed by the filter after the segments were created.
+     */
+    private static Local local(final TransferItem item, final TransferStatus status, final TransferStatus segment) {
+        if(segment.getRename().local != null) {
+            return segment.getRename().local;
+        }
+        if(segment.isSegment() && status.getRename().local != null) {
+            return status.getRename().local;
+        }
+        return item.local;
+    }
+
     /**
      * @param item   File to transfer
      * @param action Transfer action for existing files
@@ -378,7 +440,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             destination = borrow(Connection.destination);
                             item.remote = transfer.transfer(source, destination,
                                     segment.getRename().remote != null ? segment.getRename().remote : item.remote,
-                                    segment.getRename().local != null ? segment.getRename().local : item.local,
+                                    local(item, status, segment),
                                     options, segment, connectionCallback, passwordCallback, progress, stream);
                             // Recursive
                             if(item.remote.isDirectory()) {
@@ -396,7 +458,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             // Post process of file.
                             filter.complete(
                                     segment.getRename().remote != null ? segment.getRename().remote : item.remote,
-                                    segment.getRename().local != null ? segment.getRename().local : item.local,
+                                    local(item, status, segment),
                                     options, segment, progress);
 
                             if(!iter.hasNext()) {
@@ -409,6 +471,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             throw e;
                         }
                         catch(BackgroundException e) {
+                            failure(e);
                             if(this.retry(e, progress, new TransferBackgroundActionState(status))) {
                                 // Set retry count to make multipart uploads search for existing segments
                                 segment.setRetry(this.getCount());
@@ -507,6 +570,333 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return ConcurrentUtils.constantFuture(null);
     }
 
+    /**
+     * Determine transfer status of files in batches and start their transfer without waiting for the remaining files
+     * of the transfer to be prepared. Files are prepared in the calling thread which waits for submitted tasks to
+     * complete when more than the pipeline limit are pending. Directories are created before their children are
+     * listed.
+     *
+     * @param action Transfer action for existing files
+     * @return Directories created in order of creation
+     */
+    private List<PipelineDirectory> pipeline(final TransferAction action) throws BackgroundException {
+        final List<PipelineDirectory> directories = new ArrayList<>();
+        // Traverse depth first to only keep listings of parent directories
+        final Deque<PipelineTask> stack = new ArrayDeque<>();
+        stack.push(new PipelineBatch(transfer.getRoots(), new TransferStatus().exists(true), action, true));
+        while(!stack.isEmpty()) {
+            if(this.isCanceled()) {
+                throw new ConnectionCanceledException();
+            }
+            stack.pop().run(stack, directories);
+        }
+        return directories;
+    }
+
+    /**
+     * Apply attributes to directories after all their children have been transferred
+     *
+     * @param directories Directories in order of creation
+     * @param action      Transfer action for existing files
+     */
+    private void complete(final List<PipelineDirectory> directories, final TransferAction action) throws BackgroundException {
+        for(ListIterator<PipelineDirectory> iter = directories.listIterator(directories.size()); iter.hasPrevious(); ) {
+            if(this.isCanceled()) {
+                throw new ConnectionCanceledException();
+            }
+            final PipelineDirectory directory = iter.previous();
+            try {
+                this.retry((source, destination, filter) -> {
+                    filter.complete(
+                            directory.status.getRename().remote != null ? directory.status.getRename().remote : directory.remote,
+                            directory.status.getRename().local != null ? directory.status.getRename().local : directory.item.local,
+                            options, directory.status, progress);
+                    return directory.status;
+                }, directory.status, action);
+            }
+            catch(ConnectionCanceledException e) {
+                throw e;
+            }
+            catch(BackgroundException e) {
+                this.prompt(e);
+            }
+            finally {
+                table.remove(directory.item.remote);
+            }
+        }
+    }
+
+    /**
+     * Run step with sessions borrowed from pool and retry on failure
+     *
+     * @param step   Step of preparing or creating a single file
+     * @param parent Transfer status of parent directory
+     * @param action Transfer action for existing files
+     */
+    private <T> T retry(final PipelineStep<T> step, final TransferStatus parent, final TransferAction action) throws BackgroundException {
+        return new DefaultRetryCallable<T>(new BackgroundExceptionCallable<T>() {
+            @Override
+            public T call() throws BackgroundException {
+                Session<?> source = null;
+                Session<?> destination = null;
+                try {
+                    source = borrow(Connection.source);
+                    destination = borrow(Connection.destination);
+                    // Determine transfer filter implementation from selected overwrite action
+                    return step.call(source, destination, transfer.filter(source, destination, action, progress));
+                }
+                catch(ConnectionCanceledException e) {
+                    throw e;
+                }
+                catch(BackgroundException e) {
+                    failure(e);
+                    throw e;
+                }
+                finally {
+                    if(source != null) {
+                        // Return session to pool
+                        release(source, Connection.source);
+                    }
+                    if(destination != null) {
+                        // Return session to pool
+                        release(destination, Connection.destination);
+                    }
+                }
+            }
+        }, progress, new TransferBackgroundActionState(parent)).call();
+    }
+
+    /**
+     * Prompt to continue or abort for application errors
+     */
+    private void prompt(final BackgroundException failure) throws BackgroundException {
+        if(error.prompt(failure)) {
+            // Continue
+            log.warn(String.format("Ignore transfer failure %s", failure));
+        }
+        else {
+            throw new ConnectionCanceledException(failure);
+        }
+    }
+
+    private interface PipelineStep<T> {
+        T call(Session<?> source, Session<?> destination, TransferPathFilter filter) throws BackgroundException;
+    }
+
+    private interface PipelineTask {
+        void run(Deque<PipelineTask> stack, List<PipelineDirectory> directories) throws BackgroundException;
+    }
+
+    private static final class PipelineDirectory {
+        private final TransferItem item;
+        private final TransferStatus status;
+        /**
+         * Directory returned when created
+         */
+        private final Path remote;
+
+        public PipelineDirectory(final TransferItem item, final TransferStatus status, final Path remote) {
+            this.item = item;
+            this.status = status;
+            this.remote = remote;
+        }
+    }
+
+    /**
+     * Determine transfer status of a batch of files and submit their transfer. Each file is prepared and retried
+     * on its own. Directories are created and their listing added to the stack.
+     */
+    private final class PipelineBatch implements PipelineTask {
+        private final List<TransferItem> items;
+        private final TransferStatus parent;
+        private final TransferAction action;
+        /**
+         * Batch with roots of transfer
+         */
+        private final boolean roots;
+
+        public PipelineBatch(final List<TransferItem> items, final TransferStatus parent, final TransferAction action, final boolean roots) {
+            this.items = items;
+            this.parent = parent;
+            this.action = action;
+            this.roots = roots;
+        }
+
+        @Override
+        public void run(final Deque<PipelineTask> stack, final List<PipelineDirectory> directories) throws BackgroundException {
+            if(parent.isCanceled()) {
+                throw new ConnectionCanceledException();
+            }
+            final Map<TransferItem, TransferStatus> prepared = new LinkedHashMap<>();
+            for(TransferItem item : items) {
+                if(isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                if(!prompt.isSelected(item)) {
+                    log.info(String.format("Skip unchecked file %s for transfer %s", item.remote, this));
+                    continue;
+                }
+                final TransferStatus status;
+                try {
+                    status = retry((source, destination, filter) -> {
+                        if(!filter.accept(item.remote, item.local, parent)) {
+                            if(log.isInfoEnabled()) {
+                                log.info(String.format("Skip file %s by filter %s for transfer %s", item.remote, filter, this));
+                            }
+                            return null;
+                        }
+                        progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"),
+                                item.remote.getName(), action.getTitle()));
+                        // Determine transfer status
+                        final TransferStatus s = filter.prepare(item.remote, item.local, parent, progress);
+                        // Apply filter
+                        filter.apply(
+                                s.getRename().remote != null ? s.getRename().remote : item.remote,
+                                s.getRename().local != null ? s.getRename().local : item.local,
+                                s, progress);
+                        return s;
+                    }, parent, action);
+                }
+                catch(ConnectionCanceledException e) {
+                    throw e;
+                }
+                catch(BackgroundException e) {
+                    if(roots && items.size() == 1) {
+                        throw e;
+                    }
+                    prompt(e);
+                    continue;
+                }
+                if(null == status) {
+                    continue;
+                }
+                table.put(item.remote, status);
+                prepared.put(item, status);
+                // Add transfer length to total bytes
+                transfer.addSize(status.getLength() + status.getOffset());
+                // Add skipped bytes
+                transfer.addTransferred(status.getOffset());
+            }
+            if(prepared.isEmpty()) {
+                return;
+            }
+            final Map<Path, TransferStatus> files = new HashMap<>();
+            for(Map.Entry<TransferItem, TransferStatus> entry : prepared.entrySet()) {
+                files.put(entry.getKey().remote, entry.getValue());
+            }
+            try {
+                retry((source, destination, filter) -> {
+                    transfer.pre(source, destination, files, connectionCallback);
+                    return parent;
+                }, parent, action);
+            }
+            catch(ConnectionCanceledException e) {
+                throw e;
+            }
+            catch(BackgroundException e) {
+                for(TransferItem item : prepared.keySet()) {
+                    table.remove(item.remote);
+                }
+                if(roots && items.size() == 1) {
+                    throw e;
+                }
+                prompt(e);
+                return;
+            }
+            final List<PipelineTask> listings = new ArrayList<>();
+            for(Map.Entry<TransferItem, TransferStatus> entry : prepared.entrySet()) {
+                final TransferItem item = entry.getKey();
+                final TransferStatus status = entry.getValue();
+                if(item.remote.isDirectory()) {
+                    final Path directory;
+                    try {
+                        // Create directory before transferring children
+                        directory = retry((source, destination, filter) -> transfer.transfer(source, destination,
+                                status.getRename().remote != null ? status.getRename().remote : item.remote,
+                                status.getRename().local != null ? status.getRename().local : item.local,
+                                options, status, connectionCallback, passwordCallback, progress, stream), parent, action);
+                    }
+                    catch(ConnectionCanceledException e) {
+                        throw e;
+                    }
+                    catch(BackgroundException e) {
+                        table.remove(item.remote);
+                        if(roots && items.size() == 1) {
+                            throw e;
+                        }
+                        prompt(e);
+                        continue;
+                    }
+                    directories.add(new PipelineDirectory(item, status, directory));
+                    listings.add(new PipelineListing(item, status, action));
+                }
+                else {
+                    transfer(item, action);
+                    // Wait for pending transfers before preparing more files
+                    await(limit);
+                }
+            }
+            for(ListIterator<PipelineTask> iter = listings.listIterator(listings.size()); iter.hasPrevious(); ) {
+                stack.push(iter.previous());
+            }
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("PipelineBatch{");
+            sb.append("items=").append(items.size());
+            sb.append(", parent=").append(parent);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    /**
+     * List children of created directory and add them in batches to the stack
+     */
+    private final class PipelineListing implements PipelineTask {
+        private final TransferItem directory;
+        private final TransferStatus status;
+        private final TransferAction action;
+
+        public PipelineListing(final TransferItem directory, final TransferStatus status, final TransferAction action) {
+            this.directory = directory;
+            this.status = status;
+            this.action = action;
+        }
+
+        @Override
+        public void run(final Deque<PipelineTask> stack, final List<PipelineDirectory> directories) throws BackgroundException {
+            final List<TransferItem> children;
+            try {
+                children = retry((source, destination, filter) -> transfer.list(source, destination, directory.remote, directory.local,
+                        new WorkerListProgressListener(AbstractTransferWorker.this, progress)), status, action);
+            }
+            catch(ConnectionCanceledException e) {
+                throw e;
+            }
+            catch(BackgroundException e) {
+                prompt(e);
+                return;
+            }
+            final List<PipelineTask> batches = new ArrayList<>();
+            for(List<TransferItem> partition : new Partition<>(children, batch)) {
+                batches.add(new PipelineBatch(new ArrayList<>(partition), status, action, false));
+            }
+            for(ListIterator<PipelineTask> iter = batches.listIterator(batches.size()); iter.hasPrevious(); ) {
+                stack.push(iter.previous());
+            }
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("PipelineListing{");
+            sb.append("directory=").append(directory);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
     @Override
     public String getActivity() {
         return BookmarkNameProvider.toString(transfer.getSource());
@@ -0,0 +1,315 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.AdaptiveConcurrencyLimit;
+import ch.cyberduck.core.threading.DefaultFailureDiagnostics;
+import ch.cyberduck.core.threading.FailureDiagnostics;
+import ch.cyberduck.core.transfer.TransferSpeedometer;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Additive increase and multiplicative decrease of the number of concurrent transfer connections with an
+ * {@link AdaptiveConcurrencyLimit}. The number of threads in the executor is increased by one when the throughput measured in the last interval improved by more than
+ * the tolerance or after a number of intervals with stable throughput, and halved on network failures or when the server asks to slow down.
+ */
+public class AdaptiveConcurrencyController {
+    private static final Logger log = Logger.getLogger(AdaptiveConcurrencyController.class);
+
+    public enum Decision {
+        /**
+         * Initial number of connections
+         */
+        none,
+        /**
+         * Throughput gained with last increase
+         */
+        increase,
+        /**
+         * Probe with additional connection after stable throughput
+         */
+        probe,
+        /**
+         * Throughput dropped with last increase
+         */
+        decrease,
+        /**
+         * Latency obtaining connections increased
+         */
+        latency,
+        /**
+         * Network failure or throttled by server
+         */
+        backoff,
+        /**
+         * Keep number of connections
+         */
+        hold
+    }
+
+    private final FailureDiagnostics<BackgroundException> diagnostics
+            = new DefaultFailureDiagnostics();
+
+    private final ThreadPoolExecutor executor;
+    private final TransferSpeedometer meter;
+
+    /**
+     * Number of threads in executor
+     */
+    private final AdaptiveConcurrencyLimit concurrency;
+    /**
+     * Milliseconds between decisions
+     */
+    private final long interval;
+    /**
+     * Tolerated drop in throughput before decreasing
+     */
+    private final double tolerance;
+    /**
+     * Factor of baseline latency obtaining connections before decreasing
+     */
+    private final double threshold;
+    /**
+     * Number of intervals held before probing with additional connection
+     */
+    private final int probe;
+
+    private volatile Decision decision = Decision.none;
+    /**
+     * Throughput in bytes per millisecond measured in last interval
+     */
+    private volatile double throughput;
+    /**
+     * Average latency in milliseconds obtaining connections in last interval
+     */
+    private volatile double latency;
+    /**
+     * Lowest average latency observed
+     */
+    private double baseline = Double.MAX_VALUE;
+    private long timestamp = System.currentTimeMillis();
+    /**
+     * Consecutive intervals held
+     */
+    private int stable;
+
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong elapsed = new AtomicLong();
+
+    private final AtomicLong increases = new AtomicLong();
+    private final AtomicLong decreases = new AtomicLong();
+
+    public AdaptiveConcurrencyController(final ThreadPoolExecutor executor, final TransferSpeedometer meter) {
+        this(executor, meter, PreferencesFactory.get());
+    }
+
+    public AdaptiveConcurrencyController(final ThreadPoolExecutor executor, final TransferSpeedometer meter, final Preferences preferences) {
+        this(executor, meter,
+                preferences.getInteger("queue.connections.adaptive.min"),
+                preferences.getInteger("queue.connections.adaptive.max"),
+                preferences.getLong("queue.connections.adaptive.interval"),
+                preferences.getDouble("queue.connections.adaptive.tolerance"),
+                preferences.getDouble("queue.connections.adaptive.latency.threshold"),
+                preferences.getInteger("queue.connections.adaptive.probe"));
+    }
+
+    public AdaptiveConcurrencyController(final ThreadPoolExecutor executor, final TransferSpeedometer meter,
+                                         final int minimum, final int maximum, final long interval,
+                                         final double tolerance, final double threshold, final int probe) {
+        this.executor = executor;
+        this.meter = meter;
+        this.concurrency = new AdaptiveConcurrencyLimit(minimum, maximum, executor.getMaximumPoolSize());
+        this.interval = interval;
+        this.tolerance = tolerance;
+        this.threshold = threshold;
+        this.probe = Math.max(1, probe);
+        this.resize(concurrency.getLimit());
+    }
+
+    /**
+     * @param millis Time waited to obtain connection
+     */
+    public void borrow(final long millis) {
+        samples.incrementAndGet();
+        elapsed.addAndGet(millis);
+        this.decide(System.currentTimeMillis());
+    }
+
+    /**
+     * Task completed
+     */
+    public void success() {
+        this.decide(System.currentTimeMillis());
+    }
+
+    /**
+     * @param failure Failure in transfer callable or obtaining connection
+     */
+    public void failure(final BackgroundException failure) {
+        if(failure instanceof ConnectionCanceledException) {
+            return;
+        }
+        if(failure instanceof RetriableAccessDeniedException
+                || diagnostics.determine(failure) == FailureDiagnostics.Type.network) {
+            failures.incrementAndGet();
+            this.decide(System.currentTimeMillis());
+        }
+    }
+
+    protected synchronized void decide(final long time) {
+        final boolean failed = failures.get() > 0;
+        if(!failed && time - timestamp < interval) {
+            return;
+        }
+        if(failed && decision == Decision.backoff && time - timestamp < interval) {
+            // Back off at most once per interval
+            failures.set(0);
+            return;
+        }
+        final double current = meter.getThroughput();
+        final long count = samples.getAndSet(0);
+        final long millis = elapsed.getAndSet(0);
+        final int previous = concurrency.getLimit();
+        if(count > 0) {
+            latency = (double) millis / count;
+            baseline = Math.min(baseline, Math.max(1d, latency));
+        }
+        final int next;
+        if(failures.getAndSet(0) > 0) {
+            next = concurrency.decrease();
+            decision = Decision.backoff;
+        }
+        else if(count > 0 && latency > baseline * threshold) {
+            next = concurrency.decrement();
+            decision = Decision.latency;
+        }
+        else if((decision == Decision.increase || decision == Decision.probe) && current < throughput * (1 - tolerance)) {
+            // Revert last increase
+            next = concurrency.decrement();
+            decision = Decision.decrease;
+        }
+        else if(previous < concurrency.getMaximum() && current > 0 && current > throughput * (1 + tolerance)) {
+            // Probe with additional connection only after measured gain in throughput
+            next = concurrency.increase();
+            decision = Decision.increase;
+        }
+        else if(previous < concurrency.getMaximum() && stable + 1 >= probe) {
+            // Recover from decrease when throughput is stable
+            next = concurrency.increase();
+            decision = Decision.probe;
+        }
+        else {
+            next = previous;
+            decision = Decision.hold;
+        }
+        if(decision == Decision.hold) {
+            stable++;
+        }
+        else {
+            stable = 0;
+        }
+        throughput = current;
+        timestamp = time;
+        if(next > previous) {
+            increases.incrementAndGet();
+        }
+        else if(next < previous) {
+            decreases.incrementAndGet();
+        }
+        if(next != previous) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Change concurrency from %d to %d with decision %s for throughput %.1f bytes/ms and latency %.1fms",
+                        previous, next, decision, current, latency));
+            }
+            this.resize(next);
+        }
+    }
+
+    private void resize(final int size) {
+        if(size > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        }
+        else {
+            // Excess threads terminate when their current task is complete
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        }
+    }
+
+    /**
+     * @return Current number of concurrent connections
+     */
+    public int getConcurrency() {
+        return concurrency.getLimit();
+    }
+
+    /**
+     * @return Last decision
+     */
+    public Decision getDecision() {
+        return decision;
+    }
+
+    /**
+     * @return Bytes per millisecond measured in last interval
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * @return Average milliseconds to obtain connection in last interval
+     */
+    public double getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return Number of decisions to add connections
+     */
+    public long getIncreases() {
+        return increases.get();
+    }
+
+    /**
+     * @return Number of decisions to remove connections
+     */
+    public long getDecreases() {
+        return decreases.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdaptiveConcurrencyController{");
+        sb.append("concurrency=").append(concurrency.getLimit());
+        sb.append(", decision=").append(decision);
+        sb.append(", throughput=").append(throughput);
+        sb.append(", latency=").append(latency);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -27,6 +27,7 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.threading.ThreadPool;
@@ -44,6 +45,7 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class ConcurrentTransferWorker extends AbstractTransferWorker {
@@ -56,6 +58,11 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     // Keep number of submited tasks
     private final AtomicInteger size = new AtomicInteger();
 
+    /**
+     * Adjust number of threads in pool. Null if disabled
+     */
+    private final AdaptiveConcurrencyController controller;
+
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
                                     final Transfer transfer,
@@ -70,14 +77,51 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         super(transfer, options, prompt, meter, error, progressListener, streamListener, connectionCallback, passwordCallback);
         this.source = source;
         this.destination = destination;
-        final ThreadPool pool = ThreadPoolFactory.get("transfer",
-                transfer.getSource().getTransferType() == Host.TransferType.newconnection ?
-                        1 : PreferencesFactory.get().getInteger("queue.connections.limit"));
+        final Preferences preferences = PreferencesFactory.get();
+        final ThreadPool pool;
+        if(transfer.getSource().getTransferType() == Host.TransferType.newconnection) {
+            pool = ThreadPoolFactory.get("transfer", 1);
+            this.controller = null;
+        }
+        else {
+            pool = ThreadPoolFactory.get("transfer", preferences.getInteger("queue.connections.limit"));
+            if(preferences.getBoolean("queue.connections.adaptive.enable")) {
+                if(pool.executor() instanceof ThreadPoolExecutor) {
+                    this.controller = new AdaptiveConcurrencyController((ThreadPoolExecutor) pool.executor(), new TransferSpeedometer(transfer));
+                }
+                else {
+                    // Requires thread pool that can be resized
+                    log.warn(String.format("Disable adaptive number of connections for thread pool %s", pool));
+                    this.controller = null;
+                }
+            }
+            else {
+                this.controller = null;
+            }
+        }
         this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
     }
 
     @Override
     protected Session<?> borrow(final Connection type) throws BackgroundException {
+        if(null == controller) {
+            return this.borrowSession(type);
+        }
+        final long timestamp = System.currentTimeMillis();
+        try {
+            final Session<?> session = this.borrowSession(type);
+            if(null != session) {
+                controller.borrow(System.currentTimeMillis() - timestamp);
+            }
+            return session;
+        }
+        catch(BackgroundException e) {
+            controller.failure(e);
+            throw e;
+        }
+    }
+
+    private Session<?> borrowSession(final Connection type) throws BackgroundException {
         switch(type) {
             case source:
                 return source.borrow(new BackgroundActionState() {
@@ -119,6 +163,20 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         }
     }
 
+    @Override
+    protected void failure(final BackgroundException failure) {
+        if(null != controller) {
+            controller.failure(failure);
+        }
+    }
+
+    /**
+     * @return Null if number of connections is not adjusted while transferring
+     */
+    public AdaptiveConcurrencyController getController() {
+        return controller;
+    }
+
     @Override
     public Future<TransferStatus> submit(final TransferCallable callable) throws BackgroundException {
         if(log.isInfoEnabled()) {
@@ -130,8 +188,8 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     }
 
     @Override
-    public void await() throws BackgroundException {
-        while(size.get() > 0) {
+    public void await(final int limit) throws BackgroundException {
+        while(size.get() > limit) {
             // Repeat until no new entries in queue found
             if(log.isInfoEnabled()) {
                 log.info(String.format("Await completion for %d submitted tasks in queue", size.get()));
@@ -144,6 +202,9 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Finished task with return value %s", status));
                 }
+                if(null != controller) {
+                    controller.success();
+                }
             }
             catch(InterruptedException e) {
                 // Errors are handled in transfer worker error callback already
@@ -153,6 +214,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
 
             catch(ExecutionException e) {
                 if(e.getCause() instanceof BackgroundException) {
+                    this.failure((BackgroundException) e.getCause());
                     throw (BackgroundException) e.getCause();
                 }
                 throw new DefaultExceptionMappingService().map(e.getCause());
@@ -169,6 +231,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         sb.append("source=").append(source);
         sb.append(", destination=").append(destination);
         sb.append(", pool=").append(completion);
+        sb.append(", controller=").append(controller);
         sb.append('}');
         return sb.toString();
     }
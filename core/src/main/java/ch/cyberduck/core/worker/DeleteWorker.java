@@ -32,6 +32,7 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.features.StreamingDelete;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -68,6 +69,14 @@ public class DeleteWorker extends Worker<List<Path>> {
     public List<Path> run(final Session<?> session) throws BackgroundException {
         final Delete delete = session.getFeature(Delete.class);
         final ListService list = session.getFeature(ListService.class);
+        final Delete.Callback callback = new Delete.Callback() {
+            @Override
+            public void delete(final Path file) {
+                listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
+                    file.getName()));
+            }
+        };
+        final List<Path> deleted = new ArrayList<Path>();
         final List<Path> recursive = new ArrayList<Path>();
         for(Path file : files) {
             if(this.isCanceled()) {
@@ -76,16 +85,41 @@ public class DeleteWorker extends Worker<List<Path>> {
             if(!delete.isSupported(file)) {
                 throw new UnsupportedException();
             }
+            if(this.isStreaming(delete, file)) {
+                // Delete contents while listing
+                ((StreamingDelete) delete).purge(file, prompt, new Delete.Callback() {
+                    @Override
+                    public void delete(final Path file) {
+                        callback.delete(file);
+                        deleted.add(file);
+                    }
+                });
+                continue;
+            }
             recursive.addAll(this.compile(delete, list, new WorkerListProgressListener(this, listener), file));
         }
-        delete.delete(recursive, prompt, new Delete.Callback() {
-            @Override
-            public void delete(final Path file) {
-                listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
-                    file.getName()));
-            }
-        });
-        return recursive;
+        if(!recursive.isEmpty()) {
+            delete.delete(recursive, prompt, callback);
+        }
+        deleted.addAll(recursive);
+        return deleted;
+    }
+
+    /**
+     * @return True if directory can be deleted without compiling the recursive list of files first
+     */
+    protected boolean isStreaming(final Delete delete, final Path file) throws BackgroundException {
+        if(!(delete instanceof StreamingDelete)) {
+            return false;
+        }
+        if(!(filter instanceof NullFilter)) {
+            // Must skip files not matching filter
+            return false;
+        }
+        if(!file.isDirectory() || file.isSymbolicLink()) {
+            return false;
+        }
+        return ((StreamingDelete) delete).isPurgeable(file);
     }
 
     protected Set<Path> compile(final Delete delete, final ListService list, final ListProgressListener listener, final Path file) throws BackgroundException {
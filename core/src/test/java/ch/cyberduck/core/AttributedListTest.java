@@ -2,8 +2,11 @@ package ch.cyberduck.core;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
@@ -75,4 +78,107 @@ public class AttributedListTest {
         list.filter(new NullFilter<>());
         assertNotNull(list.find(new SimplePathPredicate(a)));
     }
+
+    @Test
+    public void testIndex() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        for(int i = 0; i < 10000; i++) {
+            assertTrue(list.add(new Path(String.format("/f%d", i), EnumSet.of(Path.Type.file))));
+        }
+        final Path f = new Path("/f5000", EnumSet.of(Path.Type.file));
+        assertEquals(5000, list.indexOf(f));
+        assertTrue(list.contains(f));
+        assertSame(list.get(5000), list.get(f));
+        assertFalse(list.contains(new Path("/f5000", EnumSet.of(Path.Type.directory))));
+        // Index updated with append
+        final Path n = new Path("/n", EnumSet.of(Path.Type.file));
+        list.add(n);
+        assertEquals(10000, list.indexOf(n));
+        assertTrue(list.remove(f));
+        assertEquals(-1, list.indexOf(f));
+        assertEquals(9999, list.indexOf(n));
+        assertEquals(10000, list.size());
+    }
+
+    @Test
+    public void testIteratorSnapshot() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        list.add(a);
+        final Iterator<Path> iterator = list.iterator();
+        final List<Path> view = list.toList();
+        list.add(b);
+        list.remove(a);
+        assertTrue(iterator.hasNext());
+        assertEquals(a, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(Collections.singletonList(a), view);
+        assertEquals(Collections.singletonList(b), list.toList());
+    }
+
+    @Test
+    public void testFreeze() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        list.add(b);
+        list.add(a);
+        assertSame(list, list.freeze());
+        assertEquals(1, list.indexOf(a));
+        list.filter(new NullComparator<Path>() {
+            @Override
+            public int compare(final Path o1, final Path o2) {
+                return o1.getName().compareTo(o2.getName());
+            }
+        });
+        assertEquals(Arrays.asList(a, b), list.toList());
+        assertEquals(0, list.indexOf(a));
+        assertEquals(1, list.indexOf(b));
+    }
+
+    @Test
+    public void testIndexModifiedElement() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+        list.add(new Path("/b", EnumSet.of(Path.Type.file)));
+        list.add(a);
+        list.freeze();
+        assertEquals(1, list.indexOf(new Path("/a", EnumSet.of(Path.Type.file, Path.Type.symboliclink))));
+        // Resolve symbolic link target after listing
+        a.setType(EnumSet.of(Path.Type.directory, Path.Type.symboliclink));
+        assertEquals(1, list.indexOf(new Path("/a", EnumSet.of(Path.Type.directory, Path.Type.symboliclink))));
+        assertEquals(-1, list.indexOf(new Path("/a", EnumSet.of(Path.Type.file, Path.Type.symboliclink))));
+        a.attributes().setVersionId("1");
+        assertSame(a, list.get(new Path("/a", EnumSet.of(Path.Type.directory, Path.Type.symboliclink))));
+    }
+
+    @Test
+    public void testIndexVersions() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        for(int i = 0; i < 3; i++) {
+            final Path f = new Path("/f", EnumSet.of(Path.Type.file));
+            f.attributes().setVersionId(String.valueOf(i));
+            list.add(f);
+        }
+        list.freeze();
+        for(int i = 0; i < 3; i++) {
+            final Path f = new Path("/f", EnumSet.of(Path.Type.file));
+            f.attributes().setVersionId(String.valueOf(i));
+            assertEquals(i, list.indexOf(f));
+        }
+    }
+
+    @Test
+    public void testIndexSet() throws Exception {
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        list.add(a);
+        list.freeze();
+        assertEquals(0, list.indexOf(a));
+        list.set(0, b);
+        assertEquals(-1, list.indexOf(a));
+        assertEquals(0, list.indexOf(b));
+    }
 }
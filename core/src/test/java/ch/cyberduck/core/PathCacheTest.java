@@ -3,6 +3,7 @@ package ch.cyberduck.core;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 
 import static org.junit.Assert.*;
@@ -85,4 +86,92 @@ public class PathCacheTest {
         assertFalse(cache.isHidden(new Path(parent, "a", EnumSet.of(Path.Type.file))));
         assertTrue(cache.isHidden(new Path(parent, "b", EnumSet.of(Path.Type.file))));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEvictByEntryCount() throws Exception {
+        final PathCache cache = new PathCache(3);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        cache.put(a, new AttributedList<Path>(Arrays.asList(
+                new Path(a, "1", EnumSet.of(Path.Type.file)), new Path(a, "2", EnumSet.of(Path.Type.file)))));
+        assertEquals(2L, cache.getCount());
+        cache.put(b, new AttributedList<Path>(Arrays.asList(
+                new Path(b, "1", EnumSet.of(Path.Type.file)), new Path(b, "2", EnumSet.of(Path.Type.file)))));
+        assertFalse(cache.isCached(a));
+        assertTrue(cache.isCached(b));
+        assertEquals(2L, cache.getCount());
+        assertEquals(1L, cache.getEvictions());
+        assertNull(cache.lookup(new DefaultPathPredicate(new Path(a, "1", EnumSet.of(Path.Type.file)))));
+        assertNotNull(cache.lookup(new DefaultPathPredicate(new Path(b, "1", EnumSet.of(Path.Type.file)))));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        final PathCache cache = new PathCache(2);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path("/c", EnumSet.of(Path.Type.directory));
+        cache.put(a, new AttributedList<Path>());
+        cache.put(b, new AttributedList<Path>());
+        cache.get(a);
+        cache.put(c, new AttributedList<Path>());
+        assertTrue(cache.isCached(a));
+        assertFalse(cache.isCached(b));
+        assertTrue(cache.isCached(c));
+    }
+
+    @Test
+    public void testEvictManyListings() throws Exception {
+        final PathCache cache = new PathCache(100);
+        final Path recent = new Path("/recent", EnumSet.of(Path.Type.directory));
+        cache.put(recent, new AttributedList<Path>());
+        for(int i = 0; i < 10000; i++) {
+            cache.put(new Path(String.format("/%d", i), EnumSet.of(Path.Type.directory)), new AttributedList<Path>());
+            cache.get(recent);
+        }
+        assertEquals(100L, cache.getCount());
+        assertEquals(9901L, cache.getEvictions());
+        assertTrue(cache.isCached(recent));
+        assertTrue(cache.isCached(new Path("/9999", EnumSet.of(Path.Type.directory))));
+        assertFalse(cache.isCached(new Path("/0", EnumSet.of(Path.Type.directory))));
+    }
+
+    @Test
+    public void testRetainListingLargerThanLimit() throws Exception {
+        final PathCache cache = new PathCache(1);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        cache.put(a, new AttributedList<Path>(Arrays.asList(
+                new Path(a, "1", EnumSet.of(Path.Type.file)), new Path(a, "2", EnumSet.of(Path.Type.file)))));
+        assertTrue(cache.isCached(a));
+        assertEquals(0L, cache.getEvictions());
+    }
+
+    @Test
+    public void testReplaceListing() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path f1 = new Path(a, "1", EnumSet.of(Path.Type.file));
+        final Path f2 = new Path(a, "2", EnumSet.of(Path.Type.file));
+        cache.put(a, new AttributedList<Path>(Arrays.asList(f1, f2)));
+        cache.put(a, new AttributedList<Path>(Collections.singletonList(f2)));
+        assertEquals(1L, cache.getCount());
+        assertNull(cache.lookup(new DefaultPathPredicate(f1)));
+        assertSame(f2, cache.lookup(new DefaultPathPredicate(f2)));
+        cache.remove(a);
+        assertEquals(0L, cache.getCount());
+        assertNull(cache.lookup(new DefaultPathPredicate(f2)));
+    }
+
+    @Test
+    public void testHitsMisses() throws Exception {
+        final PathCache cache = new PathCache(10);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        cache.get(a);
+        assertEquals(0L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+        cache.put(a, new AttributedList<Path>());
+        cache.get(a);
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+    }
+}
@@ -0,0 +1,104 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.io.Checksum;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class PersistentPathCacheTest {
+
+    @Test
+    public void testLoad() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        directory.attributes().setModificationDate(1000L);
+        final AttributedList<Path> list = new AttributedList<Path>();
+        final Path file = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(3L);
+        file.attributes().setModificationDate(2000L);
+        file.attributes().setETag("e");
+        file.attributes().setPermission(new Permission("644"));
+        file.attributes().setChecksum(Checksum.parse("d41d8cd98f00b204e9800998ecf8427e"));
+        list.add(file);
+        final Path link = new Path(directory, "l", EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+        link.setSymlinkTarget(new Path("/t", EnumSet.of(Path.Type.file)));
+        list.add(link);
+        new PersistentPathCache(folder, 100, 60000L).put(directory, list);
+        final PersistentPathCache cache = new PersistentPathCache(folder, 100, 60000L);
+        assertTrue(cache.isCached(directory));
+        assertTrue(cache.isValid(directory));
+        final AttributedList<Path> loaded = cache.get(directory);
+        assertEquals(2, loaded.size());
+        final Path f = loaded.get(file);
+        assertNotNull(f);
+        assertEquals(3L, f.attributes().getSize());
+        assertEquals(2000L, f.attributes().getModificationDate());
+        assertEquals("e", f.attributes().getETag());
+        assertEquals(new Permission("644"), f.attributes().getPermission());
+        assertEquals(Checksum.parse("d41d8cd98f00b204e9800998ecf8427e"), f.attributes().getChecksum());
+        final Path l = loaded.get(link);
+        assertNotNull(l);
+        assertTrue(l.isSymbolicLink());
+        assertEquals("/t", l.getSymlinkTarget().getAbsolute());
+        cache.clear();
+        assertFalse(new PersistentPathCache(folder, 100, 60000L).isCached(directory));
+        folder.delete();
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        new PersistentPathCache(folder, 100, -1L).put(directory, new AttributedList<Path>());
+        assertFalse(new PersistentPathCache(folder, 100, -1L).isCached(directory));
+        assertTrue(new PersistentPathCache(folder, 100, 60000L).isCached(directory));
+        new PersistentPathCache(folder, 100, 60000L).clear();
+        folder.delete();
+    }
+
+    @Test
+    public void testModified() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        directory.attributes().setModificationDate(1000L);
+        new PersistentPathCache(folder, 100, 60000L).put(directory, new AttributedList<Path>());
+        final Path modified = new Path("/d", EnumSet.of(Path.Type.directory));
+        modified.attributes().setModificationDate(2000L);
+        assertFalse(new PersistentPathCache(folder, 100, 60000L).isCached(modified));
+        // Unknown modification date
+        assertTrue(new PersistentPathCache(folder, 100, 60000L).isCached(new Path("/d", EnumSet.of(Path.Type.directory))));
+        new PersistentPathCache(folder, 100, 60000L).clear();
+        folder.delete();
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final PersistentPathCache cache = new PersistentPathCache(folder, 100, 60000L);
+        cache.put(directory, new AttributedList<Path>());
+        cache.invalidate(directory);
+        assertFalse(cache.isValid(directory));
+        assertFalse(new PersistentPathCache(folder, 100, 60000L).isCached(directory));
+        folder.delete();
+    }
+}
@@ -0,0 +1,81 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.features.Find;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.threading.CancelCallback;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SessionTest {
+
+    @Test
+    public void testGetFeatureCached() throws Exception {
+        final Session<?> session = new Session<Void>(new Host(new TestProtocol())) {
+            @Override
+            protected Void connect(final HostKeyCallback key) {
+                return null;
+            }
+
+            @Override
+            public void login(final HostPasswordStore keychain, final LoginCallback prompt, final CancelCallback cancel) {
+                //
+            }
+
+            @Override
+            protected void logout() {
+                //
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path directory, final ListProgressListener listener) {
+                return AttributedList.emptyList();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Read.class) {
+                    return (T) new NullReadFeature();
+                }
+                return super._getFeature(type);
+            }
+        };
+        // Not cached before connection is opened
+        assertNotSame(session.getFeature(Read.class), session.getFeature(Read.class));
+        session.open(new DisabledHostKeyCallback());
+        final Read read = session.getFeature(Read.class);
+        assertSame(read, session.getFeature(Read.class));
+        assertNull(session.getFeature(Delete.class));
+        assertNull(session.getFeature(Delete.class));
+        assertSame(session.getFeature(Upload.class), session.getFeature(Upload.class));
+        // Configured with cache by caller
+        assertNotSame(session.getFeature(Find.class), session.getFeature(Find.class));
+        session.withRegistry(new DefaultVaultRegistry(new DisabledPasswordCallback()));
+        assertNotSame(read, session.getFeature(Read.class));
+        final Read reopened = session.getFeature(Read.class);
+        session.close();
+        session.open(new DisabledHostKeyCallback());
+        assertNotSame(reopened, session.getFeature(Read.class));
+    }
+}
@@ -41,4 +41,13 @@ public class RegexLocaleTest {
         locale.setDefault("fr");
         assertEquals("Éditer un signet", locale.localize("Edit Bookmark", "Bookmark"));
     }
+
+    @Test
+    public void testLocalizeMissing() throws Exception {
+        final RegexLocale locale = new RegexLocale(new Local(new WorkdirPrefixer().normalize("../i18n/src/main/resources")));
+        locale.setDefault("fr");
+        assertEquals("f2d6e1a0-missing", locale.localize("f2d6e1a0-missing", "Status"));
+        assertEquals("Échec du téléchargement", locale.localize("Download failed", "Status"));
+        assertEquals("Download failed", locale.localize("Download failed", "f2d6e1a0-missing"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testSizeClass() {
+        final BufferPool pool = new BufferPool(Long.MAX_VALUE);
+        assertEquals(4096, pool.acquire(1).length);
+        assertEquals(4096, pool.acquire(4096).length);
+        assertEquals(8192, pool.acquire(4097).length);
+        assertEquals(32768, pool.acquire(32768).length);
+        assertEquals(16777217, pool.acquire(16777217).length);
+        assertEquals(5L, pool.getAllocations());
+    }
+
+    @Test
+    public void testReuse() {
+        final BufferPool pool = new BufferPool(Long.MAX_VALUE);
+        final byte[] buffer = pool.acquire(32768);
+        pool.release(buffer);
+        assertEquals(32768L, pool.getPooled());
+        assertEquals(1, pool.getAvailable());
+        assertSame(buffer, pool.acquire(20000));
+        assertNotSame(buffer, pool.acquire(20000));
+        assertEquals(0L, pool.getPooled());
+        assertEquals(3L, pool.getAcquisitions());
+        assertEquals(2L, pool.getAllocations());
+        assertEquals(65536L, pool.getAllocated());
+    }
+
+    @Test
+    public void testDiscard() {
+        final BufferPool pool = new BufferPool(40000L);
+        // Not a size class
+        pool.release(new byte[5000]);
+        final byte[] first = pool.acquire(32768);
+        final byte[] second = pool.acquire(32768);
+        pool.release(first);
+        // Exceeds limit
+        pool.release(second);
+        assertEquals(32768L, pool.getPooled());
+        assertEquals(3L, pool.getReleases());
+        assertEquals(2L, pool.getDiscarded());
+        pool.clear();
+        assertEquals(0L, pool.getPooled());
+        assertEquals(0, pool.getAvailable());
+    }
+}
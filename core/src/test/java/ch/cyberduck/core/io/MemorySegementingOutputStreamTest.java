@@ -60,4 +60,17 @@ public class MemorySegementingOutputStreamTest {
         out.close();
         assertArrayEquals(content, proxy.toByteArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCopyMultipleSegments() throws Exception {
+        final ByteArrayOutputStream proxy = new ByteArrayOutputStream(100000);
+        final MemorySegementingOutputStream out = new MemorySegementingOutputStream(proxy, 32768);
+        final byte[] content = RandomUtils.nextBytes(100000);
+        out.write(content, 0, 1);
+        out.write(content, 1, 70000);
+        assertEquals(65536, proxy.toByteArray().length);
+        out.write(content, 70001, 29999);
+        out.close();
+        assertArrayEquals(content, proxy.toByteArray());
+    }
+}
@@ -11,7 +11,16 @@ import org.apache.commons.text.RandomStringGenerator;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -168,4 +177,148 @@ public class StreamCopierTest {
         assertTrue(status.isCanceled());
         assertEquals(32768L, status.getOffset());
     }
+
+    @Test
+    public void testTransferFileChannel() throws Exception {
+        final byte[] content = new RandomStringGenerator.Builder().build().generate(432768).getBytes();
+        final File source = File.createTempFile(UUID.randomUUID().toString(), null);
+        final File target = File.createTempFile(UUID.randomUUID().toString(), null);
+        try {
+            Files.write(source.toPath(), content);
+            final TransferStatus status = new TransferStatus();
+            final AtomicBoolean write = new AtomicBoolean();
+            new StreamCopier(status, status).withChannelsize(100000L).withListener(new DisabledStreamListener() {
+                @Override
+                public void sent(final long bytes) {
+                    assertTrue(bytes <= 100000L);
+                }
+            }).transfer(new LocalRepeatableFileInputStream(source), new FileOutputStream(target) {
+                @Override
+                public void write(final byte[] b, final int off, final int len) {
+                    write.set(true);
+                }
+            });
+            // Subclass not unwrapped
+            assertTrue(write.get());
+            final TransferStatus channel = new TransferStatus();
+            new StreamCopier(channel, channel).withChannelsize(100000L).transfer(new LocalRepeatableFileInputStream(source),
+                    new ThrottledOutputStream(new VoidStatusOutputStream(new FileOutputStream(target)), new BandwidthThrottle(BandwidthThrottle.UNLIMITED)));
+            assertTrue(channel.isComplete());
+            assertEquals(content.length, channel.getOffset());
+            assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        }
+        finally {
+            source.delete();
+            target.delete();
+        }
+    }
+
+    @Test
+    public void testTransferFileChannelOffsetLimit() throws Exception {
+        final byte[] content = new RandomStringGenerator.Builder().build().generate(432768).getBytes();
+        final File source = File.createTempFile(UUID.randomUUID().toString(), null);
+        final File target = File.createTempFile(UUID.randomUUID().toString(), null);
+        try {
+            Files.write(source.toPath(), content);
+            final TransferStatus status = new TransferStatus();
+            new StreamCopier(status, status).withOffset(1000L).withLimit(200000L).withChannelsize(32768L).transfer(
+                    new ThrottledInputStream(new FileChannelInputStream(FileChannel.open(source.toPath(), StandardOpenOption.READ)), new BandwidthThrottle(BandwidthThrottle.UNLIMITED)),
+                    new ChannelOutputStream(FileChannel.open(target.toPath(), StandardOpenOption.WRITE)));
+            assertTrue(status.isComplete());
+            assertEquals(200000L, status.getOffset());
+            assertArrayEquals(Arrays.copyOfRange(content, 1000, 201000), Files.readAllBytes(target.toPath()));
+        }
+        finally {
+            source.delete();
+            target.delete();
+        }
+    }
+
+    @Test
+    public void testTransferFileChannelNoProgress() throws Exception {
+        final byte[] content = new RandomStringGenerator.Builder().build().generate(39865).getBytes();
+        final File source = File.createTempFile(UUID.randomUUID().toString(), null);
+        try {
+            Files.write(source.toPath(), content);
+            final TransferStatus status = new TransferStatus();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final AtomicBoolean accept = new AtomicBoolean();
+            // Channel accepting no bytes on every other write
+            final WritableByteChannel target = new WritableByteChannel() {
+                @Override
+                public int write(final ByteBuffer src) {
+                    if(!accept.getAndSet(!accept.get())) {
+                        return 0;
+                    }
+                    final int len = src.remaining();
+                    final byte[] b = new byte[len];
+                    src.get(b);
+                    out.write(b, 0, len);
+                    return len;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            new StreamCopier(status, status).withChannelsize(1000L).transfer(new LocalRepeatableFileInputStream(source), new ChannelOutputStream(target));
+            assertTrue(status.isComplete());
+            assertEquals(content.length, status.getOffset());
+            assertArrayEquals(content, out.toByteArray());
+        }
+        finally {
+            source.delete();
+        }
+    }
+
+    @Test
+    public void testTransferFileChannelAppend() throws Exception {
+        final byte[] content = new RandomStringGenerator.Builder().build().generate(39865).getBytes();
+        final File source = File.createTempFile(UUID.randomUUID().toString(), null);
+        final File target = File.createTempFile(UUID.randomUUID().toString(), null);
+        try {
+            Files.write(source.toPath(), content);
+            Files.write(target.toPath(), content);
+            final TransferStatus status = new TransferStatus();
+            new StreamCopier(status, status).withChannelsize(1000L).transfer(new LocalRepeatableFileInputStream(source), new FileOutputStream(target, true));
+            assertTrue(status.isComplete());
+            assertEquals(content.length, status.getOffset());
+            final byte[] expected = new byte[content.length * 2];
+            System.arraycopy(content, 0, expected, 0, content.length);
+            System.arraycopy(content, 0, expected, content.length, content.length);
+            assertArrayEquals(expected, Files.readAllBytes(target.toPath()));
+        }
+        finally {
+            source.delete();
+            target.delete();
+        }
+    }
+
+    @Test
+    public void testRepeatableFileInputStream() throws Exception {
+        final byte[] content = new RandomStringGenerator.Builder().build().generate(1000).getBytes();
+        final File source = File.createTempFile(UUID.randomUUID().toString(), null);
+        try {
+            Files.write(source.toPath(), content);
+            final LocalRepeatableFileInputStream in = new LocalRepeatableFileInputStream(source);
+            assertTrue(in.markSupported());
+            assertEquals(100L, in.skip(100L));
+            in.mark(0);
+            final byte[] buffer = new byte[10];
+            assertEquals(10, in.read(buffer));
+            in.reset();
+            assertEquals(content[100] & 0xff, in.read());
+            assertEquals(899L, in.skip(1000L));
+            assertEquals(-1, in.read());
+            in.close();
+        }
+        finally {
+            source.delete();
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void testIndex() {
+        for(long value : new long[]{0L, 1L, 15L, 16L, 17L, 31L, 32L, 1000L, 123456789L, Long.MAX_VALUE}) {
+            final int index = Histogram.index(value);
+            assertTrue(value <= Histogram.upper(index));
+            if(index > 0) {
+                assertTrue(value > Histogram.upper(index - 1));
+            }
+        }
+        assertEquals(Histogram.index(1000L), Histogram.index(1023L));
+    }
+
+    @Test
+    public void testPercentile() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0L, histogram.getPercentile(50));
+        for(int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(1000L, histogram.getMax());
+        assertEquals(500.5d, histogram.getMean(), 0.01d);
+        assertEquals(500d, histogram.getPercentile(50), 500d / 16);
+        assertEquals(990d, histogram.getPercentile(99), 990d / 16);
+        assertEquals(1000L, histogram.getPercentile(100));
+    }
+}
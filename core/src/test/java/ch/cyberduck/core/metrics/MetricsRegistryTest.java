@@ -0,0 +1,75 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testDisabled() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.setEnabled(false);
+        final Host host = new Host(new TestProtocol(), "h");
+        registry.time(host, MetricsRegistry.LIST, System.nanoTime());
+        registry.increment(host, MetricsRegistry.RETRY);
+        assertEquals(0L, registry.histogram(host, MetricsRegistry.LIST).getCount());
+        assertEquals(0L, registry.counter(host, MetricsRegistry.RETRY).sum());
+    }
+
+    @Test
+    public void testRecord() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final Host host = new Host(new TestProtocol(), "h");
+        registry.setEnabled(false);
+        registry.record(host, MetricsRegistry.READ_WINDOW, 64L);
+        assertEquals(0L, registry.histogram(host, MetricsRegistry.READ_WINDOW).getCount());
+        registry.setEnabled(true);
+        registry.record(host, MetricsRegistry.READ_WINDOW, 64L);
+        registry.record(host, MetricsRegistry.READ_WINDOW, 128L);
+        assertEquals(2L, registry.histogram(host, MetricsRegistry.READ_WINDOW).getCount());
+        assertEquals(128L, registry.histogram(host, MetricsRegistry.READ_WINDOW).getMax());
+        assertEquals(96d, registry.histogram(host, MetricsRegistry.READ_WINDOW).getMean(), 0d);
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.setEnabled(true);
+        final Host host = new Host(new TestProtocol(), "h");
+        registry.time(host, MetricsRegistry.LIST, System.nanoTime());
+        registry.time(host, MetricsRegistry.LIST, System.nanoTime());
+        registry.mark(host, MetricsRegistry.UPLOAD, 1024L, System.currentTimeMillis());
+        registry.increment(null, MetricsRegistry.RETRY);
+        assertEquals(2L, registry.histogram(host, MetricsRegistry.LIST).getCount());
+        assertEquals(1024L, registry.meter(host, MetricsRegistry.UPLOAD).getTotal());
+        assertEquals(1L, registry.counter(null, MetricsRegistry.RETRY).sum());
+        final StringWriter out = new StringWriter();
+        registry.write(out);
+        final String json = out.toString();
+        assertTrue(json.contains("\"list\""));
+        assertTrue(json.contains("\"p99\""));
+        assertTrue(json.contains("\"bytes\": 1024"));
+        assertTrue(json.contains("\"*\""));
+    }
+}
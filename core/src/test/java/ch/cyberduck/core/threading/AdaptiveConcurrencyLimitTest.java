@@ -0,0 +1,85 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    public void testDecreaseIncrease() throws Exception {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8);
+        assertEquals(8, limit.getLimit());
+        limit.decrease();
+        assertEquals(4, limit.getLimit());
+        limit.decrease();
+        limit.decrease();
+        limit.decrease();
+        assertEquals(1, limit.getLimit());
+        limit.success();
+        assertEquals(2, limit.getLimit());
+        limit.success();
+        assertEquals(2, limit.getLimit());
+        limit.success();
+        assertEquals(3, limit.getLimit());
+        for(int i = 0; i < 100; i++) {
+            limit.success();
+        }
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    public void testBounds() throws Exception {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 4, 3);
+        assertEquals(3, limit.getLimit());
+        assertEquals(4, limit.increase());
+        assertEquals(4, limit.increase());
+        assertEquals(3, limit.decrement());
+        assertEquals(2, limit.decrement());
+        assertEquals(2, limit.decrement());
+        assertEquals(3, limit.increase());
+        assertEquals(4, limit.increase());
+        assertEquals(2, limit.decrease());
+        assertEquals(2, limit.decrease());
+    }
+
+    @Test
+    public void testAcquire() throws Exception {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2);
+        limit.acquire();
+        limit.acquire();
+        assertEquals(2, limit.getInflight());
+        final CountDownLatch acquired = new CountDownLatch(1);
+        new Thread(() -> {
+            try {
+                limit.acquire();
+                acquired.countDown();
+            }
+            catch(InterruptedException e) {
+                fail();
+            }
+        }).start();
+        assertFalse(acquired.await(100L, TimeUnit.MILLISECONDS));
+        limit.release();
+        assertTrue(acquired.await(1L, TimeUnit.SECONDS));
+        assertEquals(2, limit.getInflight());
+    }
+}
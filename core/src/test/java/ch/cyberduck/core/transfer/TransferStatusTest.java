@@ -20,6 +20,12 @@ package ch.cyberduck.core.transfer;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.Assert.*;
 
 public class TransferStatusTest {
@@ -51,4 +57,26 @@ public class TransferStatusTest {
         assertEquals(new TransferStatus(), new TransferStatus());
         assertEquals(new TransferStatus().hashCode(), new TransferStatus().hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testProgressConcurrent() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        final List<Future<?>> futures = new ArrayList<Future<?>>();
+        for(int i = 0; i < 8; i++) {
+            futures.add(pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for(int j = 0; j < 10000; j++) {
+                        status.progress(1L);
+                    }
+                }
+            }));
+        }
+        for(Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+        assertEquals(80000L, status.getOffset());
+    }
+}
@@ -0,0 +1,100 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class DownloadSegmentJournalTest {
+
+    @Test
+    public void testWriteAtOffset() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final DownloadSegmentJournal journal = new DownloadSegmentJournal(local);
+        local.truncate(300L);
+        journal.create();
+        assertTrue(journal.exists());
+        assertEquals(300L, local.attributes().getSize());
+        final byte[] content = RandomUtils.nextBytes(300);
+        // Write segments out of order
+        final OutputStream second = journal.getOutputStream(100L);
+        second.write(content, 100, 100);
+        second.close();
+        assertEquals(0L, journal.written(0L));
+        assertEquals(200L, journal.written(100L));
+        final OutputStream first = journal.getOutputStream(0L);
+        first.write(content, 0, 100);
+        first.close();
+        // Partial last segment
+        final OutputStream third = journal.getOutputStream(200L);
+        third.write(content, 200, 50);
+        third.close();
+        assertEquals(250L, journal.written(0L));
+        assertEquals(250L, journal.written(200L));
+        assertEquals(1, journal.read().size());
+        final OutputStream remaining = journal.getOutputStream(250L);
+        remaining.write(content, 250, 50);
+        remaining.close();
+        assertEquals(300L, local.attributes().getSize());
+        final byte[] buffer = new byte[300];
+        final InputStream in = local.getInputStream();
+        IOUtils.readFully(in, buffer);
+        in.close();
+        assertArrayEquals(content, buffer);
+        journal.delete();
+        assertFalse(journal.exists());
+        assertEquals(0L, journal.written(0L));
+        local.delete();
+    }
+
+    @Test
+    public void testEmptySegment() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final DownloadSegmentJournal journal = new DownloadSegmentJournal(local);
+        journal.getOutputStream(10L).close();
+        assertTrue(journal.read().isEmpty());
+        assertEquals(10L, journal.written(10L));
+        local.delete();
+        journal.delete();
+    }
+
+    @Test
+    public void testTruncate() throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final byte[] content = RandomUtils.nextBytes(100);
+        final OutputStream out = local.getOutputStream(false);
+        out.write(content);
+        out.close();
+        local.truncate(50L);
+        assertEquals(50L, local.attributes().getSize());
+        final byte[] buffer = new byte[50];
+        final InputStream in = local.getInputStream();
+        IOUtils.readFully(in, buffer);
+        in.close();
+        assertArrayEquals(Arrays.copyOf(content, 50), buffer);
+        local.delete();
+    }
+}
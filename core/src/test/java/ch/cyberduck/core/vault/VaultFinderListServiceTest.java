@@ -0,0 +1,142 @@
+package ch.cyberduck.core.vault;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class VaultFinderListServiceTest {
+
+    @Test
+    public void testSkipLookup() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        list.add(new Path(directory, "f", EnumSet.of(Path.Type.file)));
+        final AtomicInteger listed = new AtomicInteger();
+        final AtomicInteger visited = new AtomicInteger();
+        final VaultFinderCache checked = new VaultFinderCache(10);
+        final VaultFinderListService service = new VaultFinderListService(new NullSession(new Host(new TestProtocol())),
+                new TestListService(list, listed), new CountingFinder(visited), checked);
+        assertEquals(list, service.list(directory, new DisabledListProgressListener()));
+        assertEquals(1, visited.get());
+        assertTrue(checked.contains(directory));
+        assertEquals(list, service.list(directory, new DisabledListProgressListener()));
+        assertEquals(2, listed.get());
+        // Not visited again
+        assertEquals(1, visited.get());
+    }
+
+    @Test
+    public void testLookupAfterMasterkeyUpload() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final AttributedList<Path> list = new AttributedList<Path>();
+        list.add(new Path(directory, "f", EnumSet.of(Path.Type.file)));
+        final AtomicInteger visited = new AtomicInteger();
+        final VaultFinderCache checked = new VaultFinderCache(10);
+        final VaultFinderListService service = new VaultFinderListService(new NullSession(new Host(new TestProtocol())),
+                new TestListService(list, new AtomicInteger()), new CountingFinder(visited), checked);
+        service.list(directory, new DisabledListProgressListener());
+        assertTrue(checked.contains(directory));
+        final Path masterkey = new Path(directory, VaultFinderListProgressListener.MASTERKEY_FILE_NAME, EnumSet.of(Path.Type.file));
+        list.add(masterkey);
+        // Not looked up until invalidated
+        service.list(directory, new DisabledListProgressListener());
+        assertEquals(1, visited.get());
+        // Uploaded with touch or upload feature
+        checked.invalidate(masterkey);
+        service.list(directory, new DisabledListProgressListener());
+        assertEquals(3, visited.get());
+    }
+
+    @Test
+    public void testClearWhileListing() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final VaultFinderCache checked = new VaultFinderCache(10);
+        final VaultFinderListService service = new VaultFinderListService(new NullSession(new Host(new TestProtocol())),
+                new ListService() {
+                    @Override
+                    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) {
+                        // Vault added to registry
+                        checked.clear();
+                        return AttributedList.emptyList();
+                    }
+                }, new CountingFinder(new AtomicInteger()), checked);
+        service.list(directory, new DisabledListProgressListener());
+        assertFalse(checked.contains(directory));
+        service.list(directory, new DisabledListProgressListener());
+        assertFalse(checked.contains(directory));
+    }
+
+    @Test
+    public void testInvalidate() {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final VaultFinderCache checked = new VaultFinderCache(10);
+        checked.add(directory, checked.generation());
+        checked.invalidate(new Path(directory, "f", EnumSet.of(Path.Type.file)));
+        assertTrue(checked.contains(directory));
+        checked.invalidate(new Path(directory, VaultFinderListProgressListener.MASTERKEY_FILE_NAME, EnumSet.of(Path.Type.file)));
+        assertFalse(checked.contains(directory));
+    }
+
+    private static final class TestListService implements ListService {
+        private final AttributedList<Path> list;
+        private final AtomicInteger count;
+
+        public TestListService(final AttributedList<Path> list, final AtomicInteger count) {
+            this.list = list;
+            this.count = count;
+        }
+
+        @Override
+        public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+            count.incrementAndGet();
+            listener.chunk(directory, list);
+            return list;
+        }
+    }
+
+    private static final class CountingFinder extends VaultFinderListProgressListener {
+        private final AtomicInteger count;
+
+        public CountingFinder(final AtomicInteger count) {
+            super(new DisabledPasswordStore(), new DisabledVaultLookupListener());
+            this.count = count;
+        }
+
+        @Override
+        public void visit(final AttributedList<Path> list, final int index, final Path file) throws ConnectionCanceledException {
+            count.incrementAndGet();
+            super.visit(list, index, file);
+        }
+    }
+}
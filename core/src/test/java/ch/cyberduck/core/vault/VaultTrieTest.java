@@ -0,0 +1,136 @@
+package ch.cyberduck.core.vault;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.features.Vault;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class VaultTrieTest {
+
+    @Test
+    public void testFind() {
+        final Vault a = new TestVault(new Path("/a/vault", EnumSet.of(Path.Type.directory)));
+        final Vault b = new TestVault(new Path("/a/vault/b", EnumSet.of(Path.Type.directory)));
+        final Vault c = new TestVault(new Path("/c", EnumSet.of(Path.Type.directory)));
+        final VaultTrie trie = new VaultTrie(Arrays.asList(a, b, c, Vault.DISABLED));
+        assertEquals(Vault.DISABLED, trie.find(new Path("/", EnumSet.of(Path.Type.directory))));
+        assertEquals(Vault.DISABLED, trie.find(new Path("/a", EnumSet.of(Path.Type.directory))));
+        assertEquals(Vault.DISABLED, trie.find(new Path("/a/vaults", EnumSet.of(Path.Type.directory))));
+        assertSame(a, trie.find(new Path("/a/vault", EnumSet.of(Path.Type.directory))));
+        assertSame(a, trie.find(new Path("/a/vault/f", EnumSet.of(Path.Type.file))));
+        assertSame(a, trie.find(new Path("/a/vault/b/f", EnumSet.of(Path.Type.file))));
+        assertSame(c, trie.find(new Path("/c/d/f", EnumSet.of(Path.Type.file))));
+        assertEquals(Vault.DISABLED, new VaultTrie(Collections.<Vault>emptyList()).find(new Path("/c", EnumSet.of(Path.Type.directory))));
+    }
+
+    @Test
+    public void testFindRegistry() throws Exception {
+        final DefaultVaultRegistry registry = new DefaultVaultRegistry(new DisabledPasswordStore(), new DisabledPasswordCallback());
+        final Path file = new Path("/a/vault/f", EnumSet.of(Path.Type.file));
+        assertEquals(Vault.DISABLED, registry.find(null, file, false));
+        final Vault vault = new TestVault(new Path("/a/vault", EnumSet.of(Path.Type.directory)));
+        registry.add(vault);
+        assertSame(vault, registry.find(null, file, false));
+        registry.remove(vault);
+        assertEquals(Vault.DISABLED, registry.find(null, file, false));
+        registry.addAll(Collections.singletonList(vault));
+        assertSame(vault, registry.find(null, file, false));
+        registry.clear();
+        assertEquals(Vault.DISABLED, registry.find(null, file, false));
+    }
+
+    private static final class TestVault implements Vault {
+        private final Path home;
+
+        public TestVault(final Path home) {
+            this.home = home;
+        }
+
+        @Override
+        public Path create(final Session<?> session, final String region, final VaultCredentials credentials) {
+            return home;
+        }
+
+        @Override
+        public Vault load(final Session<?> session, final PasswordCallback prompt) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+            //
+        }
+
+        @Override
+        public boolean contains(final Path file) {
+            return new SimplePathPredicate(file).test(home) || file.isChild(home);
+        }
+
+        @Override
+        public Path encrypt(final Session<?> session, final Path file) {
+            return file;
+        }
+
+        @Override
+        public Path encrypt(final Session<?> session, final Path file, final boolean metadata) {
+            return file;
+        }
+
+        @Override
+        public Path decrypt(final Session<?> session, final Path file) {
+            return file;
+        }
+
+        @Override
+        public long toCiphertextSize(final long cleartextFileSize) {
+            return cleartextFileSize;
+        }
+
+        @Override
+        public long toCleartextSize(final long ciphertextFileSize) {
+            return ciphertextFileSize;
+        }
+
+        @Override
+        public <T> T getFeature(final Session<?> session, final Class<T> type, final T delegate) {
+            return delegate;
+        }
+
+        @Override
+        public State getState() {
+            return State.open;
+        }
+
+        @Override
+        public Path getHome() {
+            return home;
+        }
+    }
+}
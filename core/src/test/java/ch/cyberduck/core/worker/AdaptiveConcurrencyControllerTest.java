@@ -0,0 +1,167 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullLocal;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.transfer.DownloadTransfer;
+import ch.cyberduck.core.transfer.TransferSpeedometer;
+
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.util.EnumSet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveConcurrencyControllerTest {
+
+    private static final class FixedSpeedometer extends TransferSpeedometer {
+        private double throughput;
+
+        public FixedSpeedometer() throws LocalAccessDeniedException {
+            super(new DownloadTransfer(new Host(new TestProtocol()), new Path("/t", EnumSet.of(Path.Type.file)), new NullLocal("t")));
+        }
+
+        @Override
+        public Double getThroughput() {
+            return throughput;
+        }
+    }
+
+    @Test
+    public void testIncreaseWithThroughput() throws Exception {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        final FixedSpeedometer meter = new FixedSpeedometer();
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(executor, meter, 1, 4, 0L, 0.1d, 4d, 3);
+        assertEquals(2, controller.getConcurrency());
+        meter.throughput = 100d;
+        controller.success();
+        assertEquals(3, controller.getConcurrency());
+        assertEquals(3, executor.getMaximumPoolSize());
+        assertEquals(AdaptiveConcurrencyController.Decision.increase, controller.getDecision());
+        meter.throughput = 150d;
+        controller.success();
+        assertEquals(4, controller.getConcurrency());
+        // Reached maximum
+        controller.success();
+        assertEquals(4, controller.getConcurrency());
+        assertEquals(AdaptiveConcurrencyController.Decision.hold, controller.getDecision());
+        assertEquals(2L, controller.getIncreases());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testHoldWithFlatThroughput() throws Exception {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        final FixedSpeedometer meter = new FixedSpeedometer();
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(executor, meter, 1, 8, 0L, 0.1d, 4d, 3);
+        meter.throughput = 100d;
+        controller.success();
+        assertEquals(3, controller.getConcurrency());
+        // No gain with additional connection
+        meter.throughput = 105d;
+        controller.success();
+        assertEquals(3, controller.getConcurrency());
+        assertEquals(AdaptiveConcurrencyController.Decision.hold, controller.getDecision());
+        meter.throughput = 100d;
+        controller.success();
+        assertEquals(3, controller.getConcurrency());
+        assertEquals(AdaptiveConcurrencyController.Decision.hold, controller.getDecision());
+        assertEquals(1L, controller.getIncreases());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDecreaseWithThroughputDrop() throws Exception {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        final FixedSpeedometer meter = new FixedSpeedometer();
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(executor, meter, 1, 8, 0L, 0.1d, 4d, 3);
+        meter.throughput = 100d;
+        controller.success();
+        assertEquals(3, controller.getConcurrency());
+        meter.throughput = 50d;
+        controller.success();
+        assertEquals(2, controller.getConcurrency());
+        assertEquals(AdaptiveConcurrencyController.Decision.decrease, controller.getDecision());
+        assertEquals(2, executor.getCorePoolSize());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBackoffOnNetworkFailure() throws Exception {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(8, 8, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        final FixedSpeedometer meter = new FixedSpeedometer();
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(executor, meter, 1, 32, 60000L, 0.1d, 4d, 3);
+        // Ignore application failures
+        controller.failure(new AccessDeniedException());
+        assertEquals(8, controller.getConcurrency());
+        controller.failure(new ConnectionRefusedException("d", new ConnectException()));
+        assertEquals(4, controller.getConcurrency());
+        assertEquals(AdaptiveConcurrencyController.Decision.backoff, controller.getDecision());
+        // Only once per interval
+        controller.failure(new ConnectionRefusedException("d", new ConnectException()));
+        assertEquals(4, controller.getConcurrency());
+        assertEquals(4, executor.getMaximumPoolSize());
+        assertEquals(1L, controller.getDecreases());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDecreaseWithLatency() throws Exception {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        final FixedSpeedometer meter = new FixedSpeedometer();
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(executor, meter, 1, 32, 0L, 0.1d, 4d, 3);
+        controller.borrow(10L);
+        assertEquals(AdaptiveConcurrencyController.Decision.hold, controller.getDecision());
+        controller.borrow(100L);
+        assertEquals(3, controller.getConcurrency());
+        assertEquals(AdaptiveConcurrencyController.Decision.latency, controller.getDecision());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRecoverAfterBackoff() throws Exception {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(8, 8, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        final FixedSpeedometer meter = new FixedSpeedometer();
+        final AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(executor, meter, 1, 8, 0L, 0.1d, 4d, 2);
+        meter.throughput = 100d;
+        controller.failure(new ConnectionRefusedException("d", new ConnectException()));
+        assertEquals(4, controller.getConcurrency());
+        assertEquals(AdaptiveConcurrencyController.Decision.backoff, controller.getDecision());
+        // Throughput stable after transient failure
+        controller.success();
+        assertEquals(4, controller.getConcurrency());
+        assertEquals(AdaptiveConcurrencyController.Decision.hold, controller.getDecision());
+        controller.success();
+        assertEquals(5, controller.getConcurrency());
+        assertEquals(AdaptiveConcurrencyController.Decision.probe, controller.getDecision());
+        for(int i = 0; i < 6; i++) {
+            controller.success();
+        }
+        assertEquals(8, controller.getConcurrency());
+        assertEquals(8, executor.getMaximumPoolSize());
+        executor.shutdownNow();
+    }
+}
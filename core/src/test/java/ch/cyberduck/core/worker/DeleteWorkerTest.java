@@ -15,6 +15,7 @@ import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.UnsupportedException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.features.StreamingDelete;
 
 import org.junit.Test;
 
@@ -24,6 +25,7 @@ import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class DeleteWorkerTest {
@@ -175,4 +177,59 @@ public class DeleteWorkerTest {
             PathCache.empty(), new DisabledProgressListener());
         worker.run(session);
     }
+
+    @Test
+    public void testPurge() throws Exception {
+        final Session session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Delete.class) {
+                    return (T) new StreamingDelete() {
+                        @Override
+                        public boolean isPurgeable(final Path directory) {
+                            return true;
+                        }
+
+                        @Override
+                        public void purge(final Path directory, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+                            assertEquals(new Path("/t", EnumSet.of(Path.Type.directory)), directory);
+                            callback.delete(new Path("/t/a", EnumSet.of(Path.Type.file)));
+                            callback.delete(directory);
+                        }
+
+                        @Override
+                        public void delete(final List<Path> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+                            assertEquals(Collections.singletonList(new Path("/f", EnumSet.of(Path.Type.file))), files);
+                        }
+
+                        @Override
+                        public boolean isSupported(final Path file) {
+                            return true;
+                        }
+
+                        @Override
+                        public boolean isRecursive() {
+                            return false;
+                        }
+                    };
+                }
+                return (T) super._getFeature(type);
+            }
+
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                fail();
+                return null;
+            }
+        };
+        final DeleteWorker worker = new DeleteWorker(new DisabledLoginCallback(),
+            Arrays.asList(new Path("/t", EnumSet.of(Path.Type.directory)), new Path("/f", EnumSet.of(Path.Type.file))),
+            PathCache.empty(), new DisabledProgressListener());
+        final List<Path> deleted = worker.run(session);
+        assertEquals(3, deleted.size());
+        assertTrue(deleted.contains(new Path("/t/a", EnumSet.of(Path.Type.file))));
+        assertTrue(deleted.contains(new Path("/t", EnumSet.of(Path.Type.directory))));
+        assertTrue(deleted.contains(new Path("/f", EnumSet.of(Path.Type.file))));
+    }
 }
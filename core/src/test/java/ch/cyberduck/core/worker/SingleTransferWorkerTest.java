@@ -3,11 +3,17 @@ package ch.cyberduck.core.worker;
 import ch.cyberduck.core.*;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
 import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Download;
+import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DefaultDownloadFeature;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
 import ch.cyberduck.core.transfer.DisabledTransferPrompt;
 import ch.cyberduck.core.transfer.DownloadTransfer;
@@ -19,12 +25,27 @@ import ch.cyberduck.core.transfer.TransferSpeedometer;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.UploadTransfer;
 import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
+import ch.cyberduck.core.transfer.download.DownloadFilterOptions;
+import ch.cyberduck.core.transfer.download.OverwriteFilter;
+import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -250,6 +271,96 @@ public class SingleTransferWorkerTest {
         assertTrue(cache.isEmpty());
     }
 
+    @Test
+    public void testDownloadSegmentsRename() throws Exception {
+        final byte[] content = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.UTF_8);
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        directory.mkdir();
+        final Local existing = new Local(directory, "f.txt");
+        Files.write(Paths.get(existing.getAbsolute()), "existing".getBytes(StandardCharsets.UTF_8));
+        final Path file = new Path("/f.txt", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(content.length);
+        final Preferences preferences = PreferencesFactory.get();
+        preferences.setProperty("queue.download.segments", true);
+        preferences.setProperty("queue.download.segments.threshold", 10L);
+        preferences.setProperty("queue.download.segments.size", 10L);
+        try {
+            final List<Local> targets = new ArrayList<Local>();
+            final Transfer t = new DownloadTransfer(new Host(new TestProtocol()), file, existing) {
+                @Override
+                public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                     final TransferOptions options, final TransferStatus status,
+                                     final ConnectionCallback connectionCallback,
+                                     final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                    assertTrue(status.isSegment());
+                    targets.add(local);
+                    // Write segment at offset
+                    try (FileChannel channel = FileChannel.open(Paths.get(local.getAbsolute()), StandardOpenOption.WRITE)) {
+                        channel.write(ByteBuffer.wrap(content, (int) status.getOffset(), (int) status.getLength()), status.getOffset());
+                    }
+                    catch(IOException e) {
+                        throw new LocalAccessDeniedException(e.getMessage(), e);
+                    }
+                    status.setComplete();
+                    return file;
+                }
+
+                @Override
+                public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                    return super.filter(source, destination, action, listener).withAttributes(new AttributesFinder() {
+                        @Override
+                        public PathAttributes find(final Path file) throws BackgroundException {
+                            return file.attributes();
+                        }
+
+                        @Override
+                        public AttributesFinder withCache(final Cache<Path> cache) {
+                            return this;
+                        }
+                    });
+                }
+            }.withOptions(new DownloadFilterOptions());
+            final NullSession session = new NullSession(new Host(new TestProtocol())) {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T> T _getFeature(final Class<T> type) {
+                    if(type == Download.class) {
+                        return (T) new DefaultDownloadFeature(this.getFeature(Read.class), this.getHost()) {
+                            @Override
+                            public boolean offset(final Path file) {
+                                return true;
+                            }
+                        };
+                    }
+                    return super._getFeature(type);
+                }
+            };
+            final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.rename;
+                }
+            }, new DisabledTransferErrorCallback(),
+                    new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback());
+            assertTrue(worker.run(session, session));
+            final Local renamed = new Local(directory, "f-1.txt");
+            assertTrue(targets.size() > 1);
+            for(Local target : targets) {
+                assertEquals(renamed, target);
+            }
+            assertArrayEquals("existing".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(Paths.get(existing.getAbsolute())));
+            assertArrayEquals(content, Files.readAllBytes(Paths.get(renamed.getAbsolute())));
+            renamed.delete();
+            existing.delete();
+            directory.delete();
+        }
+        finally {
+            preferences.deleteProperty("queue.download.segments");
+            preferences.deleteProperty("queue.download.segments.threshold");
+            preferences.deleteProperty("queue.download.segments.size");
+        }
+    }
+
     @Test(expected = NotfoundException.class)
     public void testUploadFileNotFound() throws Exception {
         // #7791
@@ -291,4 +402,211 @@ public class SingleTransferWorkerTest {
             throw e;
         }
     }
+
+    @Test
+    public void testDownloadPipeline() throws Exception {
+        final Path child = new Path("/t/c", EnumSet.of(Path.Type.file));
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final Cache<TransferItem> cache = new TransferItemCache(Integer.MAX_VALUE);
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public boolean exists() {
+                return true;
+            }
+
+            @Override
+            public boolean isDirectory() {
+                return true;
+            }
+
+            @Override
+            public boolean isFile() {
+                return false;
+            }
+
+            @Override
+            public AttributedList<Local> list() throws AccessDeniedException {
+                return AttributedList.emptyList();
+            }
+        };
+        final List<Path> transferred = new ArrayList<Path>();
+        final Transfer t = new DownloadTransfer(new Host(new TestProtocol()), root, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                transferred.add(file);
+                return file;
+            }
+
+            @Override
+            public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                return super.filter(source, destination, action, listener).withAttributes(new AttributesFinder() {
+                    @Override
+                    public PathAttributes find(final Path file) throws BackgroundException {
+                        return file.attributes();
+                    }
+
+                    @Override
+                    public AttributesFinder withCache(final Cache<Path> cache) {
+                        return this;
+                    }
+                });
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                final AttributedList<Path> children = new AttributedList<Path>();
+                children.add(child);
+                return children;
+            }
+        };
+        final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions().pipeline(true),
+                new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new DisabledTransferErrorCallback(),
+                new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(), cache) {
+            @Override
+            public Future<TransferStatus> transfer(final TransferItem item, final TransferAction action) throws BackgroundException {
+                // Directory is transferred before its children are listed
+                assertEquals(Collections.singletonList(root), transferred);
+                assertEquals(child, item.remote);
+                return super.transfer(new TransferItem(item.remote, new NullLocal("l")), action);
+            }
+        };
+        assertTrue(worker.run(session, session));
+        assertEquals(Arrays.asList(root, child), transferred);
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test(expected = NotfoundException.class)
+    public void testUploadPipelineFileNotFound() throws Exception {
+        final Path root = new Path("/t", EnumSet.of(Path.Type.file));
+        final Host bookmark = new Host(new TestProtocol());
+        final Transfer t = new UploadTransfer(bookmark, root,
+                new NullLocal("l") {
+                    @Override
+                    public boolean exists() {
+                        // Will give a not found failure
+                        return false;
+                    }
+                });
+        final NullSession session = new NullSession(bookmark) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                return new AttributedList<Path>(Collections.singletonList(new Path("/t", EnumSet.of(Path.Type.directory))));
+            }
+        };
+        new SingleTransferWorker(session, session, t, new TransferOptions().pipeline(true), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new DisabledTransferErrorCallback(),
+                new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback()) {
+            @Override
+            public Future<TransferStatus> transfer(final TransferItem file, final TransferAction action) throws BackgroundException {
+                // Expected not found
+                fail();
+                return null;
+            }
+        }.run(session, session);
+    }
+
+    @Test
+    public void testDownloadPipelineRetryListing() throws Exception {
+        final Path child = new Path("/t/c", EnumSet.of(Path.Type.file));
+        child.attributes().setSize(10L);
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public boolean exists() {
+                return true;
+            }
+
+            @Override
+            public boolean isDirectory() {
+                return true;
+            }
+
+            @Override
+            public boolean isFile() {
+                return false;
+            }
+
+            @Override
+            public AttributedList<Local> list() throws AccessDeniedException {
+                return AttributedList.emptyList();
+            }
+        };
+        final List<Path> transferred = new ArrayList<Path>();
+        final List<Path> completed = new ArrayList<Path>();
+        final Transfer t = new DownloadTransfer(new Host(new TestProtocol()), root, local) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                transferred.add(file);
+                return file;
+            }
+
+            @Override
+            public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                return new OverwriteFilter(new DisabledDownloadSymlinkResolver(), source, new DownloadFilterOptions()) {
+                    @Override
+                    public void complete(final Path file, final Local local, final TransferOptions options, final TransferStatus status, final ProgressListener listener) throws BackgroundException {
+                        completed.add(file);
+                    }
+                }.withAttributes(new AttributesFinder() {
+                    @Override
+                    public PathAttributes find(final Path file) throws BackgroundException {
+                        return file.attributes();
+                    }
+
+                    @Override
+                    public AttributesFinder withCache(final Cache<Path> cache) {
+                        return this;
+                    }
+                });
+            }
+        };
+        final AtomicInteger count = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) throws BackgroundException {
+                if(count.incrementAndGet() == 1) {
+                    throw new ConnectionRefusedException("d", new RuntimeException());
+                }
+                final AttributedList<Path> children = new AttributedList<Path>();
+                children.add(child);
+                return children;
+            }
+        };
+        final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions().pipeline(true),
+                new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new DisabledTransferErrorCallback(),
+                new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback()) {
+            @Override
+            public Future<TransferStatus> transfer(final TransferItem item, final TransferAction action) throws BackgroundException {
+                return super.transfer(new TransferItem(item.remote, new NullLocal("l")), action);
+            }
+        };
+        assertTrue(worker.run(session, session));
+        assertEquals(2, count.get());
+        assertEquals(Arrays.asList(root, child), transferred);
+        // Only listing is repeated
+        assertEquals(10L, (long) t.getSize());
+        // Directory completed after its children
+        assertEquals(Arrays.asList(child, root), completed);
+    }
 }
@@ -15,6 +15,9 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.io.BufferPool;
+import ch.cyberduck.core.threading.ThreadPool;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.ProxyInputStream;
 import org.cryptomator.cryptolib.api.CryptoException;
@@ -23,7 +26,12 @@ import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 public class CryptoInputStream extends ProxyInputStream {
 
@@ -33,19 +41,46 @@ public class CryptoInputStream extends ProxyInputStream {
 
     private ByteBuffer buffer = ByteBuffer.allocate(0);
 
+    /**
+     * Reused for reading ciphertext chunks
+     */
+    private byte[] ciphertext;
+
     /**
      * Position proxy content cryptor
      */
     private long chunkIndexOffset;
     private final int chunkSize;
 
+    private final ThreadPool pool;
+    private final int window;
+    /**
+     * Chunks read ahead and submitted for decryption in order of chunk index
+     */
+    private final Deque<PendingChunk> pending = new ArrayDeque<>();
+    /**
+     * End of ciphertext reached reading ahead
+     */
+    private boolean eof;
+
     public CryptoInputStream(final InputStream proxy, final Cryptor cryptor, final FileHeader header, final long chunkIndexOffset) throws IOException {
+        this(proxy, cryptor, header, chunkIndexOffset, CryptoThreadPool.get(), CryptoThreadPool.window());
+    }
+
+    /**
+     * @param pool   Decrypt chunks read ahead in parallel or on calling thread if null
+     * @param window Maximum number of chunks read ahead
+     */
+    public CryptoInputStream(final InputStream proxy, final Cryptor cryptor, final FileHeader header, final long chunkIndexOffset,
+                             final ThreadPool pool, final int window) throws IOException {
         super(proxy);
         this.proxy = proxy;
         this.cryptor = cryptor;
         this.header = header;
         this.chunkSize = cryptor.fileContentCryptor().ciphertextChunkSize();
         this.chunkIndexOffset = chunkIndexOffset;
+        this.pool = window > 1 ? pool : null;
+        this.window = window;
     }
 
     @Override
@@ -74,33 +109,138 @@ public class CryptoInputStream extends ProxyInputStream {
         return read;
     }
 
+    /**
+     * Skip ciphertext of whole chunks without decrypting
+     */
     @Override
     public long skip(final long ln) throws IOException {
         long remaining = ln;
+        // Discard decrypted bytes of current chunk
+        final int discard = (int) Math.min(remaining, buffer.remaining());
+        buffer.position(buffer.position() + discard);
+        remaining -= discard;
+        final int cleartextChunkSize = cryptor.fileContentCryptor().cleartextChunkSize();
+        // Ciphertext of chunks read ahead cannot be skipped
+        while(remaining >= cleartextChunkSize && pending.isEmpty() && !eof) {
+            final long skipped = this.skipCiphertext(chunkSize);
+            if(skipped < chunkSize) {
+                // Reached last chunk shorter than full chunk size
+                remaining -= Math.max(0L, skipped - (chunkSize - cleartextChunkSize));
+                eof = true;
+                return ln - remaining;
+            }
+            chunkIndexOffset++;
+            remaining -= cleartextChunkSize;
+        }
         while(remaining > 0) {
-            final int read = this.read(new byte[(int) Math.min(remaining, Integer.MAX_VALUE)]);
-            if(read == IOUtils.EOF) {
-                break;
+            if(!buffer.hasRemaining()) {
+                final int read = this.readNextChunk();
+                if(read == IOUtils.EOF) {
+                    break;
+                }
             }
-            remaining -= read;
+            final int skipped = (int) Math.min(remaining, buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            remaining -= skipped;
         }
         return ln - remaining;
     }
 
+    /**
+     * @return Number of ciphertext bytes skipped in proxy stream
+     */
+    private long skipCiphertext(final long len) throws IOException {
+        long skipped = 0L;
+        while(skipped < len) {
+            final long n = proxy.skip(len - skipped);
+            if(n > 0) {
+                skipped += n;
+            }
+            else {
+                // Skip not supported or end of stream
+                if(proxy.read() == IOUtils.EOF) {
+                    break;
+                }
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        }
+        finally {
+            for(PendingChunk chunk : pending) {
+                chunk.cancel();
+            }
+            pending.clear();
+            BufferPool.get().release(ciphertext);
+            ciphertext = null;
+        }
+    }
+
     private int readNextChunk() throws IOException {
-        final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
-        final int read = IOUtils.read(proxy, ciphertextBuf.array());
+        if(null != pool) {
+            return this.readNextChunkParallel();
+        }
+        if(null == ciphertext) {
+            ciphertext = BufferPool.get().acquire(chunkSize);
+        }
+        final int read = IOUtils.read(proxy, ciphertext, 0, chunkSize);
         if(read == 0) {
             return IOUtils.EOF;
         }
-        ciphertextBuf.position(read);
-        ciphertextBuf.flip();
         try {
-            buffer = cryptor.fileContentCryptor().decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
+            buffer = cryptor.fileContentCryptor().decryptChunk(ByteBuffer.wrap(ciphertext, 0, read), chunkIndexOffset++, header, true);
         }
         catch(CryptoException e) {
             throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
         }
         return read;
     }
-}
\ No newline at end of file
+
+    private int readNextChunkParallel() throws IOException {
+        while(!eof && pending.size() < window) {
+            final byte[] chunk = BufferPool.get().acquire(chunkSize);
+            final int read = IOUtils.read(proxy, chunk, 0, chunkSize);
+            if(read < chunkSize) {
+                eof = true;
+            }
+            if(read == 0) {
+                BufferPool.get().release(chunk);
+                break;
+            }
+            final long index = chunkIndexOffset++;
+            pending.add(new PendingChunk(pool.execute(new Callable<ByteBuffer>() {
+                @Override
+                public ByteBuffer call() {
+                    try {
+                        return cryptor.fileContentCryptor().decryptChunk(ByteBuffer.wrap(chunk, 0, read), index, header, true);
+                    }
+                    finally {
+                        BufferPool.get().release(chunk);
+                    }
+                }
+            }), chunk));
+        }
+        if(pending.isEmpty()) {
+            return IOUtils.EOF;
+        }
+        try {
+            buffer = pending.poll().get();
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof CryptoException) {
+                throw new IOException(e.getCause().getMessage(), new CryptoAuthenticationException(e.getCause().getMessage(), e.getCause()));
+            }
+            throw new IOException(e.getCause());
+        }
+        return buffer.remaining();
+    }
+}
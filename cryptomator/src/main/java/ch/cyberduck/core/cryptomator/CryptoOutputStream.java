@@ -16,9 +16,11 @@ package ch.cyberduck.core.cryptomator;
  */
 
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.BufferPool;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.random.NonceGenerator;
+import ch.cyberduck.core.threading.ThreadPool;
 
 import org.apache.commons.io.output.ProxyOutputStream;
 import org.cryptomator.cryptolib.api.CryptoException;
@@ -26,9 +28,13 @@ import org.cryptomator.cryptolib.api.Cryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
@@ -36,7 +42,16 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
 
     public CryptoOutputStream(final StatusOutputStream<Reply> proxy, final Cryptor cryptor, final FileHeader header,
                               final NonceGenerator nonces, final long chunkIndexOffset) {
-        super(new MemorySegementingOutputStream(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset),
+        this(proxy, cryptor, header, nonces, chunkIndexOffset, CryptoThreadPool.get(), CryptoThreadPool.window());
+    }
+
+    /**
+     * @param pool   Encrypt chunks in parallel or on calling thread if null
+     * @param window Maximum number of chunks submitted to pool and not yet written
+     */
+    public CryptoOutputStream(final StatusOutputStream<Reply> proxy, final Cryptor cryptor, final FileHeader header,
+                              final NonceGenerator nonces, final long chunkIndexOffset, final ThreadPool pool, final int window) {
+        super(new MemorySegementingOutputStream(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset, pool, window),
                 cryptor.fileContentCryptor().cleartextChunkSize()));
         this.proxy = proxy;
     }
@@ -63,14 +78,23 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         private final NonceGenerator nonces;
         private long chunkIndexOffset;
 
+        private final ThreadPool pool;
+        private final int window;
+        /**
+         * Encrypted chunks in order of chunk index
+         */
+        private final Deque<PendingChunk> pending = new ArrayDeque<>();
+
         public EncryptingOutputStream(final OutputStream proxy, final Cryptor cryptor, final FileHeader header,
-                                      final NonceGenerator nonces, final long chunkIndexOffset) {
+                                      final NonceGenerator nonces, final long chunkIndexOffset, final ThreadPool pool, final int window) {
             super(proxy);
             this.cryptor = cryptor;
             this.header = header;
             this.chunksize = cryptor.fileContentCryptor().cleartextChunkSize();
             this.nonces = nonces;
             this.chunkIndexOffset = chunkIndexOffset;
+            this.pool = window > 1 ? pool : null;
+            this.window = window;
         }
 
         @Override
@@ -81,17 +105,84 @@ public class CryptoOutputStream<Reply> extends StatusOutputStream<Reply> {
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
             try {
-                for(int chunkOffset = off; chunkOffset < len; chunkOffset += chunksize) {
-                    int chunkLen = Math.min(chunksize, len - chunkOffset);
-                    final ByteBuffer encryptedChunk = cryptor.fileContentCryptor().encryptChunk(
-                            ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)),
-                            chunkIndexOffset++, header, nonces.next());
-                    super.write(encryptedChunk.array());
+                for(int chunkOffset = off; chunkOffset < off + len; chunkOffset += chunksize) {
+                    int chunkLen = Math.min(chunksize, off + len - chunkOffset);
+                    if(null == pool) {
+                        this.write(cryptor.fileContentCryptor().encryptChunk(
+                                ByteBuffer.wrap(b, chunkOffset, chunkLen).slice(),
+                                chunkIndexOffset++, header, nonces.next()));
+                    }
+                    else {
+                        // Copy as caller reuses buffer
+                        final byte[] cleartext = BufferPool.get().acquire(chunkLen);
+                        System.arraycopy(b, chunkOffset, cleartext, 0, chunkLen);
+                        // Chunk index and nonce must be obtained in order
+                        final long index = chunkIndexOffset++;
+                        final byte[] nonce = nonces.next();
+                        pending.add(new PendingChunk(pool.execute(new Callable<ByteBuffer>() {
+                            @Override
+                            public ByteBuffer call() {
+                                try {
+                                    return cryptor.fileContentCryptor().encryptChunk(
+                                            ByteBuffer.wrap(cleartext, 0, chunkLen), index, header, nonce);
+                                }
+                                finally {
+                                    BufferPool.get().release(cleartext);
+                                }
+                            }
+                        }), cleartext));
+                        while(pending.size() >= window) {
+                            this.write(this.await(pending.poll()));
+                        }
+                    }
                 }
             }
             catch(CryptoException e) {
                 throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
             }
         }
+
+        private void write(final ByteBuffer encryptedChunk) throws IOException {
+            super.write(encryptedChunk.array(), encryptedChunk.arrayOffset() + encryptedChunk.position(), encryptedChunk.remaining());
+        }
+
+        private ByteBuffer await(final PendingChunk chunk) throws IOException {
+            try {
+                return chunk.get();
+            }
+            catch(InterruptedException e) {
+                throw new InterruptedIOException(e.getMessage());
+            }
+            catch(ExecutionException e) {
+                if(e.getCause() instanceof CryptoException) {
+                    throw new IOException(e.getCause().getMessage(), new CryptoAuthenticationException(e.getCause().getMessage(), e.getCause()));
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            while(!pending.isEmpty()) {
+                this.write(this.await(pending.poll()));
+            }
+            super.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                while(!pending.isEmpty()) {
+                    this.write(this.await(pending.poll()));
+                }
+            }
+            finally {
+                for(PendingChunk chunk : pending) {
+                    chunk.cancel();
+                }
+                pending.clear();
+                super.close();
+            }
+        }
     }
 }
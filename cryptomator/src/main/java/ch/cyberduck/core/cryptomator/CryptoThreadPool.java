@@ -0,0 +1,55 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.DefaultThreadPool;
+import ch.cyberduck.core.threading.ThreadPool;
+
+/**
+ * Worker threads shared by all crypto streams to encrypt and decrypt chunks in parallel
+ */
+public final class CryptoThreadPool {
+
+    private static final int concurrency
+            = PreferencesFactory.get().getInteger("cryptomator.pipeline.concurrency");
+
+    private static ThreadPool pool;
+
+    private CryptoThreadPool() {
+        //
+    }
+
+    /**
+     * @return Null if parallel processing of chunks is disabled
+     */
+    public static synchronized ThreadPool get() {
+        if(concurrency <= 1) {
+            return null;
+        }
+        if(null == pool) {
+            pool = new DefaultThreadPool("cryptomator", concurrency);
+        }
+        return pool;
+    }
+
+    /**
+     * @return Maximum number of chunks processed ahead per stream
+     */
+    public static int window() {
+        return PreferencesFactory.get().getInteger("cryptomator.pipeline.window");
+    }
+}
@@ -469,6 +469,10 @@ public class CryptoVault implements Vault {
                 ((cleartextFileSize % cryptor.fileContentCryptor().cleartextChunkSize() > 0) ? 1 : 0));
     }
 
+    /**
+     * Features configured with an encrypting writer, reader or delete implementation wrap a new instance instead of
+     * the delegate shared by the session.
+     */
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getFeature(final Session<?> session, final Class<T> type, final T delegate) {
@@ -481,13 +485,13 @@ public class CryptoVault implements Vault {
                 return (T) new CryptoTouchFeature(session, new DefaultTouchFeature(session._getFeature(Upload.class)), session._getFeature(Write.class), this);
             }
             if(type == Directory.class) {
-                return (T) new CryptoDirectoryFeature(session, (Directory) delegate, session._getFeature(Write.class), this);
+                return (T) new CryptoDirectoryFeature(session, session._getFeature(Directory.class), session._getFeature(Write.class), this);
             }
             if(type == Upload.class) {
-                return (T) new CryptoUploadFeature(session, (Upload) delegate, session._getFeature(Write.class), this);
+                return (T) new CryptoUploadFeature(session, session._getFeature(Upload.class), session._getFeature(Write.class), this);
             }
             if(type == Download.class) {
-                return (T) new CryptoDownloadFeature(session, (Download) delegate, session._getFeature(Read.class), this);
+                return (T) new CryptoDownloadFeature(session, session._getFeature(Download.class), session._getFeature(Read.class), this);
             }
             if(type == Read.class) {
                 return (T) new CryptoReadFeature(session, (Read) delegate, this);
@@ -499,7 +503,7 @@ public class CryptoVault implements Vault {
                 return (T) new CryptoMultipartWriteFeature(session, (Write) delegate, this);
             }
             if(type == Move.class) {
-                return (T) new CryptoMoveFeature(session, (Move) delegate, session._getFeature(Delete.class), this);
+                return (T) new CryptoMoveFeature(session, session._getFeature(Move.class), session._getFeature(Delete.class), this);
             }
             if(type == AttributesFinder.class) {
                 return (T) new CryptoAttributesFeature(session, (AttributesFinder) delegate, this);
@@ -526,7 +530,7 @@ public class CryptoVault implements Vault {
                 return (T) new CryptoCompressFeature(session, (Compress) delegate, this);
             }
             if(type == Bulk.class) {
-                return (T) new CryptoBulkFeature(session, (Bulk) delegate, session._getFeature(Delete.class), this);
+                return (T) new CryptoBulkFeature(session, session._getFeature(Bulk.class), session._getFeature(Delete.class), this);
             }
             if(type == UnixPermission.class) {
                 return (T) new CryptoUnixPermission(session, (UnixPermission) delegate, this);
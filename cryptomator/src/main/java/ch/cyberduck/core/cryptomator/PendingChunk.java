@@ -0,0 +1,48 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.io.BufferPool;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Chunk submitted to encrypt or decrypt with the pooled buffer released by the task when run
+ */
+final class PendingChunk {
+
+    private final Future<ByteBuffer> future;
+    private final byte[] buffer;
+
+    PendingChunk(final Future<ByteBuffer> future, final byte[] buffer) {
+        this.future = future;
+        this.buffer = buffer;
+    }
+
+    ByteBuffer get() throws InterruptedException, ExecutionException {
+        return future.get();
+    }
+
+    /**
+     * Cancel task and release buffer if task has not started
+     */
+    void cancel() {
+        if(future.cancel(false)) {
+            BufferPool.get().release(buffer);
+        }
+    }
+}
@@ -61,7 +61,9 @@ public class CryptoReadFeature implements Read {
             final FileHeader header = cryptor.fileHeaderCryptor().decryptHeader(headerBuffer);
             if(status.isAppend()) {
                 IOUtils.closeQuietly(in);
-                final TransferStatus s = new TransferStatus(status).length(-1L);
+                // Ranged read starting with chunk containing offset
+                final TransferStatus s = new TransferStatus(status).length(status.getLength() > 0 ?
+                        this.length(status.getOffset(), status.getLength()) : -1L);
                 s.setOffset(this.align(status.getOffset()));
                 final CryptoInputStream crypto = new CryptoInputStream(proxy.read(encrypted, s, callback), cryptor, header, this.chunk(status.getOffset()));
                 crypto.skip(this.position(status.getOffset()));
@@ -84,6 +86,13 @@ public class CryptoReadFeature implements Read {
         return vault.getCryptor().fileHeaderCryptor().headerSize() + this.chunk(offset) * vault.getCryptor().fileContentCryptor().ciphertextChunkSize();
     }
 
+    /**
+     * @return Ciphertext length of all chunks containing cleartext range
+     */
+    protected long length(final long offset, final long length) {
+        return (this.chunk(offset + length - 1) - this.chunk(offset) + 1) * vault.getCryptor().fileContentCryptor().ciphertextChunkSize();
+    }
+
     protected long position(final long offset) {
         return offset % vault.getCryptor().fileContentCryptor().cleartextChunkSize();
     }
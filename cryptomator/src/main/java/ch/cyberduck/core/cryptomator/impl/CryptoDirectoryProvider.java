@@ -52,7 +52,7 @@ public class CryptoDirectoryProvider {
             = new UUIDRandomStringService();
 
     private final Map<CacheReference<Path>, String> cache = new LRUMap<CacheReference<Path>, String>(
-            PreferencesFactory.get().getInteger("browser.cache.size"));
+            PreferencesFactory.get().getInteger("cryptomator.cache.size"));
 
     public CryptoDirectoryProvider(final Path vault, final CryptoVault cryptomator) {
         this.home = vault;
@@ -25,6 +25,7 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.threading.DefaultThreadPool;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.VaultCredentials;
 
@@ -150,4 +151,39 @@ public class CryptoOutputStreamTest {
 
         assertArrayEquals(cleartext, read);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPipelined() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final DefaultThreadPool pool = new DefaultThreadPool("cryptomator", 4);
+        final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+        final FileHeader header = vault.getCryptor().fileHeaderCryptor().create();
+        final CryptoOutputStream<?> stream = new CryptoOutputStream<>(new StatusOutputStream<Void>(cipherText) {
+            @Override
+            public Void getStatus() throws BackgroundException {
+                return null;
+            }
+        }, vault.getCryptor(), header, new RandomNonceGenerator(), 0, pool, 4);
+        final int chunksize = vault.getCryptor().fileContentCryptor().cleartextChunkSize();
+        final byte[] cleartext = RandomUtils.nextBytes(10 * chunksize + 100);
+        stream.write(cleartext, 0, cleartext.length);
+        stream.close();
+        {
+            final byte[] read = new byte[cleartext.length];
+            final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getCryptor(), header, 0, pool, 4);
+            IOUtils.readFully(cryptoInputStream, read);
+            assertEquals(-1, cryptoInputStream.read());
+            cryptoInputStream.close();
+            assertArrayEquals(cleartext, read);
+        }
+        {
+            // Same ciphertext read sequentially
+            final byte[] read = new byte[cleartext.length];
+            final CryptoInputStream cryptoInputStream = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getCryptor(), header, 0, null, 1);
+            IOUtils.readFully(cryptoInputStream, read);
+            cryptoInputStream.close();
+            assertArrayEquals(cleartext, read);
+        }
+        pool.shutdown(false);
+    }
+}
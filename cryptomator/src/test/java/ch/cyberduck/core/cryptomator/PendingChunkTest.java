@@ -0,0 +1,52 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.io.BufferPool;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.Assert.assertEquals;
+
+public class PendingChunkTest {
+
+    @Test
+    public void testCancelNotStarted() {
+        final byte[] buffer = BufferPool.get().acquire(32768);
+        final long releases = BufferPool.get().getReleases();
+        final PendingChunk chunk = new PendingChunk(new FutureTask<ByteBuffer>(() -> ByteBuffer.wrap(buffer)), buffer);
+        chunk.cancel();
+        assertEquals(releases + 1, BufferPool.get().getReleases());
+    }
+
+    @Test
+    public void testCancelCompleted() throws Exception {
+        final byte[] buffer = BufferPool.get().acquire(32768);
+        final FutureTask<ByteBuffer> task = new FutureTask<ByteBuffer>(() -> {
+            BufferPool.get().release(buffer);
+            return ByteBuffer.allocate(0);
+        });
+        task.run();
+        final long releases = BufferPool.get().getReleases();
+        final PendingChunk chunk = new PendingChunk(task, buffer);
+        chunk.cancel();
+        // Released by task
+        assertEquals(releases, BufferPool.get().getReleases());
+        assertEquals(0, chunk.get().remaining());
+    }
+}
@@ -103,6 +103,13 @@ public class CryptoReadFeatureTest {
             assertEquals(0, read.position(32768));
             assertEquals(1, read.position(32769));
         }
+        {
+            assertEquals(48 + 32768, read.length(0, 1));
+            assertEquals(48 + 32768, read.length(1, 32767));
+            assertEquals(2 * (48 + 32768), read.length(32767, 2));
+            assertEquals(48 + 32768, read.length(32768, 32768));
+            assertEquals(3 * (48 + 32768), read.length(1, 65537));
+        }
         vault.close();
     }
 }
@@ -19,10 +19,15 @@ package ch.cyberduck.core.ftp;
  * dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Protocol;
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPCmd;
 import org.apache.commons.net.ftp.FTPReply;
@@ -44,10 +49,8 @@ import java.io.OutputStreamWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.Socket;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -169,31 +172,56 @@ public class FTPClient extends FTPSClient {
         }
     }
 
-    public List<String> list(final FTPCmd command) throws IOException {
-        return this.list(command, null);
-    }
-
-    public List<String> list(final FTPCmd command, final String pathname) throws IOException {
+    /**
+     * Parse listing line by line as received on the data connection without buffering all lines
+     *
+     * @param directory Directory listed
+     * @param reader    Parser for lines of listing
+     * @param listener  Notified with entries parsed so far
+     * @return Entries parsed from listing
+     */
+    public AttributedList<Path> list(final FTPCmd command, final String pathname, final Path directory,
+                                     final FTPDataResponseReader reader, final ListProgressListener listener) throws IOException, BackgroundException {
         this.pret(command, pathname);
 
-        Socket socket = _openDataConnection_(command, pathname);
-
-        BufferedReader reader = new BufferedReader(
-                new InputStreamReader(socket.getInputStream(), getControlEncoding()));
-        ArrayList<String> results = new ArrayList<String>();
-        String line;
-        while((line = reader.readLine()) != null) {
-            _commandSupport_.fireReplyReceived(-1, line);
-            results.add(line);
+        final Socket socket = _openDataConnection_(command, pathname);
+        if(null == socket) {
+            throw new FTPException(this.getReplyCode(), this.getReplyString());
         }
-
-        reader.close();
+        final BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), getControlEncoding())) {
+            @Override
+            public String readLine() throws IOException {
+                final String line = super.readLine();
+                if(line != null) {
+                    _commandSupport_.fireReplyReceived(-1, line);
+                }
+                return line;
+            }
+        };
+        final AttributedList<Path> list;
+        try {
+            list = reader.read(directory, in, listener);
+        }
+        catch(IOException | BackgroundException e) {
+            // Close data connection and read reply for aborted transfer to keep control connection in sync
+            IOUtils.closeQuietly(in);
+            socket.close();
+            try {
+                this.completePendingCommand();
+            }
+            catch(IOException f) {
+                log.warn(String.format("Ignore failure completing pending command %s", f.getMessage()));
+            }
+            throw e;
+        }
+        in.close();
         socket.close();
 
         if(!this.completePendingCommand()) {
             throw new FTPException(this.getReplyCode(), this.getReplyString());
         }
-        return results;
+        return list;
     }
 
     /**
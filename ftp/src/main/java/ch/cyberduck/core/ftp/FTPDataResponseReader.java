@@ -5,6 +5,7 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.List;
 
@@ -12,4 +13,12 @@ public interface FTPDataResponseReader {
 
     AttributedList<Path> read(Path parent, List<String> replies, ListProgressListener listener)
             throws IOException, FTPInvalidListException, ConnectionCanceledException;
+
+    /**
+     * Parse lines as they are read from the data connection notifying the listener with entries parsed so far
+     *
+     * @param reader Lines of listing
+     */
+    AttributedList<Path> read(Path parent, BufferedReader reader, ListProgressListener listener)
+            throws IOException, FTPInvalidListException, ConnectionCanceledException;
 }
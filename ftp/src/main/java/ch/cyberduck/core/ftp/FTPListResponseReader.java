@@ -25,14 +25,19 @@ import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.ftp.parser.FTPExtendedFile;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPFileEntryParser;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -43,25 +48,48 @@ public class FTPListResponseReader implements FTPDataResponseReader {
 
     private final boolean lenient;
 
+    /**
+     * Number of entries parsed before notifying listener
+     */
+    private final int chunksize;
+
     public FTPListResponseReader(final FTPFileEntryParser parser) {
         this(parser, false);
     }
 
     public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient) {
+        this(parser, lenient, PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient, final int chunksize) {
         this.parser = parser;
         this.lenient = lenient;
+        this.chunksize = chunksize;
     }
 
     @Override
     public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener)
             throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        return this.read(directory, new BufferedReader(new StringReader(StringUtils.join(replies, '\n'))), listener);
+    }
+
+    @Override
+    public AttributedList<Path> read(final Path directory, final BufferedReader reader, final ListProgressListener listener)
+            throws IOException, FTPInvalidListException, ConnectionCanceledException {
         final AttributedList<Path> children = new AttributedList<Path>();
         // At least one entry successfully parsed
         boolean success = false;
-        // Call hook for those implementors which need to perform some action upon the list after it has been created
-        // from the server stream, but before any clients see the list
-        parser.preParse(replies);
-        for(String line : replies) {
+        // Entries parsed since last notification
+        int pending = 0;
+        String line = reader.readLine();
+        if(null != line) {
+            // Call hook for those implementors which need to perform some action upon the list after it has been created
+            // from the server stream, but before any clients see the list. Only pass the first line to detect a header
+            // such as for MVS or a total line for Unix without buffering the listing.
+            final List<String> header = parser.preParse(new ArrayList<String>(Collections.singletonList(line)));
+            line = header.isEmpty() ? reader.readLine() : header.get(0);
+        }
+        for(; null != line; line = reader.readLine()) {
             final FTPFile f = parser.parseFTPEntry(line);
             if(null == f) {
                 continue;
@@ -163,6 +191,10 @@ public class FTPListResponseReader implements FTPDataResponseReader {
                 parsed.attributes().setModificationDate(timestamp.getTimeInMillis());
             }
             children.add(parsed);
+            if(++pending >= chunksize) {
+                listener.chunk(directory, children);
+                pending = 0;
+            }
         }
         if(!success) {
             throw new FTPInvalidListException(children);
@@ -26,11 +26,15 @@ import ch.cyberduck.core.date.InvalidDateException;
 import ch.cyberduck.core.date.MDTMMillisecondsDateFormatter;
 import ch.cyberduck.core.date.MDTMSecondsDateFormatter;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -43,17 +47,37 @@ import java.util.regex.Pattern;
 public class FTPMlsdListResponseReader implements FTPDataResponseReader {
     private static final Logger log = Logger.getLogger(FTPMlsdListResponseReader.class);
 
+    private static final Pattern FACTS_PATTERN = Pattern.compile("\\s?(\\S+\\=\\S+;)*\\s(.*)");
+
+    /**
+     * Number of entries parsed before notifying listener
+     */
+    private final int chunksize;
+
     public FTPMlsdListResponseReader() {
-        //
+        this(PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    public FTPMlsdListResponseReader(final int chunksize) {
+        this.chunksize = chunksize;
     }
 
     @Override
     public AttributedList<Path> read(final Path directory, final List<String> replies, final ListProgressListener listener)
             throws IOException, FTPInvalidListException, ConnectionCanceledException {
+        return this.read(directory, new BufferedReader(new StringReader(StringUtils.join(replies, '\n'))), listener);
+    }
+
+    @Override
+    public AttributedList<Path> read(final Path directory, final BufferedReader reader, final ListProgressListener listener)
+            throws IOException, FTPInvalidListException, ConnectionCanceledException {
         final AttributedList<Path> children = new AttributedList<Path>();
         // At least one entry successfully parsed
         boolean success = false;
-        for(String line : replies) {
+        // Entries parsed since last notification
+        int pending = 0;
+        String line;
+        while(null != (line = reader.readLine())) {
             final Map<String, Map<String, String>> file = this.parseFacts(line);
             if(null == file) {
                 log.error(String.format("Error parsing line %s", line));
@@ -163,6 +187,10 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
                     parsed.attributes().setCreationDate(this.parseTimestamp(facts.get("create")));
                 }
                 children.add(parsed);
+                if(success && ++pending >= chunksize) {
+                    listener.chunk(directory, children);
+                    pending = 0;
+                }
             }
         }
         if(!success) {
@@ -231,8 +259,56 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
      * @return Parsed keys and values
      */
     protected Map<String, Map<String, String>> parseFacts(final String line) {
-        final Pattern p = Pattern.compile("\\s?(\\S+\\=\\S+;)*\\s(.*)");
-        final Matcher result = p.matcher(line);
+        final int length = line.length();
+        // Optional leading whitespace
+        final int start = length > 0 && whitespace(line.charAt(0)) ? 1 : 0;
+        int end = start;
+        while(end < length && !whitespace(line.charAt(end))) {
+            end++;
+        }
+        if(end == length || !this.isFacts(line, start, end)) {
+            return this.parsePattern(line);
+        }
+        for(int i = end + 1; i < length; i++) {
+            if(terminator(line.charAt(i))) {
+                return this.parsePattern(line);
+            }
+        }
+        final Map<String, String> facts = new HashMap<String, String>();
+        int offset = start;
+        while(offset < end) {
+            int separator = line.indexOf(';', offset);
+            if(separator == -1 || separator > end) {
+                separator = end;
+            }
+            final int equals = line.indexOf('=', offset);
+            if(equals > offset && equals < separator - 1) {
+                facts.put(line.substring(offset, equals).toLowerCase(Locale.ROOT), line.substring(equals + 1, separator));
+            }
+            offset = separator + 1;
+        }
+        return Collections.singletonMap(line.substring(end + 1), facts);
+    }
+
+    /**
+     * @param start Index of first character of facts
+     * @param end   Index of whitespace following facts
+     * @return True if facts are terminated with semicolon and include at least one fact with key and value
+     */
+    private boolean isFacts(final String line, final int start, final int end) {
+        if(end - start < 4 || line.charAt(end - 1) != ';') {
+            return false;
+        }
+        for(int i = start + 1; i <= end - 3; i++) {
+            if(line.charAt(i) == '=') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected Map<String, Map<String, String>> parsePattern(final String line) {
+        final Matcher result = FACTS_PATTERN.matcher(line);
         final Map<String, Map<String, String>> file = new HashMap<String, Map<String, String>>();
         if(result.matches()) {
             final String filename = result.group(2);
@@ -255,4 +331,18 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
         return null;
     }
 
+    /**
+     * @return True if matched by \s in regular expression
+     */
+    private static boolean whitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return True if not matched by . in regular expression
+     */
+    private static boolean terminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
 }
@@ -19,7 +19,7 @@ package ch.cyberduck.core.ftp;
 
 import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
 import ch.cyberduck.core.ftp.parser.EPLFFTPEntryParser;
-import ch.cyberduck.core.ftp.parser.LaxUnixFTPEntryParser;
+import ch.cyberduck.core.ftp.parser.FastUnixFTPEntryParser;
 import ch.cyberduck.core.ftp.parser.RumpusFTPEntryParser;
 import ch.cyberduck.core.ftp.parser.TrellixFTPEntryParser;
 import ch.cyberduck.core.ftp.parser.UnitreeFTPEntryParser;
@@ -78,7 +78,7 @@ public class FTPParserFactory implements FTPFileEntryParserFactory {
 
     private CompositeFileEntryParser createUnixFTPEntryParser(final TimeZone timezone) {
         return new CompositeFileEntryParser(Arrays.asList(
-                new LaxUnixFTPEntryParser() {
+                new FastUnixFTPEntryParser() {
                     @Override
                     protected FTPClientConfig getDefaultConfiguration() {
                         final FTPClientConfig config = super.getDefaultConfiguration();
@@ -0,0 +1,207 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.net.ftp.FTPFile;
+
+/**
+ * Tokenizes the common Unix listing format with owner, group, size in bytes and date in a single pass without
+ * matching a regular expression. Lines in any other format accepted by {@link LaxUnixFTPEntryParser} such as with a
+ * missing group, human readable size or numeric date are passed to the regular expression of the superclass. The
+ * tokens are chosen to be identical to the groups of the first match of the regular expression.
+ */
+public class FastUnixFTPEntryParser extends LaxUnixFTPEntryParser {
+
+    @Override
+    public FTPFile parseFTPEntry(final String entry) {
+        final FTPFile parsed = this.tokenize(entry);
+        if(null == parsed) {
+            return super.parseFTPEntry(entry);
+        }
+        return parsed;
+    }
+
+    /**
+     * @return Null if line is not in common format
+     */
+    protected FTPFile tokenize(final String entry) {
+        final int length = entry.length();
+        if(length < 10) {
+            return null;
+        }
+        if(StringUtils.indexOf("bcdlfmpSs-", entry.charAt(0)) == -1) {
+            return null;
+        }
+        for(int i = 1; i < 10; i += 3) {
+            if(StringUtils.indexOf("r-", entry.charAt(i)) == -1) {
+                return null;
+            }
+            if(StringUtils.indexOf("w-", entry.charAt(i + 1)) == -1) {
+                return null;
+            }
+            if(StringUtils.indexOf("xsStTL-", entry.charAt(i + 2)) == -1) {
+                return null;
+            }
+        }
+        int position = 10;
+        if(position < length && entry.charAt(position) == '+') {
+            position++;
+        }
+        // Hard link count
+        final int links = skip(entry, position);
+        if(links == position) {
+            return null;
+        }
+        final int linksEnd = digits(entry, links);
+        if(linksEnd == links) {
+            return null;
+        }
+        final int user = skip(entry, linksEnd);
+        if(user == linksEnd || user == length) {
+            return null;
+        }
+        final int userEnd = token(entry, user);
+        final int group = skip(entry, userEnd);
+        if(group == userEnd || group == length) {
+            return null;
+        }
+        final int groupEnd = token(entry, group);
+        final int size = skip(entry, groupEnd);
+        if(size == groupEnd || size == length) {
+            return null;
+        }
+        final int sizeEnd = token(entry, size);
+        if(digits(entry, size) != sizeEnd) {
+            // Missing group or human readable size
+            return null;
+        }
+        final int month = skip(entry, sizeEnd);
+        if(month == sizeEnd || month == length) {
+            return null;
+        }
+        final int monthEnd = token(entry, month);
+        for(int i = month; i < monthEnd; i++) {
+            if(entry.charAt(i) == '-' || entry.charAt(i) == '/') {
+                // Numeric date
+                return null;
+            }
+        }
+        final int day = skip(entry, monthEnd);
+        if(day == monthEnd || day == length) {
+            return null;
+        }
+        final int dayEnd = token(entry, day);
+        final int time = skip(entry, dayEnd);
+        if(time == dayEnd || time == length) {
+            return null;
+        }
+        final int timeEnd = token(entry, time);
+        if(timeEnd == length) {
+            return null;
+        }
+        int name;
+        if(timeEnd - time == 4 && digits(entry, time) == timeEnd) {
+            // Year followed by one or two whitespace characters
+            name = timeEnd + 1;
+            if(name < length && whitespace(entry.charAt(name))) {
+                name++;
+            }
+        }
+        else {
+            final int colon = digits(entry, time);
+            if(colon == time || colon - time > 2 || colon == timeEnd || entry.charAt(colon) != ':') {
+                return null;
+            }
+            if(timeEnd - colon != 3 || digits(entry, colon + 1) != timeEnd) {
+                return null;
+            }
+            name = timeEnd + 1;
+        }
+        // Filename must contain at least one non whitespace character and no line terminator
+        boolean valid = false;
+        for(int i = name; i < length; i++) {
+            final char c = entry.charAt(i);
+            if(terminator(c)) {
+                return null;
+            }
+            if(!whitespace(c)) {
+                valid = true;
+            }
+        }
+        if(!valid) {
+            return null;
+        }
+        long filesize;
+        try {
+            filesize = Long.parseLong(entry.substring(size, sizeEnd));
+        }
+        catch(NumberFormatException e) {
+            filesize = -1;
+        }
+        return this.parseFTPEntry(entry.substring(0, 1), entry.substring(1, 10),
+                entry.substring(user, userEnd), entry.substring(group, groupEnd), filesize,
+                entry.substring(month, dayEnd) + " " + entry.substring(time, timeEnd),
+                entry.substring(name), StringUtils.EMPTY);
+    }
+
+    /**
+     * @return Index of first non whitespace character at or after offset
+     */
+    private static int skip(final String entry, final int offset) {
+        int i = offset;
+        while(i < entry.length() && whitespace(entry.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return Index of first whitespace character at or after offset
+     */
+    private static int token(final String entry, final int offset) {
+        int i = offset;
+        while(i < entry.length() && !whitespace(entry.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return Index of first character that is not a digit at or after offset
+     */
+    private static int digits(final String entry, final int offset) {
+        int i = offset;
+        while(i < entry.length() && entry.charAt(i) >= '0' && entry.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return True if matched by \s in regular expression
+     */
+    private static boolean whitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return True if not matched by . in regular expression
+     */
+    private static boolean terminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
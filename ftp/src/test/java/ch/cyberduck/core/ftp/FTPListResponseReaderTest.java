@@ -30,6 +30,9 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -251,4 +254,25 @@ public class FTPListResponseReaderTest {
         assertNull(list.get(2).getSymlinkTarget());
         assertFalse(list.get(2).isSymbolicLink());
     }
+
+    @Test
+    public void testReadChunked() throws Exception {
+        final Path directory = new Path("/", EnumSet.of(Path.Type.directory));
+        final List<Integer> chunks = new ArrayList<Integer>();
+        final AttributedList<Path> list = new FTPListResponseReader(new FTPParserSelector().getParser("UNIX"), false, 2)
+                .read(directory, new BufferedReader(new StringReader(
+                        "total 3\n" +
+                                "-rw-r--r--   1 user group 1024 Jun 12 15:40 a\n" +
+                                "-rw-r--r--   1 user group 1024 Jun 12 15:40 b\n" +
+                                "-rw-r--r--   1 user group 1024 Jun 12 15:40 c\n")), new DisabledListProgressListener() {
+                    @Override
+                    public void chunk(final Path folder, final AttributedList<Path> list) {
+                        assertEquals(directory, folder);
+                        chunks.add(list.size());
+                    }
+                });
+        assertEquals(3, list.size());
+        assertEquals("a", list.get(0).getName());
+        assertEquals(Collections.singletonList(2), chunks);
+    }
 }
@@ -23,10 +23,12 @@ import ch.cyberduck.core.Host;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.test.IntegrationTest;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.EnumSet;
@@ -288,4 +290,13 @@ public class FTPMlsdListResponseReaderTest {
                 .read(directory, Arrays.asList(replies), new DisabledListProgressListener());
         assertEquals(2, children.size());
     }
+
+    @Test
+    public void testParseFactsCorpus() throws Exception {
+        final FTPMlsdListResponseReader reader = new FTPMlsdListResponseReader();
+        for(String line : IOUtils.readLines(this.getClass().getResourceAsStream("/ch/cyberduck/core/ftp/parser/mlsd.txt"),
+                StandardCharsets.UTF_8)) {
+            assertEquals(line, reader.parsePattern(line), reader.parseFacts(line));
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package ch.cyberduck.core.ftp.parser;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FastUnixFTPEntryParserTest {
+
+    @Test
+    public void testCorpus() throws Exception {
+        final LaxUnixFTPEntryParser expected = new LaxUnixFTPEntryParser();
+        expected.configure(null);
+        final FastUnixFTPEntryParser parser = new FastUnixFTPEntryParser();
+        parser.configure(null);
+        final List<String> lines = IOUtils.readLines(this.getClass().getResourceAsStream("/ch/cyberduck/core/ftp/parser/unix.txt"),
+                StandardCharsets.UTF_8);
+        int tokenized = 0;
+        for(String line : lines) {
+            if(parser.tokenize(line) != null) {
+                tokenized++;
+            }
+            assertSame(line, expected.parseFTPEntry(line), parser.parseFTPEntry(line));
+        }
+        assertTrue(tokenized > lines.size() / 2);
+    }
+
+    @Test
+    public void testTokenize() {
+        final FastUnixFTPEntryParser parser = new FastUnixFTPEntryParser();
+        parser.configure(null);
+        final FTPFile parsed = parser.tokenize("lrwxrwxrwx   1 user     group          11 Jan  5  2004  link -> ../target dir");
+        assertNotNull(parsed);
+        assertEquals(FTPFile.SYMBOLIC_LINK_TYPE, parsed.getType());
+        assertEquals("link", parsed.getName());
+        assertEquals("../target dir", parsed.getLink());
+        assertEquals(11L, parsed.getSize());
+        assertEquals("user", parsed.getUser());
+        assertEquals("group", parsed.getGroup());
+        assertEquals(2004, parsed.getTimestamp().get(Calendar.YEAR));
+        assertNull(parser.tokenize("-rw-r--r--   1 user                  1024 Jun 12 15:40 missing group"));
+        assertNull(parser.tokenize("-rw-r--r--   1 user     group        1.5k Jun 12 15:40 human readable"));
+        assertNull(parser.tokenize("-rw-r--r--   1 user     group        1024 2017-01-02 10:00 numeric date"));
+    }
+
+    private static void assertSame(final String line, final FTPFile expected, final FTPFile parsed) {
+        if(null == expected) {
+            assertNull(line, parsed);
+            return;
+        }
+        assertNotNull(line, parsed);
+        assertEquals(line, expected.getName(), parsed.getName());
+        assertEquals(line, expected.getLink(), parsed.getLink());
+        assertEquals(line, expected.getType(), parsed.getType());
+        assertEquals(line, expected.getSize(), parsed.getSize());
+        assertEquals(line, expected.getUser(), parsed.getUser());
+        assertEquals(line, expected.getGroup(), parsed.getGroup());
+        if(null == expected.getTimestamp()) {
+            assertNull(line, parsed.getTimestamp());
+        }
+        else {
+            assertEquals(line, expected.getTimestamp().getTimeInMillis(), parsed.getTimestamp().getTimeInMillis());
+        }
+        for(int access = 0; access < 3; access++) {
+            for(int permission = 0; permission < 3; permission++) {
+                assertEquals(line, expected.hasPermission(access, permission), parsed.hasPermission(access, permission));
+            }
+        }
+        assertEquals(line, ((FTPExtendedFile) expected).isSetuid(), ((FTPExtendedFile) parsed).isSetuid());
+        assertEquals(line, ((FTPExtendedFile) expected).isSetgid(), ((FTPExtendedFile) parsed).isSetgid());
+        assertEquals(line, ((FTPExtendedFile) expected).isSticky(), ((FTPExtendedFile) parsed).isSticky());
+    }
+}
@@ -0,0 +1,100 @@
+package ch.cyberduck.core.nio;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Factory;
+
+import org.apache.log4j.Logger;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+
+/**
+ * Clone file sharing data blocks with copy-on-write using FICLONE on Linux filesystems such as btrfs and XFS
+ */
+public class LibcReflinkService {
+    private static final Logger log = Logger.getLogger(LibcReflinkService.class);
+
+    /**
+     * _IOW(0x94, 9, int)
+     */
+    private static final NativeLong FICLONE = new NativeLong(0x40049409L);
+
+    private static final int O_RDONLY = 0;
+    private static final int O_WRONLY = 01;
+    private static final int O_CREAT = 0100;
+    private static final int O_TRUNC = 01000;
+
+    private static final CLibrary library = load();
+
+    private static CLibrary load() {
+        if(Factory.Platform.getDefault() != Factory.Platform.Name.linux) {
+            return null;
+        }
+        try {
+            return (CLibrary) Native.loadLibrary("c", CLibrary.class);
+        }
+        catch(LinkageError e) {
+            log.warn(String.format("Failure loading libc. %s", e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * @param source File to clone
+     * @param target File created or truncated
+     * @return False if not supported by platform or filesystem
+     */
+    public boolean clone(final java.nio.file.Path source, final java.nio.file.Path target) {
+        if(null == library) {
+            return false;
+        }
+        final int in = library.open(source.toString(), O_RDONLY, 0);
+        if(in == -1) {
+            return false;
+        }
+        try {
+            final int out = library.open(target.toString(), O_WRONLY | O_CREAT | O_TRUNC, 0666);
+            if(out == -1) {
+                return false;
+            }
+            try {
+                if(library.ioctl(out, FICLONE, in) == -1) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Clone of %s not supported with error %d", source, Native.getLastError()));
+                    }
+                    return false;
+                }
+                return true;
+            }
+            finally {
+                library.close(out);
+            }
+        }
+        finally {
+            library.close(in);
+        }
+    }
+
+    public interface CLibrary extends Library {
+        int open(String path, int flags, int mode);
+
+        int ioctl(int fd, NativeLong request, int arg);
+
+        int close(int fd);
+    }
+}
@@ -54,15 +54,30 @@ public class LocalAttributesFinderFeature implements AttributesFinder {
     }
 
     protected PathAttributes convert(final java.nio.file.Path file) throws IOException {
-        final boolean isPosix = session.isPosixFilesystem();
+        return this.convert(file, this.read(file));
+    }
+
+    /**
+     * Read all attributes with a single call without following symbolic links
+     *
+     * @return Posix attributes if supported by filesystem
+     */
+    protected BasicFileAttributes read(final java.nio.file.Path file) throws IOException {
+        final Class<? extends BasicFileAttributes> provider = session.isPosixFilesystem() ? PosixFileAttributes.class : DosFileAttributes.class;
+        return Files.readAttributes(file, provider, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    /**
+     * @param file File
+     * @param a    Attributes previously read for file
+     */
+    protected PathAttributes convert(final java.nio.file.Path file, final BasicFileAttributes a) {
         final PathAttributes attributes = new PathAttributes();
-        final Class<? extends BasicFileAttributes> provider = isPosix ? PosixFileAttributes.class : DosFileAttributes.class;
-        final BasicFileAttributes a = Files.readAttributes(file, provider, LinkOption.NOFOLLOW_LINKS);
         attributes.setSize(a.size());
         attributes.setModificationDate(a.lastModifiedTime().toMillis());
         attributes.setCreationDate(a.creationTime().toMillis());
         attributes.setAccessedDate(a.lastAccessTime().toMillis());
-        if(isPosix) {
+        if(a instanceof PosixFileAttributes) {
             attributes.setOwner(((PosixFileAttributes) a).owner().getName());
             attributes.setGroup(((PosixFileAttributes) a).group().getName());
             attributes.setPermission(new Permission(PosixFilePermissions.toString(((PosixFileAttributes) a).permissions())));
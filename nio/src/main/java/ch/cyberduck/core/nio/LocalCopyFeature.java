@@ -19,34 +19,173 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Copy;
+import ch.cyberduck.core.io.StreamCancelation;
+import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.log4j.Logger;
+
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class LocalCopyFeature implements Copy {
+    private static final Logger log = Logger.getLogger(LocalCopyFeature.class);
+
+    private final Preferences preferences
+            = PreferencesFactory.get();
 
     private final LocalSession session;
+    private final LocalAttributesFinderFeature attributes;
+    private final LibcReflinkService reflink
+            = new LibcReflinkService();
 
     public LocalCopyFeature(final LocalSession session) {
         this.session = session;
+        this.attributes = new LocalAttributesFinderFeature(session);
     }
 
     @Override
     public Path copy(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
-            Files.copy(session.toPath(source), session.toPath(target), StandardCopyOption.REPLACE_EXISTING);
+            if(source.isDirectory()) {
+                this.tree(session.toPath(source), session.toPath(target), status);
+            }
+            else {
+                this.copy(session.toPath(source), session.toPath(target), status, status);
+            }
+            if(status.isCanceled()) {
+                throw new ConnectionCanceledException();
+            }
+            status.setComplete();
             // Copy attributes from original file
             return new Path(target.getParent(), target.getName(), target.getType(),
-                    new LocalAttributesFinderFeature(session).find(target));
+                    attributes.convert(session.toPath(target)));
         }
         catch(IOException e) {
             throw new LocalExceptionMappingService().map("Cannot copy {0}", e, source);
         }
     }
 
+    /**
+     * Copy directory tree with files copied concurrently
+     */
+    protected void tree(final java.nio.file.Path source, final java.nio.file.Path target, final TransferStatus status) throws IOException {
+        final ForkJoinPool pool = new ForkJoinPool(preferences.getInteger("local.copy.concurrency"));
+        try {
+            pool.invoke(new CopyAction(source, target, status));
+        }
+        catch(UncheckedIOException e) {
+            throw e.getCause();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Clone file if supported by filesystem or copy in kernel
+     */
+    protected void copy(final java.nio.file.Path source, final java.nio.file.Path target,
+                        final StreamCancelation cancel, final StreamProgress progress) throws IOException {
+        if(preferences.getBoolean("local.copy.reflink")) {
+            if(reflink.clone(source, target)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Cloned %s to %s", source, target));
+                }
+                progress.progress(Files.size(target));
+                progress.setComplete();
+                return;
+            }
+        }
+        final long chunksize = preferences.getLong("local.copy.chunksize");
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long size = in.size();
+            long position = 0L;
+            while(position < size) {
+                if(cancel.isCanceled()) {
+                    return;
+                }
+                final long transferred = in.transferTo(position, Math.min(chunksize, size - position), out);
+                if(transferred <= 0) {
+                    // Source truncated while copying
+                    break;
+                }
+                position += transferred;
+                progress.progress(transferred);
+            }
+        }
+        progress.setComplete();
+    }
+
+    private final class CopyAction extends RecursiveAction {
+        private final java.nio.file.Path source;
+        private final java.nio.file.Path target;
+        private final TransferStatus status;
+
+        public CopyAction(final java.nio.file.Path source, final java.nio.file.Path target, final TransferStatus status) {
+            this.source = source;
+            this.target = target;
+            this.status = status;
+        }
+
+        @Override
+        protected void compute() {
+            if(status.isCanceled()) {
+                return;
+            }
+            try {
+                final BasicFileAttributes a = Files.readAttributes(source, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                if(a.isDirectory()) {
+                    if(!Files.isDirectory(target)) {
+                        Files.createDirectory(target);
+                    }
+                    final List<CopyAction> children = new ArrayList<>();
+                    try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(source)) {
+                        for(java.nio.file.Path child : stream) {
+                            children.add(new CopyAction(child, target.resolve(child.getFileName().toString()), status));
+                        }
+                    }
+                    invokeAll(children);
+                }
+                else if(a.isSymbolicLink()) {
+                    Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, LinkOption.NOFOLLOW_LINKS);
+                }
+                else {
+                    LocalCopyFeature.this.copy(source, target, status, new StreamProgress() {
+                        @Override
+                        public void progress(final long bytes) {
+                            status.progress(bytes);
+                        }
+
+                        @Override
+                        public void setComplete() {
+                            // Complete with directory
+                        }
+                    });
+                }
+            }
+            catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     @Override
     public boolean isRecursive(final Path source, final Path target) {
         return true;
@@ -19,15 +19,24 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
-import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class LocalListService implements ListService {
     private static final Logger log = Logger.getLogger(LocalListService.class);
@@ -35,68 +44,150 @@ public class LocalListService implements ListService {
     private final LocalSession session;
     private final LocalAttributesFinderFeature feature;
 
+    /**
+     * Number of entries read before attributes of remaining entries are read concurrently
+     */
+    private final Integer threshold;
+    private final Integer concurrency;
+    private final Integer chunksize;
+
     public LocalListService(final LocalSession session) {
+        this(session, PreferencesFactory.get().getInteger("local.listing.parallel.threshold"),
+                PreferencesFactory.get().getInteger("local.listing.parallel.concurrency"));
+    }
+
+    public LocalListService(final LocalSession session, final Integer threshold, final Integer concurrency) {
         this.session = session;
         this.feature = new LocalAttributesFinderFeature(session);
+        this.threshold = threshold;
+        this.concurrency = concurrency;
+        this.chunksize = PreferencesFactory.get().getInteger("local.listing.chunksize");
     }
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         final AttributedList<ch.cyberduck.core.Path> paths = new AttributedList<>();
+        final List<Future<List<Path>>> batches = new ArrayList<>();
+        ThreadPool pool = null;
         try (DirectoryStream<java.nio.file.Path> directoryStream = Files.newDirectoryStream(session.toPath(directory))) {
+            List<java.nio.file.Path> batch = new ArrayList<>();
+            int count = 0;
             for(java.nio.file.Path path : directoryStream) {
                 if(null == path.getFileName()) {
                     continue;
                 }
-                try {
-                    final PathAttributes attributes = feature.convert(path);
-                    final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
-                    if(Files.isDirectory(path)) {
-                        type.add(Path.Type.directory);
-                    }
-                    if(Files.isRegularFile(path)) {
-                        type.add(Path.Type.file);
+                if(++count > threshold) {
+                    // Large directory
+                    if(null == pool) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Read attributes concurrently for directory %s with more than %d entries", directory, threshold));
+                        }
+                        pool = ThreadPoolFactory.get("listing", concurrency);
                     }
-                    if(Files.isSymbolicLink(path)) {
-                        type.add(Path.Type.symboliclink);
-                    }
-                    final Path file = new Path(directory, path.getFileName().toString(), type, attributes);
-                    if(this.post(path, file)) {
-                        paths.add(file);
-                        listener.chunk(directory, paths);
+                    batch.add(path);
+                    if(batch.size() == chunksize) {
+                        batches.add(this.submit(pool, directory, batch));
+                        batch = new ArrayList<>();
                     }
+                    continue;
+                }
+                final Path file = this.toPath(directory, path);
+                if(null == file) {
+                    continue;
                 }
-                catch(IOException e) {
-                    log.warn(String.format("Failure reading attributes for %s", path));
+                paths.add(file);
+                if(paths.size() % chunksize == 0) {
+                    listener.chunk(directory, paths);
                 }
             }
+            if(!batch.isEmpty()) {
+                batches.add(this.submit(pool, directory, batch));
+            }
+            for(Future<List<Path>> future : batches) {
+                paths.addAll(future.get());
+                listener.chunk(directory, paths);
+            }
         }
         catch(IOException ex) {
             throw new LocalExceptionMappingService().map("Listing directory {0} failed", ex, directory);
         }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+        finally {
+            if(pool != null) {
+                pool.shutdown(false);
+            }
+        }
+        listener.chunk(directory, paths);
         return paths;
     }
 
-    protected boolean post(final java.nio.file.Path path, final Path file) {
-        if(Files.isSymbolicLink(path)) {
-            final Path target;
-            Path.Type type;
-            try {
-                target = new Path(path.toRealPath().toString(), EnumSet.of(Path.Type.file));
-                if(Files.isDirectory(path.toRealPath())) {
-                    type = Path.Type.directory;
-                }
-                else {
-                    type = Path.Type.file;
+    private Future<List<Path>> submit(final ThreadPool pool, final Path directory, final List<java.nio.file.Path> batch) {
+        return pool.execute(() -> {
+            final List<Path> files = new ArrayList<>(batch.size());
+            for(java.nio.file.Path path : batch) {
+                final Path file = this.toPath(directory, path);
+                if(null == file) {
+                    continue;
                 }
-                file.setType(EnumSet.of(Path.Type.symboliclink, type));
-                target.setType(EnumSet.of(type));
-                file.setSymlinkTarget(target);
+                files.add(file);
+            }
+            return files;
+        });
+    }
+
+    /**
+     * @return Null if attributes cannot be read
+     */
+    protected Path toPath(final Path directory, final java.nio.file.Path path) {
+        try {
+            // Type is derived from the same attributes without additional lookup
+            final BasicFileAttributes a = feature.read(path);
+            final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
+            if(a.isDirectory()) {
+                type.add(Path.Type.directory);
+            }
+            if(a.isRegularFile()) {
+                type.add(Path.Type.file);
             }
-            catch(IOException e) {
-                log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
-                return false;
+            final Path file = new Path(directory, path.getFileName().toString(), type, feature.convert(path, a));
+            if(a.isSymbolicLink()) {
+                if(!this.post(path, file)) {
+                    return null;
+                }
             }
+            return file;
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading attributes for %s", path));
+            return null;
+        }
+    }
+
+    /**
+     * Resolve target of symbolic link
+     *
+     * @return False if target cannot be read
+     */
+    protected boolean post(final java.nio.file.Path path, final Path file) {
+        try {
+            // Resolve chain of links once. Fails for dangling link
+            final java.nio.file.Path link = path.toRealPath();
+            final Path.Type type = Files.readAttributes(link, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isDirectory() ? Path.Type.directory : Path.Type.file;
+            final Path target = new Path(link.toString(), EnumSet.of(type));
+            file.setType(EnumSet.of(Path.Type.symboliclink, type));
+            file.setSymlinkTarget(target);
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
+            return false;
         }
         return true;
     }
@@ -0,0 +1,83 @@
+package ch.cyberduck.core.nio;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class LocalCopyFeatureTest {
+
+    @Test
+    public void testCopyFile() throws Exception {
+        final LocalSession session = new LocalSession(new Host(new LocalProtocol(), new LocalProtocol().getDefaultHostname()));
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path workdir = new LocalHomeFinderFeature(session).find();
+        final Path source = new Path(workdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        final Path target = new Path(workdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        final byte[] content = RandomUtils.nextBytes(1024 * 1024 + 1);
+        Files.write(session.toPath(source), content);
+        final TransferStatus status = new TransferStatus().length(content.length);
+        final Path copy = new LocalCopyFeature(session).copy(source, target, status, new DisabledConnectionCallback());
+        assertEquals(content.length, copy.attributes().getSize());
+        assertEquals(content.length, status.getOffset());
+        assertTrue(status.isComplete());
+        assertArrayEquals(content, Files.readAllBytes(session.toPath(target)));
+        new LocalDeleteFeature(session).delete(Arrays.asList(source, target), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
+    @Test
+    public void testCopyDirectory() throws Exception {
+        final LocalSession session = new LocalSession(new Host(new LocalProtocol(), new LocalProtocol().getDefaultHostname()));
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path workdir = new LocalHomeFinderFeature(session).find();
+        final Path source = new Path(workdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        final Path target = new Path(workdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        final Path directory = new Path(source, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        new LocalDirectoryFeature(session).mkdir(source, null, new TransferStatus());
+        new LocalDirectoryFeature(session).mkdir(directory, null, new TransferStatus());
+        final byte[] content = RandomUtils.nextBytes(1000);
+        Files.write(session.toPath(file), content);
+        final TransferStatus status = new TransferStatus();
+        new LocalCopyFeature(session).copy(source, target, status, new DisabledConnectionCallback());
+        assertEquals(content.length, status.getOffset());
+        final Path copy = new Path(new Path(target, directory.getName(), EnumSet.of(Path.Type.directory)), file.getName(), EnumSet.of(Path.Type.file));
+        assertArrayEquals(content, Files.readAllBytes(session.toPath(copy)));
+        new LocalDeleteFeature(session).delete(Arrays.asList(file, directory, source, copy, copy.getParent(), target),
+                new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+}
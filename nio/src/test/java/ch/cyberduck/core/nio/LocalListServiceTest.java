@@ -32,8 +32,11 @@ import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -59,6 +62,31 @@ public class LocalListServiceTest {
         session.close();
     }
 
+    @Test
+    public void testListConcurrent() throws Exception {
+        final LocalSession session = new LocalSession(new Host(new LocalProtocol(), new LocalProtocol().getDefaultHostname()));
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path home = new LocalHomeFinderFeature(session).find();
+        final Path directory = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new LocalDirectoryFeature(session).mkdir(directory, null, new TransferStatus());
+        final List<Path> files = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            final Path file = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+            new LocalTouchFeature(session).touch(file, new TransferStatus());
+            files.add(file);
+        }
+        final AttributedList<Path> list = new LocalListService(session, 2, 2).list(directory, new DisabledListProgressListener());
+        assertEquals(10, list.size());
+        for(Path file : files) {
+            assertTrue(list.contains(file));
+            assertTrue(list.get(file).isFile());
+        }
+        new LocalDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        new LocalDeleteFeature(session).delete(Collections.singletonList(directory), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test
     public void testListSymlink() throws Exception {
         final LocalSession session = new LocalSession(new Host(new LocalProtocol(), new LocalProtocol().getDefaultHostname()));
@@ -74,13 +102,19 @@ public class LocalListServiceTest {
             new LocalTouchFeature(session).touch(file, new TransferStatus());
             new LocalSymlinkFeature(session).symlink(symlinkRelative, file.getName());
             new LocalSymlinkFeature(session).symlink(symlinkAbsolute, file.getAbsolute());
+            // Link to link resolved to final target
+            final Path symlinkChain = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file, AbstractPath.Type.symboliclink));
+            new LocalSymlinkFeature(session).symlink(symlinkChain, symlinkRelative.getName());
             final AttributedList<Path> list = new LocalListService(session).list(home, new DisabledListProgressListener());
             assertTrue(list.contains(file));
             assertTrue(list.contains(symlinkRelative));
             assertTrue(list.get(symlinkRelative).getSymlinkTarget().getAbsolute().endsWith(file.getAbsolute()));
             assertTrue(list.contains(symlinkAbsolute));
             assertTrue(list.get(symlinkAbsolute).getSymlinkTarget().getAbsolute().endsWith(file.getAbsolute()));
-            new LocalDeleteFeature(session).delete(Arrays.asList(file, symlinkAbsolute, symlinkRelative), new DisabledLoginCallback(), new Delete.DisabledCallback());
+            assertTrue(list.contains(symlinkChain));
+            assertTrue(list.get(symlinkChain).getSymlinkTarget().getAbsolute().endsWith(file.getAbsolute()));
+            assertTrue(list.get(symlinkChain).isFile());
+            new LocalDeleteFeature(session).delete(Arrays.asList(file, symlinkAbsolute, symlinkRelative, symlinkChain), new DisabledLoginCallback(), new Delete.DisabledCallback());
             session.close();
         }
         else {
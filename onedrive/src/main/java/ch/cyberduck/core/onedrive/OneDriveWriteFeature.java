@@ -131,7 +131,7 @@ public class OneDriveWriteFeature implements Write<Void> {
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
-            final byte[] content = Arrays.copyOfRange(b, off, len);
+            final byte[] content = Arrays.copyOfRange(b, off, off + len);
             final HttpRange range = HttpRange.byLength(offset, content.length);
             final String header;
             if(status.getLength() == -1L) {
@@ -37,6 +37,7 @@ import ch.cyberduck.core.onedrive.OneDriveProtocol;
 import ch.cyberduck.core.openstack.SwiftProtocol;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.s3.S3MultipartUploadJournal;
 import ch.cyberduck.core.s3.S3Protocol;
 import ch.cyberduck.core.sds.SDSProtocol;
 import ch.cyberduck.core.sftp.SFTPProtocol;
@@ -92,6 +93,8 @@ public final class MainApplication {
                     new LocalProtocol(),
                     new SDSProtocol()
             );
+            // Delete multipart uploads saved locally and not resumed
+            S3MultipartUploadJournal.expire();
             if(log.isInfoEnabled()) {
                 log.info(String.format("Running version %s", NSBundle.mainBundle()
                         .objectForInfoDictionaryKey("CFBundleVersion").toString()));
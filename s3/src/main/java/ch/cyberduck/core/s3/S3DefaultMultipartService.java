@@ -126,6 +126,12 @@ public class S3DefaultMultipartService implements S3MultipartService {
         }
         try {
             session.getClient().multipartAbortUpload(upload);
+            // Discard completed parts saved locally
+            final S3MultipartUploadJournal journal = new S3MultipartUploadJournal(upload);
+            final MultipartUpload saved = journal.find();
+            if(null != saved && saved.getUploadId().equals(upload.getUploadId())) {
+                journal.delete();
+            }
         }
         catch(S3ServiceException e) {
             throw new S3ExceptionMappingService().map("Cannot delete {0}", e,
@@ -0,0 +1,240 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.jets3t.service.model.MultipartPart;
+import org.jets3t.service.model.MultipartUpload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Multipart upload in progress for an object saved locally. The first line is the upload ID followed by one line
+ * per completed part. Resuming from the saved upload does not require listing multipart uploads or parts on the server.
+ */
+public class S3MultipartUploadJournal {
+    private static final Logger log = Logger.getLogger(S3MultipartUploadJournal.class);
+
+    private final Local file;
+    private final String bucket;
+    private final String key;
+
+    /**
+     * Upload ID saved or found
+     */
+    private String upload;
+
+    public S3MultipartUploadJournal(final MultipartUpload multipart) {
+        this(multipart.getBucketName(), multipart.getObjectKey());
+    }
+
+    public S3MultipartUploadJournal(final String bucket, final String key) {
+        this(directory(), bucket, key);
+    }
+
+    public S3MultipartUploadJournal(final Local directory, final MultipartUpload multipart) {
+        this(directory, multipart.getBucketName(), multipart.getObjectKey());
+    }
+
+    public S3MultipartUploadJournal(final Local directory, final String bucket, final String key) {
+        this.bucket = bucket;
+        this.key = key;
+        this.file = LocalFactory.get(directory, String.format("%s.parts", DigestUtils.sha1Hex(
+                String.format("%s/%s", bucket, key))));
+    }
+
+    private static Local directory() {
+        return LocalFactory.get(PreferencesFactory.get().getProperty("application.support.path"), "Multipart");
+    }
+
+    /**
+     * Save new upload replacing any previous upload saved for the object
+     */
+    public synchronized void start(final MultipartUpload multipart) {
+        upload = multipart.getUploadId();
+        this.write(String.format("%s\n", multipart.getUploadId()), false);
+    }
+
+    /**
+     * @return Upload saved or null if not found
+     */
+    public synchronized MultipartUpload find() {
+        final List<String> lines = this.lines();
+        if(lines.isEmpty() || StringUtils.isBlank(lines.get(0))) {
+            return null;
+        }
+        upload = StringUtils.trim(lines.get(0));
+        return new MultipartUpload(upload, bucket, key);
+    }
+
+    /**
+     * @return Completed parts by part number. Empty if no parts have been saved.
+     */
+    public synchronized Map<Integer, MultipartPart> read() {
+        final Map<Integer, MultipartPart> parts = new TreeMap<Integer, MultipartPart>();
+        final List<String> lines = this.lines();
+        // Skip upload ID
+        for(String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            final String[] fields = StringUtils.split(line, ' ');
+            if(fields.length != 4) {
+                // Incomplete line written before interruption
+                log.warn(String.format("Skip invalid line %s in %s", line, file));
+                continue;
+            }
+            try {
+                final Integer number = Integer.valueOf(fields[0]);
+                parts.put(number, new MultipartPart(number, new Date(Long.parseLong(fields[3])), fields[1], Long.valueOf(fields[2])));
+            }
+            catch(NumberFormatException e) {
+                log.warn(String.format("Skip invalid line %s in %s", line, file));
+            }
+        }
+        return parts;
+    }
+
+    private List<String> lines() {
+        if(!file.exists()) {
+            return Collections.emptyList();
+        }
+        InputStream in = null;
+        try {
+            in = file.getInputStream();
+            return IOUtils.readLines(in, StandardCharsets.UTF_8);
+        }
+        catch(AccessDeniedException | IOException e) {
+            log.warn(String.format("Failure reading %s. %s", file, e.getMessage()));
+            return Collections.emptyList();
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Append completed part. Ignored if the upload is no longer the one saved.
+     */
+    public synchronized void write(final MultipartUpload multipart, final MultipartPart part) {
+        if(!StringUtils.equals(upload, multipart.getUploadId())) {
+            log.warn(String.format("Skip saving part %d of upload %s replaced in %s", part.getPartNumber(), multipart.getUploadId(), file));
+            return;
+        }
+        this.write(String.format("%d %s %d %d\n", part.getPartNumber(), part.getEtag(), part.getSize(),
+                part.getLastModified().getTime()), true);
+    }
+
+    private void write(final String line, final boolean append) {
+        OutputStream out = null;
+        try {
+            final Local directory = file.getParent();
+            if(!directory.exists()) {
+                directory.mkdir();
+            }
+            out = file.getOutputStream(append);
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+        }
+        catch(AccessDeniedException | IOException e) {
+            log.warn(String.format("Failure saving to %s. %s", file, e.getMessage()));
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    /**
+     * Remove saved parts after completion of upload
+     */
+    public synchronized void delete() {
+        if(file.exists()) {
+            try {
+                file.delete();
+            }
+            catch(AccessDeniedException e) {
+                log.warn(String.format("Failure deleting %s. %s", file, e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Remove saved uploads not resumed within the number of days in <code>s3.upload.multipart.persist.expiry</code>.
+     * To run once on startup.
+     */
+    public static void expire() {
+        expire(directory(), TimeUnit.DAYS.toMillis(PreferencesFactory.get().getLong("s3.upload.multipart.persist.expiry")));
+    }
+
+    /**
+     * Remove saved uploads not modified within the given period
+     *
+     * @param directory Folder with saved uploads
+     * @param age       Milliseconds since last modification
+     */
+    public static void expire(final Local directory, final long age) {
+        if(!directory.exists()) {
+            return;
+        }
+        try {
+            final long threshold = System.currentTimeMillis() - age;
+            for(Local f : directory.list(new Filter<String>() {
+                @Override
+                public boolean accept(final String name) {
+                    return name.endsWith(".parts");
+                }
+
+                @Override
+                public Pattern toPattern() {
+                    return Pattern.compile(".*\\.parts");
+                }
+            })) {
+                if(f.attributes().getModificationDate() < threshold) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Delete expired parts %s", f));
+                    }
+                    f.delete();
+                }
+            }
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure expiring parts in %s. %s", directory, e.getMessage()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("S3MultipartUploadJournal{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
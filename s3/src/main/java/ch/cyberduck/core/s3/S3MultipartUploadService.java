@@ -27,6 +27,7 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
@@ -35,6 +36,7 @@ import ch.cyberduck.core.io.MD5ChecksumCompute;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
@@ -55,11 +57,14 @@ import org.jets3t.service.model.StorageObject;
 
 import java.security.MessageDigest;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -84,6 +89,11 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
 
     private final Integer concurrency;
 
+    /**
+     * Maximum number of parts submitted and not yet completed
+     */
+    private final Integer window;
+
     public S3MultipartUploadService(final S3Session session, final Write<StorageObject> writer) {
         this(session, writer, PreferencesFactory.get().getLong("s3.upload.multipart.size"),
                 PreferencesFactory.get().getInteger("s3.upload.multipart.concurrency"));
@@ -96,96 +106,110 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         this.writer = writer;
         this.partsize = partsize;
         this.concurrency = concurrency;
+        // Keep connections busy while waiting for the oldest part to complete
+        this.window = Math.max(1, concurrency) * 2;
     }
 
     @Override
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                                 final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         final DefaultThreadPool pool = new DefaultThreadPool("multipart", concurrency);
+        // Length of object including parts already uploaded
+        final long length = status.getOffset() + status.getLength();
         try {
+            final S3MultipartUploadJournal journal = preferences.getBoolean("s3.upload.multipart.persist.enable") ?
+                    new S3MultipartUploadJournal(containerService.getContainer(file).getName(), containerService.getKey(file)) : null;
             MultipartUpload multipart = null;
-            try {
-                if(status.isAppend() || status.isRetry()) {
-                    final List<MultipartUpload> list = multipartService.find(file);
-                    if(!list.isEmpty()) {
-                        multipart = list.iterator().next();
+            // Completed parts by part number
+            final Map<Integer, MultipartPart> completed = new TreeMap<Integer, MultipartPart>();
+            // Resume with upload and parts saved locally without listing on server
+            boolean saved = false;
+            if(status.isAppend() || status.isRetry()) {
+                if(null != journal) {
+                    multipart = journal.find();
+                    if(null != multipart) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Resume multipart upload %s saved in %s", multipart.getUploadId(), journal));
+                        }
+                        completed.putAll(journal.read());
+                        saved = true;
+                    }
+                }
+                if(null == multipart) {
+                    try {
+                        final List<MultipartUpload> list = multipartService.find(file);
+                        if(!list.isEmpty()) {
+                            multipart = list.iterator().next();
+                            // Add already completed parts
+                            for(MultipartPart part : multipartService.list(multipart)) {
+                                completed.put(part.getPartNumber(), part);
+                            }
+                            if(null != journal) {
+                                // Save to resume without listing next time
+                                journal.start(multipart);
+                                for(MultipartPart part : completed.values()) {
+                                    journal.write(multipart, part);
+                                }
+                            }
+                        }
+                    }
+                    catch(AccessDeniedException | InteroperabilityException e) {
+                        log.warn(String.format("Ignore failure listing incomplete multipart uploads. %s", e.getDetail()));
+                        multipart = null;
+                        completed.clear();
                     }
                 }
             }
-            catch(AccessDeniedException | InteroperabilityException e) {
-                log.warn(String.format("Ignore failure listing incomplete multipart uploads. %s", e.getDetail()));
-            }
-            final List<MultipartPart> completed = new ArrayList<MultipartPart>();
             // Not found or new upload
             if(null == multipart) {
                 if(log.isInfoEnabled()) {
                     log.info("No pending multipart upload found");
                 }
-                final S3Object object = new S3WriteFeature(session, new S3DisabledMultipartService())
-                    .getDetails(file, status);
-                // ID for the initiated multipart upload.
-                multipart = session.getClient().multipartStartUpload(containerService.getContainer(file).getName(), object);
-                if(log.isDebugEnabled()) {
-                    log.debug(String.format("Multipart upload started for %s with ID %s", multipart.getObjectKey(), multipart.getUploadId()));
-                }
-            }
-            else {
-                if(status.isAppend() || status.isRetry()) {
-                    // Add already completed parts
-                    completed.addAll(multipartService.list(multipart));
-                }
+                multipart = this.start(file, status, journal);
             }
             try {
-                final List<Future<MultipartPart>> parts = new ArrayList<Future<MultipartPart>>();
-                long remaining = status.getLength();
-                long offset = 0;
-                for(int partNumber = 1; remaining > 0; partNumber++) {
-                    boolean skip = false;
-                    if(status.isAppend() || status.isRetry()) {
-                        if(log.isInfoEnabled()) {
-                            log.info(String.format("Determine if part number %d can be skipped", partNumber));
-                        }
-                        for(MultipartPart c : completed) {
-                            if(c.getPartNumber().equals(partNumber)) {
-                                if(log.isInfoEnabled()) {
-                                    log.info(String.format("Skip completed part number %d", partNumber));
-                                }
-                                skip = true;
-                                offset += c.getSize();
-                                break;
-                            }
-                        }
-                    }
-                    if(!skip) {
-                        // Last part can be less than 5 MB. Adjust part size.
-                        final Long length = Math.min(Math.max(((status.getLength() + status.getOffset()) / S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS), partsize), remaining);
-                        // Submit to queue
-                        parts.add(this.submit(pool, file, local, throttle, listener, status, multipart, partNumber, offset, length, callback));
-                        remaining -= length;
-                        offset += length;
+                MultipartCompleted complete;
+                try {
+                    complete = this.upload(pool, file, local, throttle, listener, status, length, multipart, journal, completed, callback);
+                }
+                catch(NotfoundException e) {
+                    if(!saved) {
+                        throw e;
                     }
+                    log.warn(String.format("Upload %s saved in %s no longer found. %s", multipart.getUploadId(), journal, e.getDetail()));
+                    completed.clear();
+                    multipart = this.start(file, status, journal);
+                    complete = this.upload(pool, file, local, throttle, listener, status, length, multipart, journal, completed, callback);
                 }
-                for(Future<MultipartPart> future : parts) {
-                    try {
-                        completed.add(future.get());
+                catch(ServiceException e) {
+                    if(!saved) {
+                        throw e;
                     }
-                    catch(InterruptedException e) {
-                        log.error("Part upload failed with interrupt failure");
-                        status.setCanceled();
-                        throw new ConnectionCanceledException(e);
+                    if("NoSuchUpload".equals(e.getErrorCode())) {
+                        log.warn(String.format("Upload %s saved in %s no longer found. %s", multipart.getUploadId(), journal, e.getErrorMessage()));
+                        completed.clear();
+                        multipart = this.start(file, status, journal);
                     }
-                    catch(ExecutionException e) {
-                        log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
-                        if(e.getCause() instanceof BackgroundException) {
-                            throw (BackgroundException) e.getCause();
+                    else if("InvalidPart".equals(e.getErrorCode())) {
+                        log.warn(String.format("Parts of %s saved in %s not found. Resume with parts listed on server. %s",
+                                multipart.getUploadId(), journal, e.getErrorMessage()));
+                        completed.clear();
+                        for(MultipartPart part : multipartService.list(multipart)) {
+                            completed.put(part.getPartNumber(), part);
                         }
-                        throw new BackgroundException(e.getCause());
+                        journal.start(multipart);
+                        for(MultipartPart part : completed.values()) {
+                            journal.write(multipart, part);
+                        }
+                    }
+                    else {
+                        throw e;
                     }
+                    complete = this.upload(pool, file, local, throttle, listener, status, length, multipart, journal, completed, callback);
+                }
+                if(null != journal) {
+                    journal.delete();
                 }
-                // Combining all the given parts into the final object. Processing of a Complete Multipart Upload request
-                // could take several minutes to complete. Because a request could fail after the initial 200 OK response
-                // has been sent, it is important that you check the response body to determine whether the request succeeded.
-                final MultipartCompleted complete = session.getClient().multipartCompleteUpload(multipart, completed);
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Completed multipart upload for %s with %d parts and checksum %s",
                             complete.getObjectKey(), completed.size(), complete.getEtag()));
@@ -194,9 +218,9 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                     log.warn(String.format("Skip checksum verification for %s with client side encryption enabled", file));
                 }
                 else {
-                    completed.sort(new MultipartPart.PartNumberComparator());
                     final StringBuilder concat = new StringBuilder();
-                    for(MultipartPart part : completed) {
+                    // Sorted by part number
+                    for(MultipartPart part : completed.values()) {
                         concat.append(part.getEtag());
                     }
                     final String expected = String.format("%s-%d",
@@ -235,10 +259,97 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         }
     }
 
+    private MultipartUpload start(final Path file, final TransferStatus status, final S3MultipartUploadJournal journal) throws BackgroundException, ServiceException {
+        final S3Object object = new S3WriteFeature(session, new S3DisabledMultipartService())
+                .getDetails(file, status);
+        // ID for the initiated multipart upload.
+        final MultipartUpload multipart = session.getClient().multipartStartUpload(containerService.getContainer(file).getName(), object);
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Multipart upload started for %s with ID %s", multipart.getObjectKey(), multipart.getUploadId()));
+        }
+        if(null != journal) {
+            journal.start(multipart);
+        }
+        return multipart;
+    }
+
+    /**
+     * Upload parts not completed and combine all parts
+     *
+     * @param length    Length of object
+     * @param completed Parts already uploaded by part number. Parts uploaded are added.
+     */
+    private MultipartCompleted upload(final ThreadPool pool, final Path file, final Local local, final BandwidthThrottle throttle,
+                                      final StreamListener listener, final TransferStatus status, final long length,
+                                      final MultipartUpload multipart,
+                                      final S3MultipartUploadJournal journal, final Map<Integer, MultipartPart> completed,
+                                      final ConnectionCallback callback) throws BackgroundException, ServiceException {
+        final Deque<Future<MultipartPart>> parts = new ArrayDeque<Future<MultipartPart>>();
+        try {
+            long remaining = length;
+            long offset = 0;
+            for(int partNumber = 1; remaining > 0; partNumber++) {
+                final MultipartPart c = completed.get(partNumber);
+                if(null != c) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip completed part number %d", partNumber));
+                    }
+                    remaining -= c.getSize();
+                    offset += c.getSize();
+                }
+                else {
+                    if(parts.size() >= window) {
+                        // Wait for oldest part before submitting more
+                        final MultipartPart part = this.await(parts.poll(), status);
+                        completed.put(part.getPartNumber(), part);
+                    }
+                    // Last part can be less than 5 MB. Adjust part size.
+                    final Long size = Math.min(Math.max((length / S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS), partsize), remaining);
+                    // Submit to queue
+                    parts.add(this.submit(pool, file, local, throttle, listener, status, multipart, journal, partNumber, offset, size, callback));
+                    remaining -= size;
+                    offset += size;
+                }
+            }
+            while(!parts.isEmpty()) {
+                final MultipartPart part = this.await(parts.poll(), status);
+                completed.put(part.getPartNumber(), part);
+            }
+        }
+        finally {
+            for(Future<MultipartPart> f : parts) {
+                // Cancel parts not started when failed
+                f.cancel(false);
+            }
+        }
+        // Combining all the given parts into the final object. Processing of a Complete Multipart Upload request
+        // could take several minutes to complete. Because a request could fail after the initial 200 OK response
+        // has been sent, it is important that you check the response body to determine whether the request succeeded.
+        return session.getClient().multipartCompleteUpload(multipart, new ArrayList<MultipartPart>(completed.values()));
+    }
+
+    private MultipartPart await(final Future<MultipartPart> future, final TransferStatus status) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            log.error("Part upload failed with interrupt failure");
+            status.setCanceled();
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+    }
+
     private Future<MultipartPart> submit(final ThreadPool pool, final Path file, final Local local,
                                          final BandwidthThrottle throttle, final StreamListener listener,
                                          final TransferStatus overall, final MultipartUpload multipart,
-                                         final int partNumber, final long offset, final long length, final ConnectionCallback callback) throws BackgroundException {
+                                         final S3MultipartUploadJournal journal, final int partNumber, final long offset, final long length, final ConnectionCallback callback) throws BackgroundException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
         }
@@ -265,6 +376,7 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                         break;
                 }
                 status.setSegment(true);
+                final long start = System.nanoTime();
                 final StorageObject part = S3MultipartUploadService.super.upload(
                         file, local, throttle, listener, status, overall, new StreamProgress() {
                             @Override
@@ -279,17 +391,22 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                                 status.setComplete();
                             }
                         }, callback);
+                MetricsRegistry.get().time(session.getHost(), MetricsRegistry.MULTIPART_PART, start);
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Received response %s for part number %d", part, partNumber));
                 }
                 // Populate part with response data that is accessible via the object's metadata
-                return new MultipartPart(partNumber,
+                final MultipartPart completed = new MultipartPart(partNumber,
                         null == part.getLastModifiedDate() ? new Date(System.currentTimeMillis()) : part.getLastModifiedDate(),
                         null == part.getETag() ? StringUtils.EMPTY : part.getETag(),
                         part.getContentLength());
-
+                if(null != journal) {
+                    journal.write(multipart, completed);
+                }
+                return completed;
             }
-        }, overall));
+        }, overall, preferences.getInteger("s3.upload.multipart.retry"),
+                preferences.getInteger("s3.upload.multipart.retry.delay"), true));
     }
 
     @Override
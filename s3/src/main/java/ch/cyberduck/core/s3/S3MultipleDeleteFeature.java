@@ -17,20 +17,28 @@ package ch.cyberduck.core.s3;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.IndexedListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.S3VersionIdProvider;
-import ch.cyberduck.core.collections.Partition;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
-import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.features.StreamingDelete;
 import ch.cyberduck.core.features.Versioning;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.AdaptiveConcurrencyLimit;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
 import org.apache.log4j.Logger;
 import org.jets3t.service.ServiceException;
 import org.jets3t.service.model.MultipartUpload;
@@ -38,14 +46,31 @@ import org.jets3t.service.model.MultipleDeleteResult;
 import org.jets3t.service.model.container.ObjectKeyAndVersion;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
-public class S3MultipleDeleteFeature implements Delete {
+public class S3MultipleDeleteFeature implements StreamingDelete {
     private static final Logger log = Logger.getLogger(S3MultipleDeleteFeature.class);
 
+    /**
+     * Number of attempts for keys throttled by the server
+     */
+    private static final int MAX_ATTEMPTS = 10;
+
+    /**
+     * Delay in milliseconds before first retry of throttled keys doubled for every attempt
+     */
+    private static final long INITIAL_DELAY = 100L;
+    private static final long MAX_DELAY = 20000L;
+
+    private final Preferences preferences
+            = PreferencesFactory.get();
+
     private final S3Session session;
 
     private final PathContainerService containerService
@@ -152,10 +177,175 @@ public class S3MultipleDeleteFeature implements Delete {
                 }
             }
             else {
-                // Request contains a list of up to 1000 keys that you want to delete
-                for(List<ObjectKeyAndVersion> partition : new Partition<ObjectKeyAndVersion>(keys, PreferencesFactory.get().getInteger("s3.delete.multiple.partition"))) {
+                final Batch batch = new Batch(container);
+                try {
+                    for(ObjectKeyAndVersion key : keys) {
+                        batch.add(key);
+                    }
+                }
+                catch(ConnectionCanceledException e) {
+                    // Report failure deleting previous partition
+                    batch.close();
+                    throw e;
+                }
+                batch.close();
+            }
+        }
+        catch(ServiceException e) {
+            throw new S3ExceptionMappingService().map("Cannot delete {0}", e, container);
+        }
+    }
+
+    @Override
+    public boolean isPurgeable(final Path directory) {
+        return true;
+    }
+
+    /**
+     * Delete all keys with the prefix of the directory while listing recursively without waiting for the listing
+     * to complete. Only the latest version of each key is deleted.
+     *
+     * @param directory Directory with keys to delete including its placeholder or bucket
+     */
+    @Override
+    public void purge(final Path directory, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
+        final Path container = containerService.getContainer(directory);
+        if(versioningService != null
+                && versioningService.getConfiguration(container).isMultifactor()) {
+            final List<ObjectKeyAndVersion> keys = new ArrayList<ObjectKeyAndVersion>();
+            for(Path file : new S3ObjectListService(session).list(directory, new DisabledListProgressListener(), null,
+                    preferences.getInteger("s3.listing.chunksize"))) {
+                callback.delete(file);
+                keys.add(new ObjectKeyAndVersion(containerService.getKey(file)));
+            }
+            if(!containerService.isContainer(directory)) {
+                callback.delete(directory);
+                keys.add(new ObjectKeyAndVersion(containerService.getKey(directory)));
+            }
+            if(!keys.isEmpty()) {
+                this.delete(container, keys, prompt);
+            }
+        }
+        else {
+            final Batch batch = new Batch(container);
+            try {
+                new S3ObjectListService(session).list(directory, new IndexedListProgressListener() {
+                    @Override
+                    public void visit(final AttributedList<Path> list, final int index, final Path file) throws ConnectionCanceledException {
+                        callback.delete(file);
+                        batch.add(new ObjectKeyAndVersion(containerService.getKey(file)));
+                    }
+
+                    @Override
+                    public void message(final String message) {
+                        //
+                    }
+                }, null, preferences.getInteger("s3.listing.chunksize"));
+                if(!containerService.isContainer(directory)) {
+                    callback.delete(directory);
+                    batch.add(new ObjectKeyAndVersion(containerService.getKey(directory)));
+                }
+            }
+            catch(BackgroundException e) {
+                // Report failure deleting previous partition instead of canceled listing
+                batch.close();
+                throw e;
+            }
+            batch.close();
+        }
+        if(containerService.isContainer(directory)) {
+            // Delete bucket when empty
+            this.delete(Collections.singletonList(directory), prompt, callback);
+        }
+    }
+
+    /**
+     * Multi-Object Delete requests sent concurrently for partitions of keys as they are added with the number of
+     * requests in flight reduced when the server responds with SlowDown
+     */
+    private final class Batch {
+        private final Path container;
+        private final int partition;
+        private final AdaptiveConcurrencyLimit limit;
+        private final ThreadPool pool;
+        private final List<Future<Void>> requests = new ArrayList<Future<Void>>();
+
+        private List<ObjectKeyAndVersion> keys;
+
+        /**
+         * First failure of any partition
+         */
+        private volatile BackgroundException failure;
+
+        public Batch(final Path container) {
+            this.container = container;
+            this.partition = preferences.getInteger("s3.delete.multiple.partition");
+            this.limit = new AdaptiveConcurrencyLimit(preferences.getInteger("s3.delete.multiple.concurrency"));
+            this.pool = ThreadPoolFactory.get("delete", preferences.getInteger("s3.delete.multiple.concurrency"));
+            this.keys = new ArrayList<ObjectKeyAndVersion>(partition);
+        }
+
+        /**
+         * Submit partition when full waiting for a request to complete if the limit of requests in flight is reached
+         *
+         * @throws ConnectionCanceledException Interrupted or failure deleting previous partition
+         */
+        public void add(final ObjectKeyAndVersion key) throws ConnectionCanceledException {
+            if(failure != null) {
+                throw new ConnectionCanceledException(failure);
+            }
+            keys.add(key);
+            if(keys.size() == partition) {
+                this.submit();
+            }
+        }
+
+        private void submit() throws ConnectionCanceledException {
+            final List<ObjectKeyAndVersion> submitted = keys;
+            keys = new ArrayList<ObjectKeyAndVersion>(partition);
+            try {
+                limit.acquire();
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            // Discard completed requests
+            requests.removeIf(Future::isDone);
+            requests.add(pool.execute(new BackgroundExceptionCallable<Void>() {
+                @Override
+                public Void call() throws BackgroundException {
+                    try {
+                        delete(submitted);
+                        return null;
+                    }
+                    catch(BackgroundException e) {
+                        if(null == failure) {
+                            failure = e;
+                        }
+                        throw e;
+                    }
+                    finally {
+                        limit.release();
+                    }
+                }
+            }));
+        }
+
+        /**
+         * Retry keys throttled with backoff
+         */
+        private void delete(final List<ObjectKeyAndVersion> submitted) throws BackgroundException {
+            List<ObjectKeyAndVersion> pending = submitted;
+            for(int attempt = 0; ; attempt++) {
+                if(failure != null) {
+                    throw new ConnectionCanceledException(failure);
+                }
+                final List<ObjectKeyAndVersion> throttled = new ArrayList<ObjectKeyAndVersion>();
+                // Last reply asking to slow down
+                ServiceException reason = null;
+                try {
                     final MultipleDeleteResult result = session.getClient().deleteMultipleObjects(container.getName(),
-                            partition.toArray(new ObjectKeyAndVersion[partition.size()]),
+                            pending.toArray(new ObjectKeyAndVersion[pending.size()]),
                             // Only include errors in response
                             true);
                     if(result.hasErrors()) {
@@ -164,18 +354,83 @@ public class S3MultipleDeleteFeature implements Delete {
                                 // Ignore failure deleting placeholder
                                 continue;
                             }
-                            final ServiceException failure = new ServiceException();
-                            failure.setErrorCode(error.getErrorCode());
-                            failure.setErrorMessage(error.getMessage());
-                            throw new S3ExceptionMappingService().map("Cannot delete {0}", failure,
+                            if(StringUtils.equals("SlowDown", error.getErrorCode())) {
+                                throttled.add(new ObjectKeyAndVersion(error.getKey(), error.getVersion()));
+                                reason = new ServiceException();
+                                reason.setErrorCode(error.getErrorCode());
+                                reason.setErrorMessage(error.getMessage());
+                                continue;
+                            }
+                            final ServiceException e = new ServiceException();
+                            e.setErrorCode(error.getErrorCode());
+                            e.setErrorMessage(error.getMessage());
+                            throw new S3ExceptionMappingService().map("Cannot delete {0}", e,
                                     new Path(container, error.getKey(), EnumSet.of(Path.Type.file)));
                         }
                     }
                 }
+                catch(ServiceException e) {
+                    if(e.getResponseCode() != HttpStatus.SC_SERVICE_UNAVAILABLE && !StringUtils.equals("SlowDown", e.getErrorCode())) {
+                        throw new S3ExceptionMappingService().map("Cannot delete {0}", e, container);
+                    }
+                    throttled.addAll(pending);
+                    reason = e;
+                }
+                if(throttled.isEmpty()) {
+                    limit.success();
+                    return;
+                }
+                if(attempt == MAX_ATTEMPTS) {
+                    log.warn(String.format("Give up deleting %d keys throttled by server", throttled.size()));
+                    throw new S3ExceptionMappingService().map("Cannot delete {0}", reason, container);
+                }
+                limit.decrease();
+                final long delay = Math.min(MAX_DELAY, INITIAL_DELAY << attempt);
+                log.warn(String.format("Retry deleting %d keys throttled by server in %dms", throttled.size(), delay));
+                try {
+                    Thread.sleep(delay);
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                pending = throttled;
             }
         }
-        catch(ServiceException e) {
-            throw new S3ExceptionMappingService().map("Cannot delete {0}", e, container);
+
+        /**
+         * Submit remaining keys and wait for all requests to complete
+         */
+        public void close() throws BackgroundException {
+            try {
+                if(null == failure && !keys.isEmpty()) {
+                    this.submit();
+                }
+                for(Future<Void> request : requests) {
+                    if(failure != null) {
+                        // Report first failure instead of cancellation of later partitions
+                        throw failure;
+                    }
+                    request.get();
+                }
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                if(failure != null) {
+                    throw failure;
+                }
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new BackgroundException(e.getCause());
+            }
+            finally {
+                pool.shutdown(false);
+            }
+            if(failure != null) {
+                throw failure;
+            }
         }
     }
 
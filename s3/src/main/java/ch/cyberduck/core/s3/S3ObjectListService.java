@@ -28,8 +28,12 @@ import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -37,7 +41,12 @@ import org.jets3t.service.ServiceException;
 import org.jets3t.service.StorageObjectsChunk;
 import org.jets3t.service.model.StorageObject;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class S3ObjectListService implements ListService {
     private static final Logger log = Logger.getLogger(S3ObjectListService.class);
@@ -51,9 +60,19 @@ public class S3ObjectListService implements ListService {
     private final S3Session session;
     private final S3AttributesFinderFeature attributes;
 
+    /**
+     * Maximum number of concurrent requests for recursive listings. Disabled for 1
+     */
+    private final int concurrency;
+
     public S3ObjectListService(final S3Session session) {
+        this(session, PreferencesFactory.get().getInteger("s3.listing.concurrency"));
+    }
+
+    public S3ObjectListService(final S3Session session, final int concurrency) {
         this.session = session;
         this.attributes = new S3AttributesFinderFeature(session);
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -64,69 +83,20 @@ public class S3ObjectListService implements ListService {
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter, final int chunksize) throws BackgroundException {
         try {
             final String prefix = this.createPrefix(directory);
-            // If this optional, Unicode string parameter is included with your request,
-            // then keys that contain the same string between the prefix and the first
-            // occurrence of the delimiter will be rolled up into a single result
-            // element in the CommonPrefixes collection. These rolled-up keys are
-            // not returned elsewhere in the response.
-            final Path bucket = containerService.getContainer(directory);
             final AttributedList<Path> children = new AttributedList<Path>();
             // Null if listing is complete
             String priorLastKey = null;
             do {
-                // Read directory listing in chunks. List results are always returned
-                // in lexicographic (alphabetical) order.
-                final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
-                        PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, delimiter,
-                        chunksize, priorLastKey);
-
-                final StorageObject[] objects = chunk.getObjects();
-                for(StorageObject object : objects) {
-                    final String key = PathNormalizer.normalize(object.getKey());
-                    if(String.valueOf(Path.DELIMITER).equals(key)) {
-                        log.warn(String.format("Skipping prefix %s", key));
-                        continue;
-                    }
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
-                        continue;
-                    }
-                    final EnumSet<AbstractPath.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
-                            ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
-                    final Path file;
-                    final PathAttributes attributes = this.attributes.convert(object);
-                    // Copy bucket location
-                    attributes.setRegion(bucket.attributes().getRegion());
-                    if(null == delimiter) {
-                        file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), types, attributes);
-                    }
-                    else {
-                        file = new Path(directory, PathNormalizer.name(key), types, attributes);
-                    }
-                    children.add(file);
-                }
-                final String[] prefixes = chunk.getCommonPrefixes();
-                for(String common : prefixes) {
-                    if(String.valueOf(Path.DELIMITER).equals(common)) {
-                        log.warn(String.format("Skipping prefix %s", common));
-                        continue;
-                    }
-                    final String key = PathNormalizer.normalize(common);
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
-                        continue;
-                    }
-                    final Path file;
-                    final PathAttributes attributes = new PathAttributes();
-                    if(null == delimiter) {
-                        file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                    }
-                    else {
-                        file = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                    }
-                    attributes.setRegion(bucket.attributes().getRegion());
-                    children.add(file);
-                }
+                final StorageObjectsChunk chunk = this.chunk(directory, prefix, delimiter, chunksize, priorLastKey, null, children);
                 priorLastKey = chunk.getPriorLastKey();
                 listener.chunk(directory, children);
+                if(null == delimiter && null != priorLastKey && concurrency > 1) {
+                    // Recursive listing not complete with first chunk
+                    final StorageObject[] objects = chunk.getObjects();
+                    if(objects.length > 0) {
+                        return this.parallel(directory, listener, prefix, chunksize, objects[0].getKey(), priorLastKey, children);
+                    }
+                }
             }
             while(priorLastKey != null);
             return children;
@@ -136,6 +106,211 @@ public class S3ObjectListService implements ListService {
         }
     }
 
+    /**
+     * List the keys remaining after the first chunk of a recursive listing in ranges concurrently and merge
+     * in order
+     *
+     * @param first First key in first chunk
+     * @param last  Last key in first chunk
+     */
+    private AttributedList<Path> parallel(final Path directory, final ListProgressListener listener, final String prefix,
+                                          final int chunksize, final String first, final String last,
+                                          final AttributedList<Path> children) throws BackgroundException {
+        // No more ranges than concurrent requests as boundaries do not account for the density of keys
+        final List<String> boundaries = this.split(prefix, first, last, concurrency - 1);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("List %s in %d ranges with boundaries %s", directory, boundaries.size() + 1, boundaries));
+        }
+        final ThreadPool pool = ThreadPoolFactory.get("listing", concurrency);
+        try {
+            final List<Future<AttributedList<Path>>> ranges = new ArrayList<Future<AttributedList<Path>>>();
+            String marker = last;
+            for(String boundary : boundaries) {
+                ranges.add(this.submit(pool, directory, prefix, chunksize, marker, boundary));
+                marker = boundary;
+            }
+            ranges.add(this.submit(pool, directory, prefix, chunksize, marker, null));
+            for(Future<AttributedList<Path>> range : ranges) {
+                for(Path file : range.get()) {
+                    children.add(file);
+                }
+                listener.chunk(directory, children);
+            }
+            return children;
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+        finally {
+            // Cancel ranges not yet listed
+            pool.shutdown(false);
+        }
+    }
+
+    /**
+     * @param marker   List keys after marker
+     * @param boundary Last key included in range or null to list to the end
+     */
+    private Future<AttributedList<Path>> submit(final ThreadPool pool, final Path directory, final String prefix,
+                                                final int chunksize, final String marker, final String boundary) {
+        return pool.execute(new BackgroundExceptionCallable<AttributedList<Path>>() {
+            @Override
+            public AttributedList<Path> call() throws BackgroundException {
+                try {
+                    final AttributedList<Path> children = new AttributedList<Path>();
+                    String priorLastKey = marker;
+                    do {
+                        priorLastKey = chunk(directory, prefix, null, chunksize, priorLastKey, boundary, children).getPriorLastKey();
+                        if(null != boundary && null != priorLastKey && priorLastKey.compareTo(boundary) >= 0) {
+                            // Reached start of next range
+                            break;
+                        }
+                    }
+                    while(priorLastKey != null);
+                    return children;
+                }
+                catch(ServiceException e) {
+                    throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+                }
+            }
+        });
+    }
+
+    /**
+     * Split the keyspace following the last key of the first chunk into ranges. Boundaries are chosen by incrementing
+     * the character of the last key at each position from the end of the prefix up to the first position where
+     * the first and last key differ, keeping the character class of the key at that position. Keys sharing a
+     * common leading part such as a date or a counter are distributed over multiple ranges while coarse levels
+     * cover the remaining keyspace. Any key not matching the expected characters is still listed in the range
+     * following the closest boundary.
+     *
+     * @param prefix Prefix of all keys
+     * @param first  First key listed
+     * @param last   Last key listed
+     * @param limit  Maximum number of boundaries
+     * @return Sorted keys each ending a range
+     */
+    protected List<String> split(final String prefix, final String first, final String last, final int limit) {
+        int position = prefix.length();
+        while(position < last.length() - 1 && position < first.length() && first.charAt(position) == last.charAt(position)) {
+            position++;
+        }
+        final TreeSet<String> boundaries = new TreeSet<String>();
+        for(int i = prefix.length(); i <= position && i < last.length(); i++) {
+            final List<String> level = new ArrayList<String>();
+            final char c = last.charAt(i);
+            for(char next : this.successors(c)) {
+                level.add(last.substring(0, i) + next);
+            }
+            if(boundaries.size() + level.size() > limit) {
+                // Finer ranges would exceed the number of concurrent requests
+                break;
+            }
+            boundaries.addAll(level);
+        }
+        return new ArrayList<String>(boundaries);
+    }
+
+    /**
+     * @return Characters of the same class following character
+     */
+    private List<Character> successors(final char c) {
+        final List<Character> successors = new ArrayList<Character>();
+        if(c >= '0' && c <= '9') {
+            for(char next = (char) (c + 1); next <= '9'; next++) {
+                successors.add(next);
+            }
+        }
+        else if(c >= 'A' && c <= 'Z') {
+            for(char next = (char) (c + 1); next <= 'Z'; next++) {
+                successors.add(next);
+            }
+        }
+        else if(c >= 'a' && c <= 'z') {
+            for(char next = (char) (c + 1); next <= 'z'; next++) {
+                successors.add(next);
+            }
+        }
+        return successors;
+    }
+
+    /**
+     * Read directory listing in chunks. List results are always returned in lexicographic (alphabetical) order.
+     *
+     * @param priorLastKey List keys after this key or null to start at the beginning
+     * @param boundary     Skip keys following this key or null
+     * @param children     Listing to add files to
+     */
+    private StorageObjectsChunk chunk(final Path directory, final String prefix, final String delimiter, final int chunksize,
+                                      final String priorLastKey, final String boundary,
+                                      final AttributedList<Path> children) throws ServiceException {
+        // If this optional, Unicode string parameter is included with your request,
+        // then keys that contain the same string between the prefix and the first
+        // occurrence of the delimiter will be rolled up into a single result
+        // element in the CommonPrefixes collection. These rolled-up keys are
+        // not returned elsewhere in the response.
+        final Path bucket = containerService.getContainer(directory);
+        final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, delimiter,
+                chunksize, priorLastKey);
+        final StorageObject[] objects = chunk.getObjects();
+        for(StorageObject object : objects) {
+            if(null != boundary && object.getKey().compareTo(boundary) > 0) {
+                // Listed in next range
+                break;
+            }
+            final String key = PathNormalizer.normalize(object.getKey());
+            if(String.valueOf(Path.DELIMITER).equals(key)) {
+                log.warn(String.format("Skipping prefix %s", key));
+                continue;
+            }
+            if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                continue;
+            }
+            final EnumSet<AbstractPath.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
+                    ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
+            final Path file;
+            final PathAttributes attributes = this.attributes.convert(object);
+            // Copy bucket location
+            attributes.setRegion(bucket.attributes().getRegion());
+            if(null == delimiter) {
+                file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), types, attributes);
+            }
+            else {
+                file = new Path(directory, PathNormalizer.name(key), types, attributes);
+            }
+            children.add(file);
+        }
+        final String[] prefixes = chunk.getCommonPrefixes();
+        for(String common : prefixes) {
+            if(String.valueOf(Path.DELIMITER).equals(common)) {
+                log.warn(String.format("Skipping prefix %s", common));
+                continue;
+            }
+            final String key = PathNormalizer.normalize(common);
+            if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                continue;
+            }
+            final Path file;
+            final PathAttributes attributes = new PathAttributes();
+            if(null == delimiter) {
+                file = new Path(String.format("%s%s%s", bucket.getAbsolute(), String.valueOf(Path.DELIMITER), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+            }
+            else {
+                file = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
+            }
+            attributes.setRegion(bucket.attributes().getRegion());
+            children.add(file);
+        }
+        return chunk;
+    }
+
     protected String createPrefix(final Path directory) {
         // Keys can be listed by prefix. By choosing a common prefix
         // for the names of related keys and marking these keys with
@@ -158,6 +158,18 @@ public class S3WriteFeature extends AbstractHttpWriteFeature<StorageObject> impl
     public Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
         if(length >= preferences.getLong("s3.upload.multipart.threshold")) {
             if(preferences.getBoolean("s3.upload.multipart")) {
+                if(preferences.getBoolean("s3.upload.multipart.persist.enable")) {
+                    final S3MultipartUploadJournal journal = new S3MultipartUploadJournal(
+                            containerService.getContainer(file).getName(), containerService.getKey(file));
+                    if(null != journal.find()) {
+                        // Resume with parts saved locally
+                        Long size = 0L;
+                        for(MultipartPart completed : journal.read().values()) {
+                            size += completed.getSize();
+                        }
+                        return new Append(size);
+                    }
+                }
                 try {
                     final List<MultipartUpload> upload = multipartService.find(file);
                     if(!upload.isEmpty()) {
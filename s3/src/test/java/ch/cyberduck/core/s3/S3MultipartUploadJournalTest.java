@@ -0,0 +1,99 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+
+import org.jets3t.service.model.MultipartPart;
+import org.jets3t.service.model.MultipartUpload;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class S3MultipartUploadJournalTest {
+
+    @Test
+    public void testReadWrite() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final MultipartUpload multipart = new MultipartUpload(UUID.randomUUID().toString(), "test-us-east-1-cyberduck", "k");
+        final S3MultipartUploadJournal journal = new S3MultipartUploadJournal(directory, multipart);
+        assertNull(journal.find());
+        assertTrue(journal.read().isEmpty());
+        journal.start(multipart);
+        journal.write(multipart, new MultipartPart(2, new Date(1000L), "e2", 10485760L));
+        journal.write(multipart, new MultipartPart(1, new Date(2000L), "e1", 10485760L));
+        final S3MultipartUploadJournal saved = new S3MultipartUploadJournal(directory, "test-us-east-1-cyberduck", "k");
+        final MultipartUpload found = saved.find();
+        assertNotNull(found);
+        assertEquals(multipart.getUploadId(), found.getUploadId());
+        assertEquals("test-us-east-1-cyberduck", found.getBucketName());
+        assertEquals("k", found.getObjectKey());
+        final Map<Integer, MultipartPart> parts = saved.read();
+        assertEquals(2, parts.size());
+        assertEquals(Integer.valueOf(1), parts.keySet().iterator().next());
+        assertEquals("e2", parts.get(2).getEtag());
+        assertEquals(10485760L, parts.get(2).getSize(), 0L);
+        assertEquals(1000L, parts.get(2).getLastModified().getTime());
+        assertTrue(new S3MultipartUploadJournal(directory, "test-us-east-1-cyberduck", "l").read().isEmpty());
+        journal.delete();
+        assertNull(journal.find());
+        assertTrue(journal.read().isEmpty());
+        directory.delete();
+    }
+
+    @Test
+    public void testReplaceUpload() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final MultipartUpload previous = new MultipartUpload(UUID.randomUUID().toString(), "test-us-east-1-cyberduck", "k");
+        final S3MultipartUploadJournal journal = new S3MultipartUploadJournal(directory, previous);
+        journal.start(previous);
+        journal.write(previous, new MultipartPart(1, new Date(1000L), "e1", 10485760L));
+        final MultipartUpload multipart = new MultipartUpload(UUID.randomUUID().toString(), "test-us-east-1-cyberduck", "k");
+        journal.start(multipart);
+        assertTrue(journal.read().isEmpty());
+        // Part of previous upload completed after replaced
+        journal.write(previous, new MultipartPart(2, new Date(1000L), "e2", 10485760L));
+        assertTrue(journal.read().isEmpty());
+        journal.write(multipart, new MultipartPart(1, new Date(1000L), "e1", 10485760L));
+        assertEquals(multipart.getUploadId(), new S3MultipartUploadJournal(directory, previous).find().getUploadId());
+        assertEquals(1, journal.read().size());
+        journal.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final MultipartUpload multipart = new MultipartUpload(UUID.randomUUID().toString(), "test-us-east-1-cyberduck", "a");
+        final S3MultipartUploadJournal journal = new S3MultipartUploadJournal(directory, multipart);
+        journal.start(multipart);
+        journal.write(multipart, new MultipartPart(1, new Date(1000L), "e1", 10485760L));
+        S3MultipartUploadJournal.expire(directory, TimeUnit.DAYS.toMillis(1L));
+        assertEquals(1, journal.read().size());
+        for(Local f : directory.list()) {
+            f.attributes().setModificationDate(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2L));
+        }
+        S3MultipartUploadJournal.expire(directory, TimeUnit.DAYS.toMillis(1L));
+        assertNull(journal.find());
+        assertTrue(journal.read().isEmpty());
+        directory.delete();
+    }
+}
@@ -86,6 +86,40 @@ public class S3MultipleDeleteFeatureTest {
         session.close();
     }
 
+    @Test
+    public void testPurge() throws Exception {
+        final S3Session session = new S3Session(
+                new Host(new S3Protocol(), new S3Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("s3.key"), System.getProperties().getProperty("s3.secret")
+                        )));
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path container = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.volume));
+        final Path directory = new S3DirectoryFeature(session, new S3WriteFeature(session, new S3DisabledMultipartService())).mkdir(
+                new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final List<Path> files = new ArrayList<Path>();
+        for(int i = 0; i < 5; i++) {
+            final Path file = new Path(directory, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+            new S3TouchFeature(session).touch(file, new TransferStatus());
+            files.add(file);
+        }
+        final List<Path> deleted = new ArrayList<Path>();
+        new S3MultipleDeleteFeature(session).purge(directory, new DisabledLoginCallback(), new Delete.Callback() {
+            @Override
+            public void delete(final Path file) {
+                deleted.add(file);
+            }
+        });
+        assertTrue(deleted.containsAll(files));
+        assertTrue(deleted.contains(directory));
+        for(Path file : files) {
+            assertFalse(new S3FindFeature(session).find(file));
+        }
+        assertFalse(new S3FindFeature(session).find(directory));
+        session.close();
+    }
+
     @Test
     public void testDeleteVersionedPlaceholder() throws Exception {
         final S3Session session = new S3Session(
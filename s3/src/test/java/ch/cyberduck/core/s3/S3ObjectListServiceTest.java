@@ -46,6 +46,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -81,6 +82,41 @@ public class S3ObjectListServiceTest {
         session.close();
     }
 
+    @Test
+    public void testListRecursiveConcurrent() throws Exception {
+        final S3Session session = new S3Session(
+                new Host(new S3Protocol(), new S3Protocol().getDefaultHostname(),
+                        new Credentials(
+                                System.getProperties().getProperty("s3.key"), System.getProperties().getProperty("s3.secret")
+                        )));
+        session.open(new DisabledHostKeyCallback());
+        session.login(new DisabledPasswordStore(), new DisabledLoginCallback(), new DisabledCancelCallback());
+        final Path container = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.volume));
+        container.attributes().setRegion("us-east-1");
+        final AttributedList<Path> sequential = new S3ObjectListService(session, 1).list(container, new DisabledListProgressListener(), null, 5);
+        final AttributedList<Path> concurrent = new S3ObjectListService(session, 10).list(container, new DisabledListProgressListener(), null, 5);
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential.toList(), concurrent.toList());
+        session.close();
+    }
+
+    @Test
+    public void testSplit() {
+        final S3ObjectListService service = new S3ObjectListService(new S3Session(new Host(new S3Protocol())), 10);
+        assertEquals(Arrays.asList("d/3", "d/4", "d/5", "d/6", "d/7", "d/8", "d/9"),
+                service.split("d/", "d/2017-01-01", "d/2", 40));
+        final List<String> boundaries = service.split("d/", "d/2017-01-01", "d/2017-02-01", 50);
+        assertTrue(boundaries.contains("d/3"));
+        assertTrue(boundaries.contains("d/2018"));
+        assertTrue(boundaries.contains("d/2017-03"));
+        assertFalse(boundaries.contains("d/2017-02-02"));
+        for(String boundary : boundaries) {
+            assertTrue(boundary.compareTo("d/2017-02-01") > 0);
+        }
+        assertTrue(service.split("d/", "d/a", "d/z", 40).isEmpty());
+        assertTrue(service.split("d/", "d/a", "d/b", 10).isEmpty());
+    }
+
     @Test
     public void testDirectory() throws Exception {
         final S3Session session = new S3Session(
@@ -96,7 +96,7 @@ public class SpectraSession extends S3Session {
             return (T) new SpectraUploadFeature(new SpectraWriteFeature(this), new SpectraBulkService(this));
         }
         if(type == Download.class) {
-            return (T) new DefaultDownloadFeature(new SpectraReadFeature(this, new SpectraBulkService(this)));
+            return (T) new DefaultDownloadFeature(new SpectraReadFeature(this, new SpectraBulkService(this)), host);
         }
         if(type == Headers.class || type == Metadata.class) {
             return null;
@@ -26,31 +26,57 @@ import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.unicode.NFCNormalizer;
 
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import net.schmizz.concurrent.Promise;
 import net.schmizz.sshj.sftp.FileMode;
+import net.schmizz.sshj.sftp.PacketType;
 import net.schmizz.sshj.sftp.RemoteDirectory;
 import net.schmizz.sshj.sftp.RemoteResourceFilter;
 import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
 import net.schmizz.sshj.sftp.SFTPException;
 
 public class SFTPListService implements ListService {
     private static final Logger log = Logger.getLogger(SFTPListService.class);
 
+    private final Preferences preferences = PreferencesFactory.get();
+
     private final NFCNormalizer normalizer = new NFCNormalizer();
 
     private final SFTPSession session;
 
     private final SFTPAttributesFinderFeature feature;
 
+    /**
+     * Maximum number of outstanding requests to resolve symbolic links
+     */
+    private final int maxunconfirmed;
+    private final int chunksize;
+    private final long interval;
+
     public SFTPListService(final SFTPSession session) {
         this.session = session;
         this.feature = new SFTPAttributesFinderFeature(session);
+        this.maxunconfirmed = Math.max(1, preferences.getInteger("sftp.listing.symlink.maxunconfirmed"));
+        this.chunksize = Math.max(1, preferences.getInteger("sftp.listing.chunksize"));
+        this.interval = preferences.getLong("sftp.listing.chunk.interval");
     }
 
     @Override
@@ -58,6 +84,7 @@ public class SFTPListService implements ListService {
         try {
             final AttributedList<Path> children = new AttributedList<Path>();
             final RemoteDirectory handle = session.sftp().openDir(directory.getAbsolute());
+            final List<Path> files = new ArrayList<Path>();
             for(RemoteResourceInfo f : handle.scan(new RemoteResourceFilter() {
                 @Override
                 public boolean accept(RemoteResourceInfo remoteResourceInfo) {
@@ -75,13 +102,24 @@ public class SFTPListService implements ListService {
                 if(f.getAttributes().getType().equals(FileMode.Type.SYMLINK)) {
                     type.add(Path.Type.symboliclink);
                 }
-                final Path file = new Path(directory, normalizer.normalize(f.getName()).toString(), type, attributes);
-                if(this.post(file)) {
-                    children.add(file);
+                files.add(new Path(directory, normalizer.normalize(f.getName()).toString(), type, attributes));
+            }
+            handle.close();
+            int notified = 0;
+            long timestamp = System.currentTimeMillis();
+            for(int i = 0; i < files.size(); i += maxunconfirmed) {
+                // Resolve symbolic links of batch with pipelined requests
+                final List<Path> batch = files.subList(i, Math.min(files.size(), i + maxunconfirmed));
+                children.addAll(this.post(batch));
+                if(children.size() - notified >= chunksize || System.currentTimeMillis() - timestamp >= interval) {
                     listener.chunk(directory, children);
+                    notified = children.size();
+                    timestamp = System.currentTimeMillis();
                 }
             }
-            handle.close();
+            if(children.size() != notified) {
+                listener.chunk(directory, children);
+            }
             return children;
         }
         catch(IOException e) {
@@ -90,11 +128,37 @@ public class SFTPListService implements ListService {
     }
 
     protected boolean post(final Path file) throws BackgroundException {
-        if(file.isSymbolicLink()) {
-            final Path target;
-            Path.Type type;
+        return !this.post(Collections.singletonList(file)).isEmpty();
+    }
+
+    /**
+     * Resolve targets of symbolic links with all requests sent before waiting for the first reply
+     *
+     * @param files Files in directory
+     * @return Files with resolved symbolic links. Excludes symbolic links that cannot be read.
+     */
+    protected List<Path> post(final List<Path> files) throws BackgroundException {
+        final SFTPEngine sftp = session.sftp();
+        final Set<Path> failed = new HashSet<Path>();
+        final Map<Path, Promise<Response, SFTPException>> links = new LinkedHashMap<Path, Promise<Response, SFTPException>>();
+        for(Path file : files) {
+            if(file.isSymbolicLink()) {
+                try {
+                    links.put(file, sftp.request(sftp.newRequest(PacketType.READLINK).putString(file.getAbsolute())));
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
+                    failed.add(file);
+                }
+            }
+        }
+        final Map<Path, Path> targets = new LinkedHashMap<Path, Path>();
+        final Map<Path, Promise<Response, SFTPException>> stats = new LinkedHashMap<Path, Promise<Response, SFTPException>>();
+        for(Map.Entry<Path, Promise<Response, SFTPException>> entry : links.entrySet()) {
+            final Path file = entry.getKey();
             try {
-                final String link = session.sftp().readLink(file.getAbsolute());
+                final String link = this.name(entry.getValue().retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS));
+                final Path target;
                 if(link.startsWith(String.valueOf(Path.DELIMITER))) {
                     target = new Path(link, EnumSet.of(Path.Type.file));
                 }
@@ -102,40 +166,71 @@ public class SFTPListService implements ListService {
                     target = new Path(String.format("%s/%s", file.getParent().getAbsolute(), link),
                             EnumSet.of(Path.Type.file));
                 }
-                try {
-                    if(session.sftp().stat(target.getAbsolute()).getType().equals(FileMode.Type.DIRECTORY)) {
-                        type = Path.Type.directory;
-                    }
-                    else {
-                        type = Path.Type.file;
-                    }
+                targets.put(file, target);
+                stats.put(file, sftp.request(sftp.newRequest(PacketType.STAT).putString(target.getAbsolute())));
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
+                failed.add(file);
+            }
+        }
+        for(Map.Entry<Path, Promise<Response, SFTPException>> entry : stats.entrySet()) {
+            final Path file = entry.getKey();
+            final Path target = targets.get(file);
+            Path.Type type;
+            try {
+                if(entry.getValue().retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                        .ensurePacketTypeIs(PacketType.ATTRS).readFileAttributes().getType().equals(FileMode.Type.DIRECTORY)) {
+                    type = Path.Type.directory;
                 }
-                catch(SFTPException e) {
-                    final BackgroundException reason = new SFTPExceptionMappingService().map(e);
-                    if(reason instanceof NotfoundException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof AccessDeniedException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof InteroperabilityException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else {
-                        log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
-                        throw reason;
-                    }
+                else {
                     type = Path.Type.file;
                 }
-                file.setType(EnumSet.of(Path.Type.symboliclink, type));
-                target.setType(EnumSet.of(type));
-                file.setSymlinkTarget(target);
+            }
+            catch(SFTPException e) {
+                final BackgroundException reason = new SFTPExceptionMappingService().map(e);
+                if(reason instanceof NotfoundException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof AccessDeniedException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof InteroperabilityException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else {
+                    log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
+                    throw reason;
+                }
+                type = Path.Type.file;
             }
             catch(IOException e) {
                 log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
-                return false;
+                failed.add(file);
+                continue;
+            }
+            file.setType(EnumSet.of(Path.Type.symboliclink, type));
+            target.setType(EnumSet.of(type));
+            file.setSymlinkTarget(target);
+        }
+        final List<Path> result = new ArrayList<Path>(files.size());
+        for(Path file : files) {
+            if(!failed.contains(file)) {
+                result.add(file);
             }
         }
-        return true;
+        return result;
+    }
+
+    /**
+     * @param response Reply to READLINK request
+     * @return Single filename in NAME reply
+     */
+    private String name(final Response response) throws IOException {
+        response.ensurePacketTypeIs(PacketType.NAME);
+        if(response.readUInt32AsInt() == 1) {
+            return response.readString();
+        }
+        throw new SFTPException(String.format("Unexpected data in %s packet", response.getType()));
     }
-}
\ No newline at end of file
+}
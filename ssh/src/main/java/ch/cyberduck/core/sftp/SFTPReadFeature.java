@@ -21,8 +21,7 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Read;
-import ch.cyberduck.core.preferences.Preferences;
-import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
@@ -30,6 +29,7 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import net.schmizz.sshj.sftp.OpenMode;
@@ -40,9 +40,6 @@ public class SFTPReadFeature implements Read {
 
     private final SFTPSession session;
 
-    private final Preferences preferences
-            = PreferencesFactory.get();
-
     public SFTPReadFeature(final SFTPSession session) {
         this.session = session;
     }
@@ -50,14 +47,35 @@ public class SFTPReadFeature implements Read {
     @Override
     public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
+            final SFTPWindowEstimator estimator = session.getReadWindow();
+            final long open = System.nanoTime();
             final RemoteFile handle = session.sftp().open(file.getAbsolute(), EnumSet.of(OpenMode.READ));
+            final long timestamp = System.currentTimeMillis();
+            // Single request to open handle
+            estimator.rtt(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - open));
+            MetricsRegistry.get().time(session.getHost(), MetricsRegistry.RTT, open);
             final int maxUnconfirmedReads = this.getMaxUnconfirmedReads(status);
+            MetricsRegistry.get().record(session.getHost(), MetricsRegistry.READ_WINDOW, maxUnconfirmedReads);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Using %d unconfirmed reads with RTT %.1fms", maxUnconfirmedReads, estimator.getRtt()));
+            }
             if(log.isInfoEnabled()) {
                 log.info(String.format("Skipping %d bytes", status.getOffset()));
             }
             return handle.new ReadAheadRemoteFileInputStream(maxUnconfirmedReads, status.getOffset()) {
                 private final AtomicBoolean close = new AtomicBoolean();
 
+                private long transferred;
+
+                @Override
+                public int read(final byte[] into, final int off, final int len) throws IOException {
+                    final int read = super.read(into, off, len);
+                    if(read > 0) {
+                        transferred += read;
+                    }
+                    return read;
+                }
+
                 @Override
                 public void close() throws IOException {
                     if(close.get()) {
@@ -68,6 +86,7 @@ public class SFTPReadFeature implements Read {
                         super.close();
                     }
                     finally {
+                        estimator.transferred(transferred, System.currentTimeMillis() - timestamp, maxUnconfirmedReads);
                         handle.close();
                         close.set(true);
                     }
@@ -80,11 +99,7 @@ public class SFTPReadFeature implements Read {
     }
 
     protected int getMaxUnconfirmedReads(final TransferStatus status) {
-        if(-1 == status.getLength()) {
-            return preferences.getInteger("sftp.read.maxunconfirmed");
-        }
-        return Integer.min(((int) (status.getLength() / preferences.getInteger("connection.chunksize")) + 1),
-                preferences.getInteger("sftp.read.maxunconfirmed"));
+        return session.getReadWindow().window(status.getLength());
     }
 
     @Override
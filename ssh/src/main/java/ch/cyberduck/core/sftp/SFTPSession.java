@@ -97,6 +97,12 @@ public class SFTPSession extends Session<SSHClient> {
 
     private final SocketFactory socketFactory;
 
+    /**
+     * Unconfirmed requests sized to round-trip time and throughput observed on this connection
+     */
+    private final SFTPWindowEstimator reads = new SFTPWindowEstimator("sftp.read.maxunconfirmed");
+    private final SFTPWindowEstimator writes = new SFTPWindowEstimator("sftp.write.maxunconfirmed");
+
     public SFTPSession(final Host h) {
         this(h, new ProxySocketFactory(h.getProtocol(), new DefaultTrustManagerHostnameCallback(h)));
     }
@@ -322,6 +328,14 @@ public class SFTPSession extends Session<SSHClient> {
         return sftp;
     }
 
+    public SFTPWindowEstimator getReadWindow() {
+        return reads;
+    }
+
+    public SFTPWindowEstimator getWriteWindow() {
+        return writes;
+    }
+
     @Override
     protected void logout() throws BackgroundException {
         try {
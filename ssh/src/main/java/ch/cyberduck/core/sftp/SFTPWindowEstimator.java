@@ -0,0 +1,166 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Number of unconfirmed read or write requests sized to the bandwidth-delay product observed on the connection. The
+ * round-trip time is sampled when opening a file handle and the throughput when a stream is closed. The window grows
+ * when the last transfer was limited by the window and shrinks to the bandwidth-delay product otherwise.
+ */
+public class SFTPWindowEstimator {
+    private static final Logger log = Logger.getLogger(SFTPWindowEstimator.class);
+
+    /**
+     * Factor of bandwidth-delay product allowing the window to grow
+     */
+    private static final double HEADROOM = 1.5d;
+
+    /**
+     * Initial number of unconfirmed requests without samples
+     */
+    private final int initial;
+    private final int minimum;
+    private final int maximum;
+    /**
+     * Payload of single request
+     */
+    private final int chunksize;
+
+    /**
+     * Smoothed round-trip time in milliseconds
+     */
+    private double rtt;
+    /**
+     * Smoothed throughput in bytes per millisecond
+     */
+    private double throughput;
+    /**
+     * Last window chosen
+     */
+    private int window;
+
+    public SFTPWindowEstimator(final String maxunconfirmed) {
+        this(PreferencesFactory.get(), maxunconfirmed);
+    }
+
+    /**
+     * @param maxunconfirmed Property name of user setting for maximum number of unconfirmed requests
+     */
+    public SFTPWindowEstimator(final Preferences preferences, final String maxunconfirmed) {
+        this(preferences.getInteger("sftp.maxunconfirmed.initial"),
+                preferences.getInteger("sftp.maxunconfirmed.min"),
+                preferences.getInteger(maxunconfirmed),
+                preferences.getInteger("connection.chunksize"));
+    }
+
+    /**
+     * @param maximum Upper bound taking precedence over minimum
+     */
+    public SFTPWindowEstimator(final int initial, final int minimum, final int maximum, final int chunksize) {
+        this.maximum = Math.max(1, maximum);
+        this.minimum = Math.max(1, Math.min(minimum, this.maximum));
+        this.initial = Math.min(this.maximum, Math.max(this.minimum, initial));
+        this.chunksize = chunksize;
+        this.window = this.initial;
+    }
+
+    /**
+     * @param millis Time for single request and reply
+     */
+    public synchronized void rtt(final long millis) {
+        if(millis < 0) {
+            return;
+        }
+        // Smoothing as for TCP retransmission timer
+        rtt = rtt == 0 ? Math.max(1d, millis) : rtt * 7 / 8 + Math.max(1d, millis) / 8;
+    }
+
+    /**
+     * @param bytes  Number of bytes transferred with stream
+     * @param millis Time from opening to closing stream
+     * @param window Number of unconfirmed requests used for stream
+     */
+    public synchronized void transferred(final long bytes, final long millis, final int window) {
+        if(millis <= 0) {
+            return;
+        }
+        if(bytes < (long) window * chunksize) {
+            // Window never filled
+            return;
+        }
+        final double sample = (double) bytes / millis;
+        throughput = throughput == 0 ? sample : throughput * 3 / 4 + sample / 4;
+    }
+
+    /**
+     * @param length Length of file or -1 if unknown
+     * @return Number of unconfirmed requests for stream
+     */
+    public synchronized int window(final long length) {
+        int size;
+        if(rtt == 0 || throughput == 0) {
+            size = initial;
+        }
+        else {
+            size = (int) Math.min(maximum, Math.ceil(HEADROOM * throughput * rtt / chunksize));
+        }
+        size = Math.min(maximum, Math.max(minimum, size));
+        if(length != -1) {
+            size = (int) Math.min(size, length / chunksize + 1);
+        }
+        window = size;
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Use %d unconfirmed requests for RTT %.1fms and throughput %.1f bytes/ms", size, rtt, throughput));
+        }
+        return size;
+    }
+
+    /**
+     * @return Smoothed round-trip time in milliseconds or 0 if not sampled
+     */
+    public synchronized double getRtt() {
+        return rtt;
+    }
+
+    /**
+     * @return Smoothed throughput in bytes per millisecond or 0 if not sampled
+     */
+    public synchronized double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * @return Number of unconfirmed requests chosen for last stream
+     */
+    public synchronized int getWindow() {
+        return window;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SFTPWindowEstimator{");
+        sb.append("rtt=").append(rtt);
+        sb.append(", throughput=").append(throughput);
+        sb.append(", window=").append(window);
+        sb.append('}');
+        return sb.toString();
+    }
+}
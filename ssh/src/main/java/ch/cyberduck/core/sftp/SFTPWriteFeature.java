@@ -24,8 +24,7 @@ import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.DisabledChecksumCompute;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.io.VoidStatusOutputStream;
-import ch.cyberduck.core.preferences.Preferences;
-import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.shared.AppendWriteFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -33,6 +32,7 @@ import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import net.schmizz.sshj.sftp.OpenMode;
@@ -43,9 +43,6 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
 
     private final SFTPSession session;
 
-    private final Preferences preferences
-            = PreferencesFactory.get();
-
     public SFTPWriteFeature(final SFTPSession session) {
         super(session);
         this.session = session;
@@ -81,10 +78,17 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
                     flags = EnumSet.of(OpenMode.CREAT, OpenMode.TRUNC, OpenMode.WRITE);
                 }
             }
+            final SFTPWindowEstimator estimator = session.getWriteWindow();
+            final long open = System.nanoTime();
             final RemoteFile handle = session.sftp().open(file.getAbsolute(), flags);
+            final long timestamp = System.currentTimeMillis();
+            // Single request to open handle
+            estimator.rtt(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - open));
+            MetricsRegistry.get().time(session.getHost(), MetricsRegistry.RTT, open);
             final int maxUnconfirmedWrites = this.getMaxUnconfirmedWrites(status);
+            MetricsRegistry.get().record(session.getHost(), MetricsRegistry.WRITE_WINDOW, maxUnconfirmedWrites);
             if(log.isInfoEnabled()) {
-                log.info(String.format("Using %d unconfirmed writes", maxUnconfirmedWrites));
+                log.info(String.format("Using %d unconfirmed writes with RTT %.1fms", maxUnconfirmedWrites, estimator.getRtt()));
             }
             if(log.isInfoEnabled()) {
                 log.info(String.format("Skipping %d bytes", status.getOffset()));
@@ -93,6 +97,14 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
             return new VoidStatusOutputStream(handle.new RemoteFileOutputStream(status.getOffset(), maxUnconfirmedWrites) {
                 private final AtomicBoolean close = new AtomicBoolean();
 
+                private long transferred;
+
+                @Override
+                public void write(final byte[] buf, final int off, final int len) throws IOException {
+                    super.write(buf, off, len);
+                    transferred += len;
+                }
+
                 @Override
                 public void close() throws IOException {
                     if(close.get()) {
@@ -103,6 +115,8 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
                         super.close();
                     }
                     finally {
+                        // Includes waiting for outstanding writes to be confirmed
+                        estimator.transferred(transferred, System.currentTimeMillis() - timestamp, maxUnconfirmedWrites);
                         handle.close();
                         close.set(true);
                     }
@@ -115,11 +129,7 @@ public class SFTPWriteFeature extends AppendWriteFeature<Void> {
     }
 
     protected int getMaxUnconfirmedWrites(final TransferStatus status) {
-        if(-1 == status.getLength()) {
-            return preferences.getInteger("sftp.write.maxunconfirmed");
-        }
-        return Integer.min((int) (status.getLength() / preferences.getInteger("connection.chunksize")) + 1,
-                preferences.getInteger("sftp.write.maxunconfirmed"));
+        return session.getWriteWindow().window(status.getLength());
     }
 
     @Override
@@ -20,15 +20,18 @@ package ch.cyberduck.core.sftp;
 import ch.cyberduck.core.*;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -71,6 +74,54 @@ public class SFTPListServiceTest {
         session.close();
     }
 
+    @Test
+    public void testListSymlinksExceedingMaxUnconfirmed() throws Exception {
+        final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
+                System.getProperties().getProperty("sftp.user"), System.getProperties().getProperty("sftp.password")
+        ));
+        final SFTPSession session = new SFTPSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+                new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, PathCache.empty(), new DisabledCancelCallback());
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new SFTPDirectoryFeature(session).mkdir(directory, null, new TransferStatus());
+        final Path file = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        new SFTPTouchFeature(session).touch(file, new TransferStatus());
+        final Path folder = new Path(directory, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory));
+        new SFTPDirectoryFeature(session).mkdir(folder, null, new TransferStatus());
+        final List<Path> symlinks = new ArrayList<Path>();
+        // More symbolic links than requests sent before waiting for replies
+        final int maxunconfirmed = 4;
+        for(int i = 0; i < 3 * maxunconfirmed + 1; i++) {
+            final Path target = i % 2 == 0 ? file : folder;
+            final Path symlink = new Path(directory, new AlphanumericRandomStringService().random(),
+                    EnumSet.of(target.isDirectory() ? Path.Type.directory : Path.Type.file, Path.Type.symboliclink));
+            new SFTPSymlinkFeature(session).symlink(symlink, target.getName());
+            symlinks.add(symlink);
+        }
+        PreferencesFactory.get().setProperty("sftp.listing.symlink.maxunconfirmed", maxunconfirmed);
+        try {
+            final AttributedList<Path> list = new SFTPListService(session).list(directory, new DisabledListProgressListener());
+            assertEquals(symlinks.size() + 2, list.size());
+            for(int i = 0; i < symlinks.size(); i++) {
+                final Path symlink = list.get(symlinks.get(i));
+                assertNotNull(symlink);
+                assertTrue(symlink.isSymbolicLink());
+                assertEquals(i % 2 == 0 ? file : folder, symlink.getSymlinkTarget());
+                assertEquals(i % 2 == 0, symlink.isFile());
+            }
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("sftp.listing.symlink.maxunconfirmed");
+        }
+        final List<Path> delete = new ArrayList<Path>(symlinks);
+        delete.add(file);
+        delete.add(folder);
+        delete.add(directory);
+        new SFTPDeleteFeature(session).delete(delete, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        session.close();
+    }
+
     @Test
     public void testInvalidSymlinkTarget() throws Exception {
         final Host host = new Host(new SFTPProtocol(), "test.cyberduck.ch", new Credentials(
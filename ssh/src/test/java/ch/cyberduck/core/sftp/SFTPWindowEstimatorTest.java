@@ -0,0 +1,106 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2017 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SFTPWindowEstimatorTest {
+
+    @Test
+    public void testInitial() {
+        final SFTPWindowEstimator estimator = new SFTPWindowEstimator(64, 4, 256, 32768);
+        assertEquals(64, estimator.window(-1L));
+        // Limited by file length
+        assertEquals(33, estimator.window(1024L * 1024L));
+        assertEquals(1, estimator.window(0L));
+        estimator.rtt(100L);
+        // No throughput sample
+        assertEquals(64, estimator.window(-1L));
+    }
+
+    @Test
+    public void testGrowWhenLimitedByWindow() {
+        final SFTPWindowEstimator estimator = new SFTPWindowEstimator(64, 4, 256, 32768);
+        estimator.rtt(200L);
+        // 64 requests of 32KB per round trip of 200ms
+        estimator.transferred(64L * 32768 * 50, 50 * 200L, 64);
+        assertEquals(96, estimator.window(-1L));
+        assertEquals(96, estimator.getWindow());
+    }
+
+    @Test
+    public void testShrinkWhenLimitedByBandwidth() {
+        final SFTPWindowEstimator estimator = new SFTPWindowEstimator(64, 4, 256, 32768);
+        estimator.rtt(1L);
+        // 100MB/s on local network
+        estimator.transferred(100L * 1024 * 1024, 1000L, 64);
+        assertEquals(5, estimator.window(-1L));
+    }
+
+    @Test
+    public void testMaximum() {
+        final SFTPWindowEstimator estimator = new SFTPWindowEstimator(64, 4, 256, 32768);
+        estimator.rtt(1000L);
+        estimator.transferred(1024L * 1024 * 1024, 1000L, 64);
+        assertEquals(256, estimator.window(-1L));
+    }
+
+    @Test
+    public void testIgnoreSmallTransfer() {
+        final SFTPWindowEstimator estimator = new SFTPWindowEstimator(64, 4, 256, 32768);
+        estimator.rtt(100L);
+        estimator.transferred(1024L, 1000L, 64);
+        assertEquals(0d, estimator.getThroughput(), 0d);
+        assertEquals(64, estimator.window(-1L));
+    }
+
+    @Test
+    public void testUserMaximum() {
+        final SFTPWindowEstimator estimator = new SFTPWindowEstimator(64, 4, 2, 32768);
+        assertEquals(2, estimator.window(-1L));
+        estimator.rtt(1000L);
+        estimator.transferred(1024L * 1024 * 1024, 1000L, 2);
+        assertEquals(2, estimator.window(-1L));
+    }
+
+    @Test
+    public void testUserMaximumPreference() {
+        PreferencesFactory.get().setProperty("sftp.read.maxunconfirmed", 8);
+        try {
+            final SFTPWindowEstimator estimator = new SFTPWindowEstimator("sftp.read.maxunconfirmed");
+            assertEquals(8, estimator.window(-1L));
+            estimator.rtt(1000L);
+            estimator.transferred(1024L * 1024 * 1024, 1000L, 8);
+            assertEquals(8, estimator.window(-1L));
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("sftp.read.maxunconfirmed");
+        }
+    }
+
+    @Test
+    public void testMinimum() {
+        final SFTPWindowEstimator estimator = new SFTPWindowEstimator(64, 1, 256, 32768);
+        estimator.rtt(1L);
+        // Bandwidth-delay product less than single request
+        estimator.transferred(64L * 32768, 1000L, 64);
+        assertEquals(1, estimator.window(-1L));
+    }
+}